@@ -0,0 +1,48 @@
+package gui.game.bench;
+
+import gui.game.GameSimulation;
+import gui.game.GameState;
+import gui.game.TableState;
+
+import java.util.Random;
+
+//общая подготовка столов для бенчмарков: фиксированный seed, шарики в игровой зоне
+final class BenchmarkTables {
+    static final int TABLE_WIDTH = 800;
+    static final int TABLE_HEIGHT = 600;
+    static final long SEED = 42;
+    private static final double BALL_MARGIN = 10;
+
+    private BenchmarkTables() {
+    }
+
+    static GameSimulation[] createSimulations(int count) {
+        GameSimulation[] simulations = new GameSimulation[count];
+        for (int i = 0; i < count; i++) {
+            simulations[i] = new GameSimulation(TABLE_WIDTH, TABLE_HEIGHT);
+        }
+        resetBalls(simulations, new Random(SEED));
+        return simulations;
+    }
+
+    //раскладывает шарики по полю выше воронки, чтобы они не терялись во время замера
+    static void resetBalls(GameSimulation[] simulations, Random random) {
+        for (GameSimulation simulation : simulations) {
+            TableState state = simulation.getState();
+            state.setGameState(GameState.PLAYING);
+            state.setBallLost(false);
+            state.setLives(Integer.MAX_VALUE);
+            state.setScore(0);
+
+            double minX = state.getTopLeftX() + BALL_MARGIN;
+            double maxX = state.getTopRightX() - BALL_MARGIN;
+            double minY = state.getTopLeftY() + BALL_MARGIN;
+            double maxY = state.getFunnelLeftY();
+
+            state.setBallPositionX(minX + random.nextDouble() * (maxX - minX));
+            state.setBallPositionY(minY + random.nextDouble() * (maxY - minY));
+            state.setBallVelocityX((random.nextDouble() - 0.5) * 8);
+            state.setBallVelocityY((random.nextDouble() - 0.5) * 8);
+        }
+    }
+}
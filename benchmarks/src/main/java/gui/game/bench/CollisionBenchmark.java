@@ -0,0 +1,97 @@
+package gui.game.bench;
+
+import gui.game.Bumper;
+import gui.game.CollisionGrid;
+import gui.game.GamePhysics;
+import gui.game.Target;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//проверки столкновения шарика с count бамперами и мишенями
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({"1", "100", "10000"})
+    public int count;
+
+    private Bumper[] m_bumpers;
+    private Target[] m_targets;
+    private double m_ballX;
+    private double m_ballY;
+
+    private CollisionGrid m_bumperGrid;
+    private int[] m_candidates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkTables.SEED);
+        m_bumpers = new Bumper[count];
+        m_targets = new Target[count];
+        for (int i = 0; i < count; i++) {
+            m_bumpers[i] = new Bumper(random.nextDouble() * BenchmarkTables.TABLE_WIDTH,
+                    random.nextDouble() * BenchmarkTables.TABLE_HEIGHT, 15, Color.GREEN, 50, 8.0);
+            m_targets[i] = new Target(random.nextDouble() * BenchmarkTables.TABLE_WIDTH,
+                    random.nextDouble() * BenchmarkTables.TABLE_HEIGHT, 25, 12, Color.RED, 100);
+        }
+        m_ballX = BenchmarkTables.TABLE_WIDTH / 2.0;
+        m_ballY = BenchmarkTables.TABLE_HEIGHT / 2.0;
+
+        double[] minX = new double[count];
+        double[] minY = new double[count];
+        double[] maxX = new double[count];
+        double[] maxY = new double[count];
+        for (int i = 0; i < count; i++) {
+            Bumper bumper = m_bumpers[i];
+            minX[i] = bumper.getX() - bumper.getRadius();
+            minY[i] = bumper.getY() - bumper.getRadius();
+            maxX[i] = bumper.getX() + bumper.getRadius();
+            maxY[i] = bumper.getY() + bumper.getRadius();
+        }
+        m_bumperGrid = new CollisionGrid();
+        m_bumperGrid.build(minX, minY, maxX, maxY, count);
+        m_candidates = new int[count];
+    }
+
+    @Benchmark
+    public void checkCollisionBumper(Blackhole blackhole) {
+        for (Bumper bumper : m_bumpers) {
+            blackhole.consume(bumper.checkCollisionBumper(m_ballX, m_ballY, GamePhysics.BALL_RADIUS));
+        }
+    }
+
+    @Benchmark
+    public void checkCollisionTarget(Blackhole blackhole) {
+        for (Target target : m_targets) {
+            blackhole.consume(target.checkCollisionTarget(m_ballX, m_ballY, GamePhysics.BALL_RADIUS));
+        }
+    }
+
+    //то же, что checkCollisionBumper, но через широкую фазу
+    @Benchmark
+    public void checkCollisionBumperGrid(Blackhole blackhole) {
+        double radius = GamePhysics.BALL_RADIUS;
+        int found = m_bumperGrid.query(m_ballX - radius, m_ballY - radius, m_ballX + radius, m_ballY + radius,
+                m_candidates);
+        for (int i = 0; i < found; i++) {
+            blackhole.consume(m_bumpers[m_candidates[i]].checkCollisionBumper(m_ballX, m_ballY, radius));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package gui.game.bench;
+
+import gui.game.FlipperController;
+import gui.game.GameSimulation;
+import gui.game.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//расчёт концов флипперов для count углов
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlipperBenchmark {
+    @Param({"1", "100", "10000"})
+    public int count;
+
+    private FlipperController m_flipperController;
+    private double[] m_angles;
+    private final Vector2 m_endPoint = new Vector2();
+
+    @Setup
+    public void setUp() {
+        m_flipperController = new GameSimulation(BenchmarkTables.TABLE_WIDTH, BenchmarkTables.TABLE_HEIGHT)
+                .getFlipperController();
+
+        Random random = new Random(BenchmarkTables.SEED);
+        m_angles = new double[count];
+        for (int i = 0; i < count; i++) {
+            m_angles[i] = FlipperController.FLIPPER_ACTIVE_ANGLE
+                    + random.nextDouble() * (FlipperController.FLIPPER_REST_ANGLE - FlipperController.FLIPPER_ACTIVE_ANGLE);
+        }
+    }
+
+    @Benchmark
+    public void calculateFlipperEndPoint(Blackhole blackhole) {
+        double[] angles = m_angles;
+        for (int i = 0; i < angles.length; i++) {
+            m_flipperController.calculateFlipperEndPoint(300, 400, angles[i], (i & 1) == 0, m_endPoint);
+            blackhole.consume(m_endPoint.x);
+            blackhole.consume(m_endPoint.y);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package gui.game.bench;
+
+import gui.game.GamePhysics;
+import gui.game.GameSimulation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//горячие пути GamePhysics: count независимых столов по одному шарику
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GamePhysicsBenchmark {
+    @Param({"1", "100", "10000"})
+    public int count;
+
+    private GameSimulation[] m_simulations;
+    private GamePhysics[] m_physics;
+
+    private double[] m_segments;
+    private double[] m_points;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        m_simulations = BenchmarkTables.createSimulations(count);
+        m_physics = new GamePhysics[count];
+        for (int i = 0; i < count; i++) {
+            m_physics[i] = m_simulations[i].getPhysics();
+        }
+
+        Random random = new Random(BenchmarkTables.SEED);
+        m_segments = new double[count * 4];
+        m_points = new double[count * 2];
+        for (int i = 0; i < m_segments.length; i++) {
+            m_segments[i] = random.nextDouble() * BenchmarkTables.TABLE_WIDTH;
+        }
+        for (int i = 0; i < m_points.length; i++) {
+            m_points[i] = random.nextDouble() * BenchmarkTables.TABLE_HEIGHT;
+        }
+    }
+
+    //шарики возвращаются на поле перед каждой итерацией, иначе они улетают за его пределы
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        BenchmarkTables.resetBalls(m_simulations, new Random(BenchmarkTables.SEED));
+    }
+
+    @Benchmark
+    public void updatePhysics() {
+        GamePhysics[] physics = m_physics;
+        for (GamePhysics p : physics) {
+            p.updatePhysics();
+        }
+    }
+
+    @Benchmark
+    public void checkCollisions() {
+        GamePhysics[] physics = m_physics;
+        for (GamePhysics p : physics) {
+            p.checkCollisions();
+        }
+    }
+
+    @Benchmark
+    public void pointToLineDistance(Blackhole blackhole) {
+        double[] segments = m_segments;
+        double[] points = m_points;
+        for (int i = 0; i < count; i++) {
+            blackhole.consume(GamePhysics.pointToLineDistance(points[i * 2], points[i * 2 + 1],
+                    segments[i * 4], segments[i * 4 + 1], segments[i * 4 + 2], segments[i * 4 + 3]));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package gui.game.bench;
+
+import gui.game.BallStore;
+import gui.game.GamePhysics;
+import gui.game.GameSimulation;
+import gui.game.TableState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//один стол с count шариками в режиме мультибола
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiBallBenchmark {
+    @Param({"1", "100", "10000"})
+    public int count;
+
+    private GameSimulation m_simulation;
+    private GamePhysics m_physics;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        m_simulation = BenchmarkTables.createSimulations(1)[0];
+        m_physics = m_simulation.getPhysics();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        TableState state = m_simulation.getState();
+        BenchmarkTables.resetBalls(new GameSimulation[]{m_simulation}, new Random(BenchmarkTables.SEED));
+
+        BallStore balls = state.getBalls();
+        balls.resetToSingle(state.getBallPositionX(), state.getBallPositionY());
+        Random random = new Random(BenchmarkTables.SEED);
+        double minX = state.getTopLeftX() + GamePhysics.BALL_RADIUS;
+        double width = state.getTopRightX() - minX - GamePhysics.BALL_RADIUS;
+        double minY = state.getTopLeftY() + GamePhysics.BALL_RADIUS;
+        double height = state.getFunnelLeftY() - minY;
+        while (balls.getActiveCount() < count) {
+            balls.add(minX + random.nextDouble() * width, minY + random.nextDouble() * height,
+                    (random.nextDouble() - 0.5) * 8, (random.nextDouble() - 0.5) * 8);
+        }
+    }
+
+    @Benchmark
+    public void updatePhysics() {
+        m_physics.updatePhysics();
+    }
+
+    @Benchmark
+    public void checkCollisions() {
+        m_physics.checkCollisions();
+    }
+}
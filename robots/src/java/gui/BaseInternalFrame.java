@@ -8,6 +8,7 @@ import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.beans.PropertyVetoException;
+import log.LogCategory;
 import log.Logger;
 
 public abstract class BaseInternalFrame extends JInternalFrame {
@@ -128,7 +129,7 @@ public abstract class BaseInternalFrame extends JInternalFrame {
             onConfirmedClose();
             setClosed(true);
         } catch (PropertyVetoException ex) {
-            Logger.error("Ошибка при закрытии " + windowName + ": " + ex.getMessage());
+            Logger.error(LogCategory.Window, "Ошибка при закрытии " + windowName + ": " + ex.getMessage());
         }
     }
 
@@ -186,7 +187,7 @@ public abstract class BaseInternalFrame extends JInternalFrame {
                 }
             }
         } catch (Exception e) {
-            Logger.error("Ошибка при восстановлении состояния " + windowName + ": " + e.getMessage());
+            Logger.error(LogCategory.Window, "Ошибка при восстановлении состояния " + windowName + ": " + e.getMessage());
         }
     }
 
@@ -3,14 +3,22 @@ package gui;
 import java.awt.BorderLayout;
 import javax.swing.JPanel;
 import gui.game.GameVisualizer;
+import log.LogCategory;
 import log.Logger;
 
 public class GameWindow extends BaseInternalFrame {
+    private final GameVisualizer visualizer;
+
     public GameWindow() {
-        super("Игровое поле", "Игровое поле",
-                false, true, false, false);
+        this(0);
+    }
+
+    //tableNumber > 0 - дополнительный стол аркады
+    public GameWindow(int tableNumber) {
+        super(titleFor(tableNumber), titleFor(tableNumber),
+                false, true, false, tableNumber > 0);
 
-        GameVisualizer visualizer = new GameVisualizer();
+        visualizer = new GameVisualizer(tableNumber);
         JPanel panel = new JPanel(new BorderLayout());
         panel.add(visualizer, BorderLayout.CENTER);
         getContentPane().add(panel);
@@ -18,9 +26,14 @@ public class GameWindow extends BaseInternalFrame {
         pack();
     }
 
+    private static String titleFor(int tableNumber) {
+        return tableNumber > 0 ? "Стол аркады " + tableNumber : "Игровое поле";
+    }
+
     @Override
     protected void onConfirmedClose() {
-        Logger.debug("Игровое окно закрыто");
+        visualizer.shutdown();
+        Logger.debug(LogCategory.Window, "Игровое окно закрыто");
     }
 
     @Override
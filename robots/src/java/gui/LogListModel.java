@@ -0,0 +1,70 @@
+package gui;
+
+import java.util.List;
+import javax.swing.AbstractListModel;
+
+import log.LogEntry;
+import log.LogWindowSource;
+
+//модель списка протокола: хранит копию окна LogWindowSource в кольце и догружает только новые записи;
+//все методы вызываются из EDT
+public class LogListModel extends AbstractListModel<LogEntry> {
+    private final LogWindowSource logSource;
+    private final LogEntry[] entries;
+    private int start = 0;
+    private int size = 0;
+    //номер записи, с которой начнётся следующая догрузка
+    private long nextSequence = 0;
+
+    public LogListModel(LogWindowSource logSource) {
+        this.logSource = logSource;
+        this.entries = new LogEntry[logSource.capacity()];
+    }
+
+    //переносит записи, появившиеся после прошлого вызова; возвращает число новых строк
+    public int update() {
+        long oldest = logSource.getOldestSequence();
+        List<LogEntry> fresh = logSource.rangeBySequence(Math.max(nextSequence, oldest), entries.length);
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        nextSequence = fresh.get(fresh.size() - 1).getSequence() + 1;
+
+        //вытесненные в источнике записи уходят и из списка
+        long evictBefore = Math.max(oldest, nextSequence - entries.length);
+        int removed = 0;
+        while (size > 0 && entries[start].getSequence() < evictBefore) {
+            entries[start] = null;
+            start = (start + 1) % entries.length;
+            size--;
+            removed++;
+        }
+        if (removed > 0) {
+            fireIntervalRemoved(this, 0, removed - 1);
+        }
+
+        int added = 0;
+        for (LogEntry entry : fresh) {
+            if (entry.getSequence() < evictBefore) {
+                continue;
+            }
+            entries[(start + size) % entries.length] = entry;
+            size++;
+            added++;
+        }
+        if (added > 0) {
+            fireIntervalAdded(this, size - added, size - 1);
+        }
+        return added;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public LogEntry getElementAt(int index) {
+        return entries[(start + index) % entries.length];
+    }
+}
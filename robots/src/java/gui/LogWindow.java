@@ -1,9 +1,17 @@
 package gui;
 
 import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
 import java.awt.EventQueue;
-import java.awt.TextArea;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
 import javax.swing.JPanel;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.Timer;
 
 import log.LogChangeListener;
 import log.LogEntry;
@@ -11,47 +19,84 @@ import log.LogWindowSource;
 import log.LogLevel;
 
 public class LogWindow extends BaseInternalFrame implements LogChangeListener {
+    //изменения протокола собираются и применяются не чаще раза в кадр
+    private static final int UPDATE_DELAY_MILLIS = 16;
+
     private final LogWindowSource logSource;
-    private final TextArea logContent;
+    private final LogListModel logModel;
+    //JList рисует только видимые строки, поэтому длинный протокол не тормозит окно
+    private final JList<LogEntry> logContent;
+    private final JScrollPane scrollPane;
+    private final Timer updateTimer;
+    private final AtomicBoolean updateScheduled = new AtomicBoolean();
 
     public LogWindow(LogWindowSource logSource) {
         super("Протокол работы", "Протокол работы",
                 true, true, true, true);
         this.logSource = logSource;
-        this.logSource.registerListener(this);
-        this.logContent = new TextArea("");
-        this.logContent.setSize(200, 500);
+        this.logModel = new LogListModel(logSource);
+        this.logContent = new JList<>(logModel);
+        this.logContent.setCellRenderer(new LogEntryRenderer());
+        //одинаковая высота строк: список не измеряет каждую строку
+        this.logContent.setFixedCellHeight(16);
+        this.scrollPane = new JScrollPane(logContent);
+        this.scrollPane.setPreferredSize(new Dimension(200, 500));
+
+        this.updateTimer = new Timer(UPDATE_DELAY_MILLIS, e -> updateLogContent());
+        this.updateTimer.setRepeats(false);
 
         JPanel panel = new JPanel(new BorderLayout());
-        panel.add(logContent, BorderLayout.CENTER);
+        panel.add(scrollPane, BorderLayout.CENTER);
         getContentPane().add(panel);
 
         pack();
         updateLogContent();
+        this.logSource.registerListener(this);
     }
 
     @Override
     protected void onConfirmedClose() {
         logSource.unregisterListener(this);
+        updateTimer.stop();
         logSource.append(LogLevel.Debug, "Окно протокола закрыто");
     }
 
     private void updateLogContent() {
-        StringBuilder content = new StringBuilder();
-        for (LogEntry entry : logSource.all()) {
-            content.append(entry.getMessage()).append("\n");
+        updateScheduled.set(false);
+        JScrollBar scrollBar = scrollPane.getVerticalScrollBar();
+        boolean atBottom = scrollBar.getValue() + scrollBar.getVisibleAmount() >= scrollBar.getMaximum();
+        if (logModel.update() > 0 && atBottom) {
+            logContent.ensureIndexIsVisible(logModel.getSize() - 1);
         }
-        logContent.setText(content.toString());
-        logContent.invalidate();
     }
 
     @Override
     public void onLogChanged() {
-        EventQueue.invokeLater(this::updateLogContent);
+        //первое изменение после обновления запускает таймер, остальные до его срабатывания ничего не стоят
+        if (updateScheduled.compareAndSet(false, true)) {
+            EventQueue.invokeLater(updateTimer::restart);
+        }
+    }
+
+    LogListModel getLogModel() {
+        return logModel;
     }
 
     @Override
     protected boolean isMaximizableSupported() {
         return true;
     }
+
+    private static class LogEntryRenderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            LogEntry entry = (LogEntry) value;
+            super.getListCellRendererComponent(list, entry.getMessage(), index, isSelected, cellHasFocus);
+            if (!isSelected && entry.getLevel().level() >= LogLevel.Error.level()) {
+                setForeground(Color.RED);
+            }
+            return this;
+        }
+    }
 }
@@ -0,0 +1,67 @@
+package gui.game;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+//холст для активной отрисовки: кадры рисует поток игрового цикла через BufferStrategy,
+//минуя repaint и очередь событий; при поддержке видеокарты буферы переключаются (page flipping)
+public class ActiveRenderCanvas extends Canvas {
+    private static final int BUFFER_COUNT = 2;
+
+    private final GameRenderer m_renderer;
+    private volatile boolean m_displayed = false;
+    private BufferStrategy m_strategy;
+
+    public ActiveRenderCanvas(GameRenderer renderer) {
+        m_renderer = renderer;
+        setIgnoreRepaint(true);
+        setFocusable(true);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        m_displayed = true;
+    }
+
+    @Override
+    public void removeNotify() {
+        m_displayed = false;
+        super.removeNotify();
+    }
+
+    //только поток цикла; false, если холст ещё не показан и кадр не нарисован
+    public boolean renderFrame() {
+        if (!m_displayed || getWidth() <= 0 || getHeight() <= 0) {
+            m_strategy = null;
+            return false;
+        }
+        try {
+            if (m_strategy == null) {
+                createBufferStrategy(BUFFER_COUNT);
+                m_strategy = getBufferStrategy();
+            }
+            //буферы в видеопамяти могут потеряться (смена режима, блокировка экрана) - тогда кадр рисуется заново
+            do {
+                do {
+                    Graphics2D g2d = (Graphics2D) m_strategy.getDrawGraphics();
+                    try {
+                        m_renderer.render(g2d);
+                    } finally {
+                        g2d.dispose();
+                    }
+                } while (m_strategy.contentsRestored());
+                m_strategy.show();
+            } while (m_strategy.contentsLost());
+        } catch (IllegalStateException e) {
+            //холст убрали с экрана между проверкой и отрисовкой
+            m_strategy = null;
+            return false;
+        }
+        //на X11 без sync кадр может застрять в очереди отрисовки
+        Toolkit.getDefaultToolkit().sync();
+        return true;
+    }
+}
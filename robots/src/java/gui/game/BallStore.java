@@ -0,0 +1,117 @@
+package gui.game;
+
+import java.util.Arrays;
+
+//шарики в виде структуры массивов: физика проходит по ним плотными циклами без объектов на шарик
+public final class BallStore {
+    public static final int DEFAULT_CAPACITY = 16;
+
+    //массивы открыты пакету, чтобы GamePhysics и GameRenderer читали их напрямую
+    double[] x;
+    double[] y;
+    double[] vx;
+    double[] vy;
+    //положение до последнего шага физики, для интерполяции при отрисовке
+    double[] prevX;
+    double[] prevY;
+    boolean[] active;
+    //занятые слоты [0, count), среди них могут быть неактивные
+    int count;
+    int activeCount;
+
+    public BallStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BallStore(int capacity) {
+        int size = Math.max(1, capacity);
+        x = new double[size];
+        y = new double[size];
+        vx = new double[size];
+        vy = new double[size];
+        prevX = new double[size];
+        prevY = new double[size];
+        active = new boolean[size];
+        //шарик 0 существует всегда: это основной шарик игры
+        count = 1;
+        activeCount = 1;
+        active[0] = true;
+    }
+
+    //добавляет шарик в первый свободный слот и возвращает его индекс
+    public int add(double ballX, double ballY, double velocityX, double velocityY) {
+        int index = 0;
+        while (index < count && active[index]) {
+            index++;
+        }
+        if (index == count) {
+            if (count == x.length) {
+                grow();
+            }
+            count++;
+        }
+        x[index] = ballX;
+        y[index] = ballY;
+        vx[index] = velocityX;
+        vy[index] = velocityY;
+        prevX[index] = ballX;
+        prevY[index] = ballY;
+        active[index] = true;
+        activeCount++;
+        return index;
+    }
+
+    public void deactivate(int index) {
+        if (active[index]) {
+            active[index] = false;
+            activeCount--;
+        }
+    }
+
+    //оставляет только шарик 0 в заданной точке
+    public void resetToSingle(double ballX, double ballY) {
+        Arrays.fill(active, 0, count, false);
+        count = 1;
+        activeCount = 1;
+        active[0] = true;
+        x[0] = ballX;
+        y[0] = ballY;
+        vx[0] = 0;
+        vy[0] = 0;
+        prevX[0] = ballX;
+        prevY[0] = ballY;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        active = Arrays.copyOf(active, capacity);
+    }
+
+    public int getCount() { return count; }
+    public int getActiveCount() { return activeCount; }
+    public int getCapacity() { return x.length; }
+
+    public boolean isActive(int index) { return active[index]; }
+
+    public double getX(int index) { return x[index]; }
+    public void setX(int index, double value) { x[index] = value; }
+
+    public double getY(int index) { return y[index]; }
+    public void setY(int index, double value) { y[index] = value; }
+
+    //alpha = 0 - положение до последнего шага, alpha = 1 - текущее
+    public double getInterpolatedX(int index, double alpha) { return prevX[index] + (x[index] - prevX[index]) * alpha; }
+    public double getInterpolatedY(int index, double alpha) { return prevY[index] + (y[index] - prevY[index]) * alpha; }
+
+    public double getVelocityX(int index) { return vx[index]; }
+    public void setVelocityX(int index, double value) { vx[index] = value; }
+
+    public double getVelocityY(int index) { return vy[index]; }
+    public void setVelocityY(int index, double value) { vy[index] = value; }
+}
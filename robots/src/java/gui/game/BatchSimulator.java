@@ -0,0 +1,188 @@
+package gui.game;
+
+import log.LogLevel;
+import log.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//пакетная прогонка игр без окна для подбора параметров стола: каждая игра - отдельная GameSimulation
+//со своим зерном, игры раскладываются по ядрам через ForkJoinPool и друг от друга не зависят
+public class BatchSimulator {
+    public static final int DEFAULT_MAX_TICKS = 100_000;
+
+    private final int m_width;
+    private final int m_height;
+    private final String m_policy;
+    private final int m_maxTicks;
+    private final long m_seed;
+    //null - стандартный стол
+    private volatile TableLayout m_layout;
+
+    public BatchSimulator(int width, int height, String policy, int maxTicks, long seed) {
+        //проверка имени стратегии до запуска потоков
+        FlipperPolicy.create(policy, seed);
+        m_width = width;
+        m_height = height;
+        m_policy = policy;
+        m_maxTicks = maxTicks;
+        m_seed = seed;
+    }
+
+    public void setLayout(TableLayout layout) {
+        m_layout = layout;
+    }
+
+    public BatchStatistics run(int games, int parallelism) {
+        BatchStatistics statistics = new BatchStatistics();
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            pool.invoke(new GamesTask(0, games, statistics));
+        } finally {
+            pool.shutdown();
+        }
+        statistics.setElapsedNanos(System.nanoTime() - start);
+        return statistics;
+    }
+
+    //игра с номером index всегда одна и та же, сколько бы потоков ни было
+    void playGame(int index, BatchStatistics statistics) {
+        long seed = gameSeed(index);
+        GameSimulation simulation = new GameSimulation(m_width, m_height);
+        TableLayout layout = m_layout;
+        if (layout != null) {
+            simulation.setLayout(layout);
+        }
+        simulation.setSeed(seed);
+        FlipperPolicy policy = FlipperPolicy.create(m_policy, policySeed(seed));
+        TableState state = simulation.getState();
+
+        simulation.submitInput(GameInput.START);
+        long ticks = 0;
+        long lifetime = 0;
+        boolean finished = false;
+        while (ticks < m_maxTicks) {
+            policy.beforeTick(simulation);
+            simulation.tick();
+            ticks++;
+            if (!state.isBallLost()) {
+                lifetime++;
+                continue;
+            }
+            if (lifetime > 0) {
+                statistics.recordBallLifetime(lifetime);
+                lifetime = 0;
+            }
+            if (state.getLives() <= 0) {
+                finished = true;
+                break;
+            }
+            simulation.submitInput(GameInput.START);
+        }
+        statistics.recordGame(simulation, ticks, finished);
+    }
+
+    private long gameSeed(int index) {
+        return m_seed + index * 0x9E3779B97F4A7C15L;
+    }
+
+    //зерно стратегии флипперов не должно совпадать с зерном запуска шарика, иначе случайные нажатия
+    //повторяют ту же последовательность, что и скорости запуска; перемешивание - шаг SplitMix64
+    public static long policySeed(long gameSeed) {
+        long z = (gameSeed ^ 0x5DEECE66DL) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class GamesTask extends RecursiveAction {
+        private final int m_from;
+        private final int m_to;
+        private final BatchStatistics m_statistics;
+
+        GamesTask(int from, int to, BatchStatistics statistics) {
+            m_from = from;
+            m_to = to;
+            m_statistics = statistics;
+        }
+
+        //игры длинные, поэтому делим до одной игры на задачу
+        @Override
+        protected void compute() {
+            if (m_to - m_from == 1) {
+                playGame(m_from, m_statistics);
+            } else if (m_to > m_from) {
+                int middle = (m_from + m_to) >>> 1;
+                invokeAll(new GamesTask(m_from, middle, m_statistics), new GamesTask(middle, m_to, m_statistics));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 1_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxTicks = DEFAULT_MAX_TICKS;
+        String policy = "reactive";
+        long seed = 1;
+        int width = 800;
+        int height = 600;
+        String table = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : "";
+                switch (args[i]) {
+                    case "--games": games = Integer.parseInt(value); i++; break;
+                    case "--threads": threads = Integer.parseInt(value); i++; break;
+                    case "--ticks": maxTicks = Integer.parseInt(value); i++; break;
+                    case "--policy": policy = value; i++; break;
+                    case "--seed": seed = Long.parseLong(value); i++; break;
+                    case "--table": table = value; i++; break;
+                    case "--size": {
+                        String[] size = value.split("x");
+                        width = Integer.parseInt(size[0]);
+                        height = Integer.parseInt(size[1]);
+                        i++;
+                        break;
+                    }
+                    default: throw new IllegalArgumentException("Неизвестный параметр " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Использование: BatchSimulator [--games N] [--threads N] [--ticks N]"
+                    + " [--policy reactive|random|idle] [--seed N] [--size ШxВ] [--table файл.json]");
+            System.exit(2);
+        }
+        //тысячи игр забили бы протокол отладочными сообщениями
+        if (System.getProperty("log.level") == null) {
+            Logger.setLevel(LogLevel.Warning);
+        }
+
+        BatchSimulator simulator = new BatchSimulator(width, height, policy, maxTicks, seed);
+        if (table != null) {
+            simulator.setLayout(TableLayoutLoader.load(Paths.get(table)));
+        }
+        BatchStatistics statistics = simulator.run(games, threads);
+
+        double seconds = statistics.getElapsedNanos() / 1e9;
+        long count = statistics.getGames();
+        Histogram scores = statistics.getScores();
+        Histogram lifetimes = statistics.getBallLifetimes();
+        System.out.printf("Игр: %d (закончено %d), стратегия %s, потоков %d%n",
+                count, statistics.getFinishedGames(), policy, threads);
+        System.out.printf("Счет: ср %.1f, p50 %d, p99 %d, макс %d%n", scores.getMean(),
+                scores.getValueAtPercentile(50), scores.getValueAtPercentile(99), scores.getMax());
+        System.out.printf("Жизнь шарика, шагов: ср %.1f, p50 %d, p99 %d, макс %d%n", lifetimes.getMean(),
+                lifetimes.getValueAtPercentile(50), lifetimes.getValueAtPercentile(99), lifetimes.getMax());
+        System.out.printf("Отскоков за игру: стенки %.1f, флипперы %.1f, мишени %.1f, бамперы %.1f%n",
+                (double) statistics.getWallHits() / count, (double) statistics.getFlipperHits() / count,
+                (double) statistics.getTargetHits() / count, (double) statistics.getBumperHits() / count);
+        System.out.printf("Проверок столкновений за шаг: %.1f%n",
+                (double) statistics.getCollisionChecks() / Math.max(1, statistics.getTotalTicks()));
+        System.out.printf("Время: %.2f с, %.0f игр/с, %.0f шагов/с%n",
+                seconds, count / seconds, statistics.getTotalTicks() / seconds);
+    }
+}
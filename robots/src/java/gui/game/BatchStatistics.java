@@ -0,0 +1,59 @@
+package gui.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//итоги пакетной прогонки; игры из разных потоков пишут сюда по разу в конце, поэтому общий объект не мешает масштабированию
+public class BatchStatistics {
+    private final Histogram m_scores = new Histogram();
+    //сколько шагов шарик продержался на столе
+    private final Histogram m_ballLifetimes = new Histogram();
+    private final Histogram m_gameTicks = new Histogram();
+    private final AtomicLong m_totalScore = new AtomicLong();
+    private final AtomicLong m_finishedGames = new AtomicLong();
+    private final AtomicLong m_totalTicks = new AtomicLong();
+    private final AtomicLong m_wallHits = new AtomicLong();
+    private final AtomicLong m_flipperHits = new AtomicLong();
+    private final AtomicLong m_targetHits = new AtomicLong();
+    private final AtomicLong m_bumperHits = new AtomicLong();
+    private final AtomicLong m_collisionChecks = new AtomicLong();
+    private volatile long m_elapsedNanos;
+
+    void recordGame(GameSimulation simulation, long ticks, boolean finished) {
+        int score = simulation.getState().getScore();
+        m_scores.record(score);
+        m_totalScore.addAndGet(score);
+        m_gameTicks.record(ticks);
+        m_totalTicks.addAndGet(ticks);
+        if (finished) {
+            m_finishedGames.incrementAndGet();
+        }
+        CollisionStatistics collisions = simulation.getCollisionStatistics();
+        m_wallHits.addAndGet(collisions.getWallHits());
+        m_flipperHits.addAndGet(collisions.getFlipperHits());
+        m_targetHits.addAndGet(collisions.getTargetHits());
+        m_bumperHits.addAndGet(collisions.getBumperHits());
+        m_collisionChecks.addAndGet(simulation.getPhysics().getCollisionChecks());
+    }
+
+    void recordBallLifetime(long ticks) {
+        m_ballLifetimes.record(ticks);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        m_elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() { return m_scores.getCount(); }
+    public long getFinishedGames() { return m_finishedGames.get(); }
+    public long getTotalScore() { return m_totalScore.get(); }
+    public long getTotalTicks() { return m_totalTicks.get(); }
+    public Histogram getScores() { return m_scores; }
+    public Histogram getBallLifetimes() { return m_ballLifetimes; }
+    public Histogram getGameTicks() { return m_gameTicks; }
+    public long getWallHits() { return m_wallHits.get(); }
+    public long getFlipperHits() { return m_flipperHits.get(); }
+    public long getTargetHits() { return m_targetHits.get(); }
+    public long getBumperHits() { return m_bumperHits.get(); }
+    public long getCollisionChecks() { return m_collisionChecks.get(); }
+    public long getElapsedNanos() { return m_elapsedNanos; }
+}
@@ -9,8 +9,10 @@ public class Bumper {
     private final double m_y;
     private final double m_radius;
 
+    private final Color m_baseColor;
     private final Color m_hitColor;
-    private Color m_currentColor;
+    //меняет только поток физики, отрисовка берёт подсветку из снимка
+    private boolean m_lit;
 
     private final int m_pointValue;
     private final double m_bounceStrength;
@@ -21,26 +23,28 @@ public class Bumper {
         this.m_y = y;
         this.m_radius = radius;
         this.m_hitColor = Color.WHITE;
-        this.m_currentColor = color;
+        this.m_baseColor = color;
         this.m_pointValue = pointValue;
         this.m_bounceStrength = bounceStrength;
     }
 
+    //сравнение квадратов расстояний, без корня
     public boolean checkCollisionBumper(double ballX, double ballY, double ballRadius) {
         double dx = ballX - m_x;
         double dy = ballY - m_y;
-        double distance = Math.sqrt(dx * dx + dy * dy);
-        return distance < ballRadius + m_radius;
+        double reach = ballRadius + m_radius;
+        return dx * dx + dy * dy < reach * reach;
     }
 
 
     public int hit() {
-        m_currentColor = m_hitColor;
+        m_lit = true;
         return m_pointValue;
     }
 
 
-    public double[] getBounceDirection(double ballX, double ballY) {
+    //импульс отскока записывается в result, чтобы не создавать массив на каждое столкновение
+    public Vector2 getBounceDirection(double ballX, double ballY, Vector2 result) {
         double dx = ballX - m_x;
         double dy = ballY - m_y;
         double length = Math.sqrt(dx * dx + dy * dy);
@@ -50,12 +54,19 @@ public class Bumper {
             dy /= length;
         }
 
-        return new double[]{dx * m_bounceStrength, dy * m_bounceStrength};
+        return result.set(dx * m_bounceStrength, dy * m_bounceStrength);
     }
 
 
-    public void draw(Graphics2D g2d) {
-        g2d.setColor(m_currentColor);
+    public double getX() { return m_x; }
+    public double getY() { return m_y; }
+    public double getRadius() { return m_radius; }
+    public int getPointValue() { return m_pointValue; }
+    public boolean isLit() { return m_lit; }
+
+
+    public void draw(Graphics2D g2d, boolean lit) {
+        g2d.setColor(lit ? m_hitColor : m_baseColor);
         g2d.fillOval((int)(m_x - m_radius), (int)(m_y - m_radius),
                 (int)(m_radius * 2), (int)(m_radius * 2));
 
@@ -0,0 +1,104 @@
+package gui.game;
+
+import java.util.Arrays;
+
+//события столкновений за шаг физики: поля лежат в заранее выделенных массивах, объекты на событие не создаются.
+//физика только записывает события, подписчики (очки, протокол, статистика) получают их один раз в конце шага
+public class CollisionEvents {
+    public static final int WALL = 0;
+    public static final int FLIPPER = 1;
+    public static final int TARGET = 2;
+    public static final int BUMPER = 3;
+    public static final int KIND_COUNT = 4;
+
+    //номер объекта для флипперов и стенок воронки; у мишеней и бамперов это индекс в списке стола,
+    //у стенок - номер в таблице стенок, где левая и правая стенки воронки идут первыми
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int[] m_kinds;
+    private final int[] m_objects;
+    private final int[] m_balls;
+    private final double[] m_x;
+    private final double[] m_y;
+    private final double[] m_impulses;
+    private final long[] m_ticks;
+    private int m_count = 0;
+    private long m_tick = 0;
+
+    private CollisionListener[] m_listeners = new CollisionListener[0];
+
+    public CollisionEvents() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CollisionEvents(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость должна быть положительной: " + capacity);
+        }
+        m_kinds = new int[capacity];
+        m_objects = new int[capacity];
+        m_balls = new int[capacity];
+        m_x = new double[capacity];
+        m_y = new double[capacity];
+        m_impulses = new double[capacity];
+        m_ticks = new long[capacity];
+    }
+
+    //подписчики меняются редко, поэтому массив копируется целиком, а раздача идёт без проверок и итераторов
+    public void addListener(CollisionListener listener) {
+        CollisionListener[] listeners = Arrays.copyOf(m_listeners, m_listeners.length + 1);
+        listeners[m_listeners.length] = listener;
+        m_listeners = listeners;
+    }
+
+    public void removeListener(CollisionListener listener) {
+        for (int i = 0; i < m_listeners.length; i++) {
+            if (m_listeners[i] == listener) {
+                CollisionListener[] listeners = new CollisionListener[m_listeners.length - 1];
+                System.arraycopy(m_listeners, 0, listeners, 0, i);
+                System.arraycopy(m_listeners, i + 1, listeners, i, listeners.length - i);
+                m_listeners = listeners;
+                return;
+            }
+        }
+    }
+
+    //номер шага, которым помечаются следующие события
+    public void setTick(long tick) {
+        m_tick = tick;
+    }
+
+    public void publish(int kind, int object, int ball, double x, double y, double impulse) {
+        //переполнение: накопленное раздаётся досрочно, чтобы очки и статистика ничего не потеряли
+        if (m_count == m_kinds.length) {
+            dispatch();
+        }
+        int index = m_count++;
+        m_kinds[index] = kind;
+        m_objects[index] = object;
+        m_balls[index] = ball;
+        m_x[index] = x;
+        m_y[index] = y;
+        m_impulses[index] = impulse;
+        m_ticks[index] = m_tick;
+    }
+
+    //раздаёт накопленные события подписчикам в порядке появления; возвращает их количество
+    public int dispatch() {
+        int count = m_count;
+        CollisionListener[] listeners = m_listeners;
+        for (int i = 0; i < count; i++) {
+            for (CollisionListener listener : listeners) {
+                listener.onCollision(m_kinds[i], m_objects[i], m_balls[i], m_x[i], m_y[i], m_impulses[i], m_ticks[i]);
+            }
+        }
+        m_count = 0;
+        return count;
+    }
+
+    public int getPendingCount() { return m_count; }
+    public int getCapacity() { return m_kinds.length; }
+}
@@ -0,0 +1,158 @@
+package gui.game;
+
+import java.util.Arrays;
+
+//равномерная сетка для широкой фазы: объект записан во все ячейки, которые задевает его рамка;
+//строится один раз при перестроении стола, запрос ничего не выделяет
+public final class CollisionGrid {
+    public static final double DEFAULT_CELL_SIZE = 64;
+
+    private final double m_cellSize;
+    private final double m_inverseCellSize;
+
+    private double m_originX;
+    private double m_originY;
+    private int m_columns;
+    private int m_rows;
+    private int m_itemCount;
+
+    //ячейка c содержит m_items[m_cellStart[c] .. m_cellStart[c + 1])
+    private int[] m_cellStart = new int[1];
+    private int[] m_items = new int[0];
+
+    //отметки для отсечения повторов, когда объект лежит в нескольких ячейках
+    private int[] m_visitStamp = new int[0];
+    private int m_stamp = 0;
+
+    public CollisionGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public CollisionGrid(double cellSize) {
+        m_cellSize = cellSize;
+        m_inverseCellSize = 1.0 / cellSize;
+    }
+
+    //рамки объектов заданы массивами minX/minY/maxX/maxY длины count
+    public void build(double[] minX, double[] minY, double[] maxX, double[] maxY, int count) {
+        m_itemCount = count;
+        if (count == 0) {
+            m_columns = 0;
+            m_rows = 0;
+            m_cellStart = new int[1];
+            m_items = new int[0];
+            m_visitStamp = new int[0];
+            return;
+        }
+
+        double left = Double.POSITIVE_INFINITY;
+        double top = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY;
+        double bottom = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            left = Math.min(left, minX[i]);
+            top = Math.min(top, minY[i]);
+            right = Math.max(right, maxX[i]);
+            bottom = Math.max(bottom, maxY[i]);
+        }
+        m_originX = left;
+        m_originY = top;
+        m_columns = Math.max(1, (int) Math.ceil((right - left) * m_inverseCellSize) + 1);
+        m_rows = Math.max(1, (int) Math.ceil((bottom - top) * m_inverseCellSize) + 1);
+
+        //два прохода: считаем объекты в ячейках, затем раскладываем их
+        int[] cellStart = new int[m_columns * m_rows + 1];
+        for (int i = 0; i < count; i++) {
+            int c0 = column(minX[i]), c1 = column(maxX[i]);
+            int r0 = row(minY[i]), r1 = row(maxY[i]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    cellStart[r * m_columns + c + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < m_columns * m_rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        int[] items = new int[cellStart[m_columns * m_rows]];
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length);
+        for (int i = 0; i < count; i++) {
+            int c0 = column(minX[i]), c1 = column(maxX[i]);
+            int r0 = row(minY[i]), r1 = row(maxY[i]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    items[fill[r * m_columns + c]++] = i;
+                }
+            }
+        }
+
+        m_cellStart = cellStart;
+        m_items = items;
+        m_visitStamp = new int[count];
+        m_stamp = 0;
+    }
+
+    //записывает в result индексы объектов, чьи ячейки пересекает рамка запроса, по возрастанию;
+    //result должен вмещать getItemCount() элементов
+    public int query(double minX, double minY, double maxX, double maxY, int[] result) {
+        if (m_itemCount == 0) {
+            return 0;
+        }
+        double originX = m_originX;
+        double originY = m_originY;
+        if (maxX < originX || maxY < originY
+                || minX >= originX + m_columns * m_cellSize || minY >= originY + m_rows * m_cellSize) {
+            return 0;
+        }
+
+        if (++m_stamp == 0) {
+            Arrays.fill(m_visitStamp, 0);
+            m_stamp = 1;
+        }
+        int stamp = m_stamp;
+
+        int c0 = column(minX), c1 = column(maxX);
+        int r0 = row(minY), r1 = row(maxY);
+        int found = 0;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * m_columns + c;
+                for (int k = m_cellStart[cell], end = m_cellStart[cell + 1]; k < end; k++) {
+                    int item = m_items[k];
+                    if (m_visitStamp[item] != stamp) {
+                        m_visitStamp[item] = stamp;
+                        result[found++] = item;
+                    }
+                }
+            }
+        }
+
+        //порядок как при линейном обходе, чтобы отскоки применялись так же
+        for (int i = 1; i < found; i++) {
+            int item = result[i];
+            int j = i - 1;
+            while (j >= 0 && result[j] > item) {
+                result[j + 1] = result[j];
+                j--;
+            }
+            result[j + 1] = item;
+        }
+        return found;
+    }
+
+    private int column(double x) {
+        int c = (int) ((x - m_originX) * m_inverseCellSize);
+        return c < 0 ? 0 : (c >= m_columns ? m_columns - 1 : c);
+    }
+
+    private int row(double y) {
+        int r = (int) ((y - m_originY) * m_inverseCellSize);
+        return r < 0 ? 0 : (r >= m_rows ? m_rows - 1 : r);
+    }
+
+    public int getItemCount() { return m_itemCount; }
+    public int getColumns() { return m_columns; }
+    public int getRows() { return m_rows; }
+    public double getCellSize() { return m_cellSize; }
+}
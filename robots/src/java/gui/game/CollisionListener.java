@@ -0,0 +1,6 @@
+package gui.game;
+
+//подписчик на события столкновений; поля передаются примитивами, чтобы раздача ничего не выделяла
+public interface CollisionListener {
+    void onCollision(int kind, int object, int ball, double x, double y, double impulse, long tick);
+}
@@ -0,0 +1,40 @@
+package gui.game;
+
+import log.LogCategory;
+import log.Logger;
+
+//прежние отладочные сообщения о столкновениях, теперь собранные из событий
+public class CollisionLogger implements CollisionListener {
+    private final TableState m_state;
+
+    public CollisionLogger(TableState state) {
+        m_state = state;
+    }
+
+    @Override
+    public void onCollision(int kind, int object, int ball, double x, double y, double impulse, long tick) {
+        //сообщение собирается, только если оно попадёт в протокол
+        if (!Logger.isDebugEnabled()) {
+            return;
+        }
+        switch (kind) {
+            case CollisionEvents.WALL:
+                Logger.debug(LogCategory.Physics, "шарик столкнулся со стенкой");
+                break;
+            case CollisionEvents.FLIPPER:
+                Logger.debug(LogCategory.Physics,
+                        object == CollisionEvents.LEFT ? "Левый флиппер: отскок!" : "Правый флиппер: отскок!");
+                break;
+            case CollisionEvents.TARGET:
+                Logger.debug(LogCategory.Physics, "Попадание в мишень! +"
+                        + CollisionScoring.pointsFor(m_state, kind, object) + " очков");
+                break;
+            case CollisionEvents.BUMPER:
+                Logger.debug(LogCategory.Physics, "Столкновение с бампером! +"
+                        + CollisionScoring.pointsFor(m_state, kind, object) + " очков");
+                break;
+            default:
+                break;
+        }
+    }
+}
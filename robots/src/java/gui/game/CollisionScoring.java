@@ -0,0 +1,33 @@
+package gui.game;
+
+//начисление очков по событиям столкновений
+public class CollisionScoring implements CollisionListener {
+    public static final int FLIPPER_POINTS = 10;
+
+    private final TableState m_state;
+
+    public CollisionScoring(TableState state) {
+        m_state = state;
+    }
+
+    @Override
+    public void onCollision(int kind, int object, int ball, double x, double y, double impulse, long tick) {
+        int points = pointsFor(m_state, kind, object);
+        if (points != 0) {
+            m_state.setScore(m_state.getScore() + points);
+        }
+    }
+
+    static int pointsFor(TableState state, int kind, int object) {
+        switch (kind) {
+            case CollisionEvents.FLIPPER:
+                return FLIPPER_POINTS;
+            case CollisionEvents.TARGET:
+                return object < state.getTargets().size() ? state.getTargets().get(object).getPointValue() : 0;
+            case CollisionEvents.BUMPER:
+                return object < state.getBumpers().size() ? state.getBumpers().get(object).getPointValue() : 0;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package gui.game;
+
+import java.util.Arrays;
+
+//число отскоков по видам препятствий и их суммарный импульс, для пакетной статистики и настройки стола
+public class CollisionStatistics implements CollisionListener {
+    private final long[] m_hits = new long[CollisionEvents.KIND_COUNT];
+    private final double[] m_impulses = new double[CollisionEvents.KIND_COUNT];
+
+    @Override
+    public void onCollision(int kind, int object, int ball, double x, double y, double impulse, long tick) {
+        m_hits[kind]++;
+        m_impulses[kind] += impulse;
+    }
+
+    public long getHits(int kind) { return m_hits[kind]; }
+    public long getWallHits() { return m_hits[CollisionEvents.WALL]; }
+    public long getFlipperHits() { return m_hits[CollisionEvents.FLIPPER]; }
+    public long getTargetHits() { return m_hits[CollisionEvents.TARGET]; }
+    public long getBumperHits() { return m_hits[CollisionEvents.BUMPER]; }
+
+    public double getAverageImpulse(int kind) {
+        return m_hits[kind] == 0 ? 0 : m_impulses[kind] / m_hits[kind];
+    }
+
+    public void reset() {
+        Arrays.fill(m_hits, 0);
+        Arrays.fill(m_impulses, 0);
+    }
+}
@@ -0,0 +1,99 @@
+package gui.game;
+
+import java.awt.Rectangle;
+
+//набор прямоугольников для перерисовки: близкие сливаются, число ограничено,
+//чтобы не перерисовывать огромную общую рамку шарика внизу и строк счёта вверху
+public final class DirtyRegion {
+    public static final int MAX_RECTANGLES = 4;
+    //слияние выгодно, если общая рамка больше суммы площадей не больше чем на столько пикселей
+    private static final long MERGE_SLACK = 32 * 32;
+
+    private final Rectangle[] m_rectangles = new Rectangle[MAX_RECTANGLES];
+    private int m_count = 0;
+    private boolean m_full = false;
+
+    public DirtyRegion() {
+        for (int i = 0; i < MAX_RECTANGLES; i++) {
+            m_rectangles[i] = new Rectangle();
+        }
+    }
+
+    public void add(int x, int y, int width, int height) {
+        if (m_full || width <= 0 || height <= 0) {
+            return;
+        }
+        int best = -1;
+        long bestGrowth = Long.MAX_VALUE;
+        for (int i = 0; i < m_count; i++) {
+            long growth = unionGrowth(m_rectangles[i], x, y, width, height);
+            if (growth < bestGrowth) {
+                bestGrowth = growth;
+                best = i;
+            }
+        }
+
+        if (best >= 0 && (bestGrowth <= MERGE_SLACK || m_count == MAX_RECTANGLES)) {
+            Rectangle merged = m_rectangles[best];
+            int left = Math.min(merged.x, x);
+            int top = Math.min(merged.y, y);
+            int right = Math.max(merged.x + merged.width, x + width);
+            int bottom = Math.max(merged.y + merged.height, y + height);
+            merged.setBounds(left, top, right - left, bottom - top);
+            //объединённый прямоугольник мог дорасти до соседей
+            m_count--;
+            Rectangle last = m_rectangles[m_count];
+            m_rectangles[m_count] = merged;
+            m_rectangles[best] = last;
+            add(merged.x, merged.y, merged.width, merged.height);
+            return;
+        }
+        m_rectangles[m_count++].setBounds(x, y, width, height);
+    }
+
+    public void add(Rectangle rectangle) {
+        add(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+    }
+
+    public void addAll(DirtyRegion other) {
+        if (other.m_full) {
+            markFull();
+            return;
+        }
+        for (int i = 0; i < other.m_count; i++) {
+            add(other.m_rectangles[i]);
+        }
+    }
+
+    public void markFull() {
+        m_full = true;
+        m_count = 0;
+    }
+
+    public void clear() {
+        m_full = false;
+        m_count = 0;
+    }
+
+    private static long unionGrowth(Rectangle r, int x, int y, int width, int height) {
+        long left = Math.min(r.x, x);
+        long top = Math.min(r.y, y);
+        long right = Math.max((long) r.x + r.width, (long) x + width);
+        long bottom = Math.max((long) r.y + r.height, (long) y + height);
+        return (right - left) * (bottom - top) - (long) r.width * r.height - (long) width * height;
+    }
+
+    public boolean isFull() { return m_full; }
+    public boolean isEmpty() { return !m_full && m_count == 0; }
+    public int getCount() { return m_count; }
+    public Rectangle getRectangle(int index) { return m_rectangles[index]; }
+
+    //площадь без учёта перекрытий; для полного обновления - 0, его считает вызывающий
+    public long getArea() {
+        long area = 0;
+        for (int i = 0; i < m_count; i++) {
+            area += (long) m_rectangles[i].width * m_rectangles[i].height;
+        }
+        return area;
+    }
+}
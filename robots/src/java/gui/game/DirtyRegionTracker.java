@@ -0,0 +1,201 @@
+package gui.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+//находит, что изменилось на экране с прошлого кадра: шарики, сдвинутые флипперы,
+//загоревшиеся мишени и строки счёта; работает в потоке физики между шагами.
+//рамки объектов считаются в координатах мира и переводятся на экран через WorldView,
+//строки счёта и сообщения рисуются без масштаба и задаются сразу в пикселях
+public final class DirtyRegionTracker {
+    //запас на сглаживание и на шаг, который может пройти до отрисовки
+    private static final int MARGIN = 3;
+    //строки счёта, скорости и времени кадра в drawInfo
+    private static final int HUD_X = 0, HUD_Y = 45, HUD_WIDTH = 420, HUD_HEIGHT = 80;
+    //сообщение о потере шарика посередине экрана
+    private static final int MESSAGE_LEFT = 160, MESSAGE_RIGHT = 260, MESSAGE_ABOVE = 20, MESSAGE_BELOW = 8;
+
+    private WorldView m_view;
+    private WorldView m_identityView;
+    private int m_layoutVersion = -1;
+
+    //рамки шариков прошлого кадра по слотам BallStore: minX, minY, maxX, maxY
+    private int[] m_ballBoxes = new int[BallStore.DEFAULT_CAPACITY * 4];
+    private boolean[] m_ballDrawn = new boolean[BallStore.DEFAULT_CAPACITY];
+    private int m_ballSlots = 0;
+
+    private final int[] m_flipperBoxes = new int[8];
+    private double m_leftAngle = Double.NaN, m_rightAngle = Double.NaN;
+    private boolean m_leftActive, m_rightActive;
+
+    private boolean[] m_targetLit = new boolean[0];
+    private boolean[] m_bumperLit = new boolean[0];
+    //сообщение посередине экрана: шарик потерян или пауза
+    private boolean m_messageShown;
+
+    private final Vector2 m_endPoint = new Vector2();
+
+    //статистика закраски
+    private long m_frames = 0;
+    private long m_dirtyPixels = 0;
+    private long m_screenPixels = 0;
+
+    //мир совпадает с экраном
+    public void update(TableState state, FlipperController flippers, double ballRadius,
+                       int width, int height, DirtyRegion out) {
+        if (m_identityView == null || m_identityView.getScreenWidth() != width
+                || m_identityView.getScreenHeight() != height) {
+            m_identityView = WorldView.identity(width, height);
+        }
+        update(state, flippers, ballRadius, m_identityView, out);
+    }
+
+    public void update(TableState state, FlipperController flippers, double ballRadius,
+                       WorldView view, DirtyRegion out) {
+        int width = view.getScreenWidth();
+        int height = view.getScreenHeight();
+        boolean full = view != m_view || state.getLayoutVersion() != m_layoutVersion;
+        if (full) {
+            m_view = view;
+            m_layoutVersion = state.getLayoutVersion();
+            m_targetLit = new boolean[state.getTargets().size()];
+            m_bumperLit = new boolean[state.getBumpers().size()];
+            m_leftAngle = Double.NaN;
+            m_rightAngle = Double.NaN;
+        }
+
+        updateBalls(state.getBalls(), ballRadius, full ? null : out);
+        updateFlippers(state, flippers, full ? null : out);
+        updateLitObjects(state.getTargets(), state.getBumpers(), full ? null : out);
+
+        boolean messageShown = state.isBallLost() || state.getGameState() == GameState.PAUSED;
+        if (!full) {
+            out.add(HUD_X, HUD_Y, HUD_WIDTH, HUD_HEIGHT);
+            if (messageShown || m_messageShown) {
+                out.add(width / 2 - MESSAGE_LEFT, height / 2 - MESSAGE_ABOVE,
+                        MESSAGE_LEFT + MESSAGE_RIGHT, MESSAGE_ABOVE + MESSAGE_BELOW);
+            }
+        }
+        m_messageShown = messageShown;
+
+        long screen = (long) width * height;
+        m_frames++;
+        m_screenPixels += screen;
+        if (full) {
+            out.markFull();
+            m_dirtyPixels += screen;
+        } else {
+            m_dirtyPixels += Math.min(out.getArea(), screen);
+        }
+    }
+
+    private void updateBalls(BallStore balls, double ballRadius, DirtyRegion out) {
+        int count = balls.getCount();
+        if (m_ballDrawn.length < balls.getCapacity()) {
+            m_ballDrawn = Arrays.copyOf(m_ballDrawn, balls.getCapacity());
+            m_ballBoxes = Arrays.copyOf(m_ballBoxes, balls.getCapacity() * 4);
+        }
+        int slots = Math.max(count, m_ballSlots);
+        for (int i = 0; i < slots; i++) {
+            boolean active = i < count && balls.active[i];
+            if (m_ballDrawn[i] && out != null) {
+                addBox(out, m_ballBoxes, i * 4);
+            }
+            if (active) {
+                //интерполяция рисует шарик между прошлым и текущим положением
+                double extent = ballRadius + MARGIN
+                        + Math.max(Math.abs(balls.vx[i]), Math.abs(balls.vy[i]));
+                int b = i * 4;
+                m_ballBoxes[b] = (int) Math.floor(Math.min(balls.prevX[i], balls.x[i]) - extent);
+                m_ballBoxes[b + 1] = (int) Math.floor(Math.min(balls.prevY[i], balls.y[i]) - extent);
+                m_ballBoxes[b + 2] = (int) Math.ceil(Math.max(balls.prevX[i], balls.x[i]) + extent);
+                m_ballBoxes[b + 3] = (int) Math.ceil(Math.max(balls.prevY[i], balls.y[i]) + extent);
+                if (out != null) {
+                    addBox(out, m_ballBoxes, b);
+                }
+            }
+            m_ballDrawn[i] = active;
+        }
+        m_ballSlots = count;
+    }
+
+    private void updateFlippers(TableState state, FlipperController flippers, DirtyRegion out) {
+        double leftAngle = state.getLeftFlipperAngle();
+        boolean leftActive = state.isLeftFlipperActive();
+        if (leftAngle != m_leftAngle || leftActive != m_leftActive) {
+            if (out != null && !Double.isNaN(m_leftAngle)) {
+                addBox(out, m_flipperBoxes, 0);
+            }
+            flipperBox(flippers, state.getLeftFlipperPivotX(), state.getLeftFlipperPivotY(), leftAngle, true, 0);
+            if (out != null) {
+                addBox(out, m_flipperBoxes, 0);
+            }
+            m_leftAngle = leftAngle;
+            m_leftActive = leftActive;
+        }
+
+        double rightAngle = state.getRightFlipperAngle();
+        boolean rightActive = state.isRightFlipperActive();
+        if (rightAngle != m_rightAngle || rightActive != m_rightActive) {
+            if (out != null && !Double.isNaN(m_rightAngle)) {
+                addBox(out, m_flipperBoxes, 4);
+            }
+            flipperBox(flippers, state.getRightFlipperPivotX(), state.getRightFlipperPivotY(), rightAngle, false, 4);
+            if (out != null) {
+                addBox(out, m_flipperBoxes, 4);
+            }
+            m_rightAngle = rightAngle;
+            m_rightActive = rightActive;
+        }
+    }
+
+    private void flipperBox(FlipperController flippers, double pivotX, double pivotY,
+                            double angle, boolean isLeft, int offset) {
+        flippers.calculateFlipperEndPoint(pivotX, pivotY, angle, isLeft, m_endPoint);
+        //толщина штриха и точка вращения радиусом 3
+        double extent = Math.max(flippers.getFlipperWidth() / 2, 3) + MARGIN;
+        m_flipperBoxes[offset] = (int) Math.floor(Math.min(pivotX, m_endPoint.x) - extent);
+        m_flipperBoxes[offset + 1] = (int) Math.floor(Math.min(pivotY, m_endPoint.y) - extent);
+        m_flipperBoxes[offset + 2] = (int) Math.ceil(Math.max(pivotX, m_endPoint.x) + extent);
+        m_flipperBoxes[offset + 3] = (int) Math.ceil(Math.max(pivotY, m_endPoint.y) + extent);
+    }
+
+    private void updateLitObjects(List<Target> targets, List<Bumper> bumpers, DirtyRegion out) {
+        for (int i = 0; i < targets.size() && i < m_targetLit.length; i++) {
+            Target target = targets.get(i);
+            boolean lit = target.isLit();
+            if (lit != m_targetLit[i] && out != null) {
+                m_view.addToScreen(out, target.getX() - MARGIN, target.getY() - MARGIN,
+                        target.getX() + target.getWidth() + MARGIN + 1, target.getY() + target.getHeight() + MARGIN + 1);
+            }
+            m_targetLit[i] = lit;
+        }
+        for (int i = 0; i < bumpers.size() && i < m_bumperLit.length; i++) {
+            Bumper bumper = bumpers.get(i);
+            boolean lit = bumper.isLit();
+            if (lit != m_bumperLit[i] && out != null) {
+                double extent = Math.ceil(bumper.getRadius()) + MARGIN;
+                m_view.addToScreen(out, bumper.getX() - extent, bumper.getY() - extent,
+                        bumper.getX() + extent + 1, bumper.getY() + extent + 1);
+            }
+            m_bumperLit[i] = lit;
+        }
+    }
+
+    private void addBox(DirtyRegion out, int[] boxes, int offset) {
+        m_view.addToScreen(out, boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3]);
+    }
+
+    //доля экрана, которую приходится перерисовывать, в среднем по кадрам
+    public double getFillRatio() {
+        return m_screenPixels == 0 ? 1 : (double) m_dirtyPixels / m_screenPixels;
+    }
+
+    public long getFrames() { return m_frames; }
+
+    public void resetStatistics() {
+        m_frames = 0;
+        m_dirtyPixels = 0;
+        m_screenPixels = 0;
+    }
+}
@@ -1,7 +1,5 @@
 package gui.game;
 
-import java.awt.event.KeyEvent;
-
 public class FlipperController {
     //константы флипперов
     public static final double FLIPPER_LENGTH = 60;
@@ -10,66 +8,135 @@ public class FlipperController {
     public static final double FLIPPER_ACTIVE_ANGLE = -Math.PI / 6;
     public static final double FLIPPER_ROTATION_SPEED = 0.4;
 
-    private final GameVisualizer visualizer;
+    private final TableState state;
+
+    //параметры текущего стола, по умолчанию - константы выше
+    private double length = FLIPPER_LENGTH;
+    private double width = FLIPPER_WIDTH;
+    private double restAngle = FLIPPER_REST_ANGLE;
+    private double activeAngle = FLIPPER_ACTIVE_ANGLE;
+    private double rotationSpeed = FLIPPER_ROTATION_SPEED;
+
+    //концы флипперов пересчитываются только при изменении угла или точки вращения
+    private final Vector2 leftEndPoint = new Vector2();
+    private final Vector2 rightEndPoint = new Vector2();
+    private double leftCachedAngle = Double.NaN;
+    private double leftCachedPivotX = Double.NaN;
+    private double leftCachedPivotY = Double.NaN;
+    private double rightCachedAngle = Double.NaN;
+    private double rightCachedPivotX = Double.NaN;
+    private double rightCachedPivotY = Double.NaN;
+
+    public FlipperController(TableState state) {
+        this.state = state;
+    }
 
-    public FlipperController(GameVisualizer visualizer) {
-        this.visualizer = visualizer;
+    public void configure(TableLayout.FlipperSpec flippers) {
+        length = flippers.getLength();
+        width = flippers.getWidth();
+        restAngle = flippers.getRestAngle();
+        activeAngle = flippers.getActiveAngle();
+        rotationSpeed = flippers.getRotationSpeed();
+        //длина могла измениться при том же угле
+        leftCachedAngle = Double.NaN;
+        rightCachedAngle = Double.NaN;
     }
 
     public void updateFlippers() {
+        updateFlippers(1.0);
+    }
+
+    //timeStep - длина шага в базовых шагах физики
+    public void updateFlippers(double timeStep) {
+        double rotation = rotationSpeed * timeStep;
         double newAngle;
 
-        if (visualizer.isLeftFlipperActive()) {
-            newAngle = Math.max(visualizer.getLeftFlipperAngle() - FLIPPER_ROTATION_SPEED,
-                    FLIPPER_ACTIVE_ANGLE);
+        if (state.isLeftFlipperActive()) {
+            newAngle = Math.max(state.getLeftFlipperAngle() - rotation,
+                    activeAngle);
         } else {
-            newAngle = Math.min(visualizer.getLeftFlipperAngle() + FLIPPER_ROTATION_SPEED,
-                    FLIPPER_REST_ANGLE);
+            newAngle = Math.min(state.getLeftFlipperAngle() + rotation,
+                    restAngle);
         }
-        visualizer.setLeftFlipperAngle(newAngle);
+        state.setLeftFlipperAngle(newAngle);
 
-        if (visualizer.isRightFlipperActive()) {
-            newAngle = Math.min(visualizer.getRightFlipperAngle() + FLIPPER_ROTATION_SPEED,
-                    -FLIPPER_ACTIVE_ANGLE);
-            visualizer.setRightFlipperAngle(newAngle);
+        if (state.isRightFlipperActive()) {
+            newAngle = Math.min(state.getRightFlipperAngle() + rotation,
+                    -activeAngle);
+            state.setRightFlipperAngle(newAngle);
         } else {
-            newAngle = Math.max(visualizer.getRightFlipperAngle() - FLIPPER_ROTATION_SPEED,
-                    -FLIPPER_REST_ANGLE);
-            visualizer.setRightFlipperAngle(newAngle);
+            newAngle = Math.max(state.getRightFlipperAngle() - rotation,
+                    -restAngle);
+            state.setRightFlipperAngle(newAngle);
         }
     }
 
 
-    public void handleKeyPress(int keyCode, boolean pressed) {
-        switch (keyCode) {
-            case KeyEvent.VK_LEFT:
-            case KeyEvent.VK_A:
-                visualizer.setLeftFlipperActive(pressed);
-                break;
-            case KeyEvent.VK_RIGHT:
-            case KeyEvent.VK_D:
-                visualizer.setRightFlipperActive(pressed);
-                break;
+    //оба флиппера дошли до положения, которое задают клавиши, и дальше не двигаются
+    public boolean isSettled() {
+        double left = state.isLeftFlipperActive() ? activeAngle : restAngle;
+        double right = state.isRightFlipperActive() ? -activeAngle : -restAngle;
+        return state.getLeftFlipperAngle() == left && state.getRightFlipperAngle() == right;
+    }
+
+    //флипперы в покое, клавиши отпущены
+    public void resetFlippers() {
+        state.setLeftFlipperActive(false);
+        state.setRightFlipperActive(false);
+        state.setLeftFlipperAngle(restAngle);
+        state.setRightFlipperAngle(-restAngle);
+    }
+
+    //конец левого флиппера; вектор принадлежит контроллеру и читается только из потока физики
+    public Vector2 getLeftFlipperEndPoint() {
+        double pivotX = state.getLeftFlipperPivotX();
+        double pivotY = state.getLeftFlipperPivotY();
+        double angle = state.getLeftFlipperAngle();
+        if (angle != leftCachedAngle || pivotX != leftCachedPivotX || pivotY != leftCachedPivotY) {
+            calculateFlipperEndPoint(pivotX, pivotY, angle, true, leftEndPoint);
+            leftCachedAngle = angle;
+            leftCachedPivotX = pivotX;
+            leftCachedPivotY = pivotY;
+        }
+        return leftEndPoint;
+    }
+
+    public Vector2 getRightFlipperEndPoint() {
+        double pivotX = state.getRightFlipperPivotX();
+        double pivotY = state.getRightFlipperPivotY();
+        double angle = state.getRightFlipperAngle();
+        if (angle != rightCachedAngle || pivotX != rightCachedPivotX || pivotY != rightCachedPivotY) {
+            calculateFlipperEndPoint(pivotX, pivotY, angle, false, rightEndPoint);
+            rightCachedAngle = angle;
+            rightCachedPivotX = pivotX;
+            rightCachedPivotY = pivotY;
         }
+        return rightEndPoint;
     }
 
 
-    public double[] calculateFlipperEndPoint(double pivotX, double pivotY,
-                                             double angle, boolean isLeftFlipper) {
+    public Vector2 calculateFlipperEndPoint(double pivotX, double pivotY,
+                                            double angle, boolean isLeftFlipper, Vector2 result) {
+        return calculateFlipperEndPoint(pivotX, pivotY, angle, isLeftFlipper, length, result);
+    }
+
+    //конец флиппера заданной длины, например из снимка для отрисовки
+    public static Vector2 calculateFlipperEndPoint(double pivotX, double pivotY, double angle,
+                                                   boolean isLeftFlipper, double length, Vector2 result) {
         double endX, endY;
 
         if (isLeftFlipper) {
-            endX = pivotX + Math.cos(angle) * FLIPPER_LENGTH;
-            endY = pivotY + Math.sin(angle) * FLIPPER_LENGTH;
+            endX = pivotX + Math.cos(angle) * length;
+            endY = pivotY + Math.sin(angle) * length;
         } else {
-            endX = pivotX + Math.cos(angle + Math.PI) * FLIPPER_LENGTH;
-            endY = pivotY + Math.sin(angle + Math.PI) * FLIPPER_LENGTH;
+            endX = pivotX + Math.cos(angle + Math.PI) * length;
+            endY = pivotY + Math.sin(angle + Math.PI) * length;
         }
 
-        return new double[]{endX, endY};
+        return result.set(endX, endY);
     }
 
 
-    public double getFlipperLength() { return FLIPPER_LENGTH; }
-    public double getFlipperWidth() { return FLIPPER_WIDTH; }
+    public double getFlipperLength() { return length; }
+    public double getFlipperWidth() { return width; }
 }
\ No newline at end of file
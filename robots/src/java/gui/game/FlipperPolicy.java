@@ -0,0 +1,20 @@
+package gui.game;
+
+//кто жмёт на флипперы в игре без окна; у каждой игры свой экземпляр
+public interface FlipperPolicy {
+    //вызывается перед каждым шагом, ввод передаётся через submitInput
+    void beforeTick(GameSimulation simulation);
+
+    static FlipperPolicy create(String name, long seed) {
+        switch (name) {
+            case "reactive":
+                return new ReactiveFlipperPolicy();
+            case "random":
+                return new RandomFlipperPolicy(seed);
+            case "idle":
+                return simulation -> { };
+            default:
+                throw new IllegalArgumentException("Неизвестная стратегия флипперов: " + name);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package gui.game;
+
+import java.awt.event.KeyEvent;
+
+//действия игрока, которые симуляция применяет в начале шага; код записывается в журнал сеанса
+public enum GameInput {
+    LEFT_FLIPPER_DOWN(1),
+    LEFT_FLIPPER_UP(2),
+    RIGHT_FLIPPER_DOWN(3),
+    RIGHT_FLIPPER_UP(4),
+    START(5),
+    LAUNCH(6),
+    RESET(7),
+    ADD_BALL(8),
+    //P: пауза или продолжение
+    TOGGLE_PAUSE(9),
+    //пауза без переключения, когда окно скрыто
+    PAUSE(10);
+
+    private static final GameInput[] BY_CODE = new GameInput[16];
+
+    static {
+        for (GameInput input : values()) {
+            BY_CODE[input.m_code] = input;
+        }
+    }
+
+    private final int m_code;
+
+    GameInput(int code) {
+        m_code = code;
+    }
+
+    public int getCode() { return m_code; }
+
+    //null, если такого кода нет
+    public static GameInput fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    //null, если клавиша ничего не делает
+    public static GameInput fromKey(int keyCode, boolean pressed) {
+        switch (keyCode) {
+            case KeyEvent.VK_LEFT:
+            case KeyEvent.VK_A:
+                return pressed ? LEFT_FLIPPER_DOWN : LEFT_FLIPPER_UP;
+            case KeyEvent.VK_RIGHT:
+            case KeyEvent.VK_D:
+                return pressed ? RIGHT_FLIPPER_DOWN : RIGHT_FLIPPER_UP;
+            case KeyEvent.VK_SPACE:
+                return pressed ? START : null;
+            case KeyEvent.VK_R:
+                return pressed ? RESET : null;
+            case KeyEvent.VK_M:
+                return pressed ? ADD_BALL : null;
+            case KeyEvent.VK_P:
+                return pressed ? TOGGLE_PAUSE : null;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package gui.game;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+//игровой цикл на отдельном потоке: физика идёт фиксированными шагами из накопителя времени,
+//отрисовка получает долю шага для интерполяции; при отставании лишние кадры и шаги пропускаются.
+//когда на столе ничего не движется, поток после последнего кадра спит до ввода или wake().
+//цикл ведёт либо свой поток (start()), либо общий планировщик столов (start(GameScheduler))
+public class GameLoop {
+    public static final int DEFAULT_FRAME_RATE = 60;
+    //сколько шагов физики можно догнать за один кадр, остальное считается пропущенным
+    public static final int DEFAULT_MAX_TICKS_PER_FRAME = 5;
+    //сколько кадров подряд можно пропустить ради физики
+    public static final int MAX_SKIPPED_FRAMES = 5;
+    //advance: стол простаивает, будить его не нужно до wake()
+    static final long IDLE = Long.MAX_VALUE;
+
+    public interface FrameListener {
+        //alpha - доля следующего шага, прошедшая после последнего шага физики
+        void onFrame(double alpha);
+    }
+
+    private final GameSimulation m_simulation;
+    private final FrameListener m_frameListener;
+
+    private volatile long m_tickNanos;
+    private volatile long m_frameNanos;
+    private volatile int m_maxTicksPerFrame = DEFAULT_MAX_TICKS_PER_FRAME;
+
+    //состояние цикла меняет только его поток (или тест через runFrame)
+    private long m_previousNanos = -1;
+    private long m_accumulatorNanos = 0;
+    private long m_lastFrameNanos = Long.MIN_VALUE;
+    private long m_scheduledWakeNanos = -1;
+    private int m_skippedFrames = 0;
+    //кадр после последнего шага уже показан, можно засыпать
+    private boolean m_frameSinceTick = false;
+
+    //метрики: читаются из других потоков, поэтому volatile
+    private volatile long m_tickCount = 0;
+    private volatile long m_frameCount = 0;
+    private volatile long m_missedTicks = 0;
+    private volatile long m_skippedFrameCount = 0;
+    private volatile long m_jitterSamples = 0;
+    private volatile long m_jitterTotalNanos = 0;
+    private volatile long m_jitterMaxNanos = 0;
+    private volatile long m_idleCount = 0;
+    private volatile boolean m_idle;
+
+    //поток, который ведёт цикл: свой или рабочий поток планировщика
+    private volatile Thread m_thread;
+    private volatile boolean m_running;
+    private GameScheduler m_scheduler;
+    //планировщик продвигает цикл под этой блокировкой, чтобы stop() не вернулся посреди кадра
+    private final Object m_frameLock = new Object();
+    private final AtomicBoolean m_wakeRequested = new AtomicBoolean();
+
+    public GameLoop(GameSimulation simulation, FrameListener frameListener) {
+        m_simulation = simulation;
+        m_frameListener = frameListener;
+        m_tickNanos = millisToNanos(simulation.getTickMillis());
+        m_frameNanos = 1_000_000_000L / DEFAULT_FRAME_RATE;
+        simulation.setWakeUp(this::wake);
+    }
+
+    public synchronized void start() {
+        if (m_running) {
+            return;
+        }
+        m_running = true;
+        resetTiming();
+        Thread thread = new Thread(this::run, "game loop");
+        thread.setDaemon(true);
+        m_thread = thread;
+        thread.start();
+    }
+
+    //цикл ведёт общий планировщик, своего потока нет
+    public synchronized void start(GameScheduler scheduler) {
+        if (m_running) {
+            return;
+        }
+        m_running = true;
+        resetTiming();
+        m_scheduler = scheduler;
+        scheduler.attach(this);
+    }
+
+    //поток, который будет вести цикл; вызывается планировщиком
+    void setDriver(Thread thread) {
+        m_thread = thread;
+    }
+
+    public synchronized void stop() {
+        GameScheduler scheduler = m_scheduler;
+        if (scheduler != null) {
+            synchronized (m_frameLock) {
+                m_running = false;
+            }
+            scheduler.detach(this);
+            m_scheduler = null;
+            m_thread = null;
+            return;
+        }
+        m_running = false;
+        Thread thread = m_thread;
+        m_thread = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            if (thread != Thread.currentThread()) {
+                try {
+                    thread.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    //будит цикл, уснувший в простое; можно вызывать из любого потока
+    public void wake() {
+        m_wakeRequested.set(true);
+        Thread thread = m_thread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (m_running) {
+            long wakeNanos = advance(System.nanoTime());
+            if (wakeNanos == IDLE) {
+                LockSupport.park(this);
+                continue;
+            }
+            long sleepNanos = wakeNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+    }
+
+    //проход планировщика: остановленный цикл больше не трогается
+    long advanceScheduled(long now) {
+        synchronized (m_frameLock) {
+            return m_running ? advance(now) : IDLE;
+        }
+    }
+
+    //один проход для потока, который ведёт цикл: кадр, если пора, и момент следующего пробуждения
+    //или IDLE, если на столе ничего не движется и спать можно до wake()
+    long advance(long now) {
+        if (m_idle) {
+            if (!m_wakeRequested.getAndSet(false)) {
+                return IDLE;
+            }
+            m_idle = false;
+            //время сна не догоняется шагами и не считается опозданием
+            resetTiming();
+        }
+        if (now >= m_scheduledWakeNanos) {
+            runFrame(now);
+        }
+        //ввод, пришедший после сброса, оставит флаг, и цикл сразу проснётся
+        m_wakeRequested.set(false);
+        if (m_frameSinceTick && m_simulation.isIdle()) {
+            m_idleCount++;
+            m_idle = true;
+            return IDLE;
+        }
+        return m_scheduledWakeNanos;
+    }
+
+    private void resetTiming() {
+        m_previousNanos = -1;
+        m_accumulatorNanos = 0;
+        m_scheduledWakeNanos = -1;
+        m_idle = false;
+    }
+
+    //одна итерация цикла для момента now; вынесена отдельно, чтобы её можно было вызывать с искусственным временем
+    public void runFrame(long now) {
+        if (m_previousNanos < 0) {
+            m_previousNanos = now;
+            m_lastFrameNanos = now - m_frameNanos;
+        }
+        if (m_scheduledWakeNanos >= 0 && now > m_scheduledWakeNanos) {
+            recordJitter(now - m_scheduledWakeNanos);
+        }
+
+        long tickNanos = m_tickNanos;
+        m_accumulatorNanos += now - m_previousNanos;
+        m_previousNanos = now;
+
+        int ticks = 0;
+        int maxTicks = m_maxTicksPerFrame;
+        GameMetrics metrics = m_simulation.getMetrics();
+        while (m_accumulatorNanos >= tickNanos && ticks < maxTicks) {
+            //длительность шага меряется реальными часами, даже если now искусственное
+            long tickStart = System.nanoTime();
+            m_simulation.tick();
+            metrics.recordTick(System.nanoTime() - tickStart);
+            m_accumulatorNanos -= tickNanos;
+            ticks++;
+        }
+        m_tickCount += ticks;
+        if (ticks > 0) {
+            m_frameSinceTick = false;
+        }
+
+        //не успели: хвост отбрасывается, иначе цикл никогда не догонит реальное время
+        boolean behind = m_accumulatorNanos >= tickNanos;
+        if (behind) {
+            long missed = m_accumulatorNanos / tickNanos;
+            m_missedTicks += missed;
+            metrics.recordMissedTicks(missed);
+            m_accumulatorNanos %= tickNanos;
+        }
+
+        if (now - m_lastFrameNanos >= m_frameNanos) {
+            if (behind && m_skippedFrames < MAX_SKIPPED_FRAMES) {
+                m_skippedFrames++;
+                m_skippedFrameCount++;
+            } else {
+                m_skippedFrames = 0;
+                m_lastFrameNanos = now;
+                m_frameCount++;
+                m_frameListener.onFrame((double) m_accumulatorNanos / tickNanos);
+                m_frameSinceTick = true;
+            }
+        }
+
+        long nextTick = now + (tickNanos - m_accumulatorNanos);
+        long nextFrame = m_lastFrameNanos + m_frameNanos;
+        m_scheduledWakeNanos = Math.min(nextTick, nextFrame);
+    }
+
+    private void recordJitter(long lateNanos) {
+        m_jitterSamples++;
+        m_jitterTotalNanos += lateNanos;
+        if (lateNanos > m_jitterMaxNanos) {
+            m_jitterMaxNanos = lateNanos;
+        }
+    }
+
+    public void setTickMillis(double tickMillis) {
+        m_simulation.setTickMillis(tickMillis);
+        m_tickNanos = millisToNanos(tickMillis);
+    }
+
+    public void setFrameRate(int framesPerSecond) {
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("Частота кадров должна быть положительной: " + framesPerSecond);
+        }
+        m_frameNanos = 1_000_000_000L / framesPerSecond;
+    }
+
+    public void setMaxTicksPerFrame(int maxTicksPerFrame) {
+        m_maxTicksPerFrame = Math.max(1, maxTicksPerFrame);
+    }
+
+    public void resetStatistics() {
+        m_missedTicks = 0;
+        m_skippedFrameCount = 0;
+        m_jitterSamples = 0;
+        m_jitterTotalNanos = 0;
+        m_jitterMaxNanos = 0;
+    }
+
+    private static long millisToNanos(double millis) {
+        return Math.round(millis * 1_000_000);
+    }
+
+    public boolean isRunning() { return m_running; }
+    //поток спит, потому что на столе ничего не движется
+    public boolean isIdle() { return m_idle; }
+    public long getIdleCount() { return m_idleCount; }
+    public double getTickMillis() { return m_tickNanos / 1_000_000.0; }
+    public double getFrameRate() { return 1_000_000_000.0 / m_frameNanos; }
+    public long getTickCount() { return m_tickCount; }
+    public long getFrameCount() { return m_frameCount; }
+    public long getMissedTicks() { return m_missedTicks; }
+    public long getSkippedFrames() { return m_skippedFrameCount; }
+
+    //насколько поток просыпается позже запланированного
+    public double getAverageJitterMillis() {
+        long samples = m_jitterSamples;
+        return samples == 0 ? 0 : m_jitterTotalNanos / (samples * 1_000_000.0);
+    }
+
+    public double getMaxJitterMillis() { return m_jitterMaxNanos / 1_000_000.0; }
+}
@@ -0,0 +1,96 @@
+package gui.game;
+
+import log.LogCategory;
+import log.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+//метрики игрового цикла: длительность шага физики, время отрисовки и интервал между кадрами,
+//пропущенные шаги и число точных проверок столкновений за шаг; пишут поток цикла и EDT
+public class GameMetrics implements GameMetricsMXBean {
+    public static final String OBJECT_NAME = "gui.game:type=GameMetrics";
+
+    private final Histogram m_tickNanos = new Histogram();
+    private final Histogram m_renderNanos = new Histogram();
+    private final Histogram m_frameIntervalNanos = new Histogram();
+    private final Histogram m_collisionChecks = new Histogram();
+    private final AtomicLong m_missedTicks = new AtomicLong();
+    private volatile String m_objectName = OBJECT_NAME;
+
+    public void recordTick(long nanos) { m_tickNanos.record(nanos); }
+    public void recordRender(long nanos) { m_renderNanos.record(nanos); }
+    public void recordFrameInterval(long nanos) { m_frameIntervalNanos.record(nanos); }
+    public void recordCollisionChecks(long checks) { m_collisionChecks.record(checks); }
+    public void recordMissedTicks(long ticks) { m_missedTicks.addAndGet(ticks); }
+
+    public Histogram getTickHistogram() { return m_tickNanos; }
+    public Histogram getRenderHistogram() { return m_renderNanos; }
+    public Histogram getFrameIntervalHistogram() { return m_frameIntervalNanos; }
+    public Histogram getCollisionChecksHistogram() { return m_collisionChecks; }
+
+    @Override public long getTickCount() { return m_tickNanos.getCount(); }
+    @Override public double getTickMeanMillis() { return m_tickNanos.getMean() / 1_000_000.0; }
+    @Override public double getTickP99Millis() { return m_tickNanos.getValueAtPercentile(99) / 1_000_000.0; }
+    @Override public double getTickMaxMillis() { return m_tickNanos.getMax() / 1_000_000.0; }
+
+    @Override public long getFrameCount() { return m_renderNanos.getCount(); }
+    @Override public double getRenderMeanMillis() { return m_renderNanos.getMean() / 1_000_000.0; }
+    @Override public double getRenderP99Millis() { return m_renderNanos.getValueAtPercentile(99) / 1_000_000.0; }
+    @Override public double getRenderMaxMillis() { return m_renderNanos.getMax() / 1_000_000.0; }
+
+    //по медиане интервала, чтобы редкие паузы не искажали значение
+    @Override
+    public double getFramesPerSecond() {
+        long median = m_frameIntervalNanos.getValueAtPercentile(50);
+        return median == 0 ? 0 : 1_000_000_000.0 / median;
+    }
+
+    @Override public long getMissedTicks() { return m_missedTicks.get(); }
+    @Override public double getCollisionChecksMean() { return m_collisionChecks.getMean(); }
+    @Override public long getCollisionChecksP99() { return m_collisionChecks.getValueAtPercentile(99); }
+
+    @Override
+    public void reset() {
+        m_tickNanos.reset();
+        m_renderNanos.reset();
+        m_frameIntervalNanos.reset();
+        m_collisionChecks.reset();
+        m_missedTicks.set(0);
+    }
+
+    //регистрация под OBJECT_NAME; прежний объект с тем же именем заменяется
+    public void registerMBean() {
+        registerMBean(OBJECT_NAME);
+    }
+
+    //столы аркады регистрируются каждый под своим именем
+    public void registerMBean(String objectName) {
+        m_objectName = objectName;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            Logger.error(LogCategory.Game, "Не удалось зарегистрировать метрики в JMX: " + e.getMessage());
+        }
+    }
+
+    public void unregisterMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(m_objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            Logger.error(LogCategory.Game, "Не удалось снять метрики с регистрации в JMX: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package gui.game;
+
+//метрики игрового цикла в JMX (jconsole, VisualVM): время в миллисекундах
+public interface GameMetricsMXBean {
+    long getTickCount();
+    double getTickMeanMillis();
+    double getTickP99Millis();
+    double getTickMaxMillis();
+
+    long getFrameCount();
+    double getRenderMeanMillis();
+    double getRenderP99Millis();
+    double getRenderMaxMillis();
+    double getFramesPerSecond();
+
+    long getMissedTicks();
+    double getCollisionChecksMean();
+    long getCollisionChecksP99();
+
+    void reset();
+}
@@ -1,5 +1,6 @@
 package gui.game;
 
+import log.LogCategory;
 import log.Logger;
 
 public class GamePhysics {
@@ -8,193 +9,568 @@ public class GamePhysics {
     public static final double BOUNCE_DAMPING = 0.8;
     public static final double BALL_RADIUS = 6;
 
-    private final GameVisualizer visualizer;
+    //сколько отскоков разбирается за один шаг непрерывной проверки
+    private static final int MAX_SWEEP_ITERATIONS = 4;
+
+    private static final int HIT_NONE = 0;
+    private static final int HIT_TOP = 1;
+    private static final int HIT_WALL = 2;
+    private static final int HIT_LEFT_FLIPPER = 3;
+    private static final int HIT_RIGHT_FLIPPER = 4;
+    private static final int HIT_BUMPER = 5;
+    private static final int HIT_TARGET = 6;
+
+    private final TableState state;
+    private final BallStore balls;
+    private final FlipperController flipperController;
+    //буфер для импульса отскока, переиспользуется на каждом столкновении
+    private final Vector2 bounce = new Vector2();
+
+    //широкая фаза: сетки мишеней и бамперов, перестраиваются только вместе со столом
+    private final CollisionGrid targetGrid = new CollisionGrid();
+    private final CollisionGrid bumperGrid = new CollisionGrid();
+    private int[] candidates = new int[0];
+    //стенки воронки с готовыми нормалями; номер стенки 0 - левая, 1 - правая
+    private final WallSegments walls = new WallSegments();
+    private int compiledLayoutVersion = -1;
+
+    //длина шага в базовых шагах по 16 мс; скорости заданы на базовый шаг
+    private double timeStep = 1.0;
+    private double frictionFactor = FRICTION;
+
+    //точка контакта для нормали при непрерывной проверке
+    private final Vector2 contact = new Vector2();
+
+    //результат поиска ближайшего столкновения на отрезке движения
+    private double hitTime;
+    private int hitKind;
+    private int hitIndex;
+
+    //сколько точных проверок столкновений выполнено за всё время, для метрик
+    private long collisionChecks = 0;
+    //отскоки не начисляют очков и не пишут протокол сами, а публикуются событиями
+    private final CollisionEvents events = new CollisionEvents();
+
+    public GamePhysics(TableState state, FlipperController flipperController) {
+        this.state = state;
+        this.balls = state.getBalls();
+        this.flipperController = flipperController;
+    }
+
+    //вызывается после перестроения стола
+    public void rebuildBroadPhase() {
+        compileWalls();
+
+        java.util.List<Target> targets = state.getTargets();
+        int targetCount = targets.size();
+        double[] minX = new double[targetCount];
+        double[] minY = new double[targetCount];
+        double[] maxX = new double[targetCount];
+        double[] maxY = new double[targetCount];
+        for (int i = 0; i < targetCount; i++) {
+            Target target = targets.get(i);
+            minX[i] = target.getX();
+            minY[i] = target.getY();
+            maxX[i] = target.getX() + target.getWidth();
+            maxY[i] = target.getY() + target.getHeight();
+        }
+        targetGrid.build(minX, minY, maxX, maxY, targetCount);
+
+        java.util.List<Bumper> bumpers = state.getBumpers();
+        int bumperCount = bumpers.size();
+        minX = new double[bumperCount];
+        minY = new double[bumperCount];
+        maxX = new double[bumperCount];
+        maxY = new double[bumperCount];
+        for (int i = 0; i < bumperCount; i++) {
+            Bumper bumper = bumpers.get(i);
+            minX[i] = bumper.getX() - bumper.getRadius();
+            minY[i] = bumper.getY() - bumper.getRadius();
+            maxX[i] = bumper.getX() + bumper.getRadius();
+            maxY[i] = bumper.getY() + bumper.getRadius();
+        }
+        bumperGrid.build(minX, minY, maxX, maxY, bumperCount);
+
+        candidates = new int[Math.max(targetCount, bumperCount)];
+        compiledLayoutVersion = state.getLayoutVersion();
+    }
+
+    private void compileWalls() {
+        walls.clear();
+        //середина поля лежит внутри стола относительно обеих стенок
+        double insideX = (state.getTopLeftX() + state.getTopRightX()) / 2;
+        double insideY = (state.getTopLeftY() + state.getFunnelLeftY()) / 2;
+        walls.add(state.getFunnelLeftX(), state.getFunnelLeftY(), state.getTopLeftX(), state.getTopLeftY(),
+                insideX, insideY);
+        walls.add(state.getFunnelRightX(), state.getFunnelRightY(), state.getTopRightX(), state.getTopRightY(),
+                insideX, insideY);
+    }
+
+    //защита от стола, изменённого в обход перестроения
+    private void ensureBroadPhase() {
+        if (compiledLayoutVersion != state.getLayoutVersion()
+                || targetGrid.getItemCount() != state.getTargets().size()
+                || bumperGrid.getItemCount() != state.getBumpers().size()) {
+            rebuildBroadPhase();
+        }
+    }
+
+    public WallSegments getWalls() {
+        return walls;
+    }
+
+    public long getCollisionChecks() {
+        return collisionChecks;
+    }
 
-    public GamePhysics(GameVisualizer visualizer) {
-        this.visualizer = visualizer;
+    public CollisionEvents getCollisionEvents() {
+        return events;
     }
 
     public double getBallRadius() {
         return BALL_RADIUS;
     }
 
+    public void setTimeStep(double timeStep) {
+        this.timeStep = timeStep;
+        this.frictionFactor = Math.pow(FRICTION, timeStep);
+    }
+
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    //перемещение с непрерывной проверкой: шарик не проскакивает стенки и флипперы при больших скоростях и шагах
     public void updatePhysics() {
-        double ballX = visualizer.getBallPositionX();
-        double ballY = visualizer.getBallPositionY();
-        double velocityX = visualizer.getBallVelocityX();
-        double velocityY = visualizer.getBallVelocityY();
+        ensureBroadPhase();
+        boolean[] active = balls.active;
+        double gravity = GRAVITY * timeStep;
+
+        for (int i = 0; i < balls.count; i++) {
+            if (!active[i]) {
+                continue;
+            }
+            balls.prevX[i] = balls.x[i];
+            balls.prevY[i] = balls.y[i];
+            moveBall(i);
+            balls.vy[i] = (balls.vy[i] + gravity) * frictionFactor;
+            balls.vx[i] *= frictionFactor;
+        }
+    }
+
+
+    private void moveBall(int ball) {
+        double remaining = timeStep;
+        int lastKind = HIT_NONE;
+        int lastIndex = -1;
+
+        for (int iteration = 0; iteration < MAX_SWEEP_ITERATIONS; iteration++) {
+            double dx = balls.vx[ball] * remaining;
+            double dy = balls.vy[ball] * remaining;
+
+            findEarliestHit(ball, dx, dy, lastKind, lastIndex);
+            if (hitKind == HIT_NONE) {
+                balls.x[ball] += dx;
+                balls.y[ball] += dy;
+                return;
+            }
 
-        ballX += velocityX;
-        ballY += velocityY;
-        velocityY += GRAVITY;
-        velocityX *= FRICTION;
-        velocityY *= FRICTION;
+            balls.x[ball] += dx * hitTime;
+            balls.y[ball] += dy * hitTime;
+            respond(ball, hitKind, hitIndex);
 
-        visualizer.setBallPositionX(ballX);
-        visualizer.setBallPositionY(ballY);
-        visualizer.setBallVelocityX(velocityX);
-        visualizer.setBallVelocityY(velocityY);
+            lastKind = hitKind;
+            lastIndex = hitIndex;
+            remaining *= 1 - hitTime;
+        }
+        //остаток хода после серии отскоков отбрасывается
     }
 
 
-    public void checkCollisions() {
-        if (visualizer.getBallPositionY() < visualizer.getBorderMargin() + BALL_RADIUS) {
-            visualizer.setBallVelocityY(Math.abs(visualizer.getBallVelocityY()));
+    //объект, от которого шарик только что отскочил, на этом шаге повторно не проверяется
+    private void findEarliestHit(int ball, double dx, double dy, int skipKind, int skipIndex) {
+        double px = balls.x[ball];
+        double py = balls.y[ball];
+        hitTime = SweptCollision.NO_HIT;
+        hitKind = HIT_NONE;
+        hitIndex = -1;
+
+        double topY = TableState.BORDER_MARGIN + BALL_RADIUS;
+        if (skipKind != HIT_TOP && dy < 0 && py >= topY && py + dy < topY) {
+            recordHit((py - topY) / -dy, HIT_TOP, -1);
+        }
+
+        double wallRadius = BALL_RADIUS + SweptCollision.SKIN;
+        for (int wall = 0; wall < walls.count; wall++) {
+            if (skipKind != HIT_WALL || skipIndex != wall) {
+                recordHit(walls.sweep(wall, px, py, dx, dy, wallRadius), HIT_WALL, wall);
+            }
+        }
+
+        //флипперы за время шага считаются неподвижными
+        double flipperRadius = BALL_RADIUS + flipperController.getFlipperWidth() / 2 + SweptCollision.SKIN;
+        if (skipKind != HIT_LEFT_FLIPPER) {
+            Vector2 end = flipperController.getLeftFlipperEndPoint();
+            recordHit(SweptCollision.sweepSegment(px, py, dx, dy,
+                    state.getLeftFlipperPivotX(), state.getLeftFlipperPivotY(), end.x, end.y, flipperRadius),
+                    HIT_LEFT_FLIPPER, -1);
+        }
+        if (skipKind != HIT_RIGHT_FLIPPER) {
+            Vector2 end = flipperController.getRightFlipperEndPoint();
+            recordHit(SweptCollision.sweepSegment(px, py, dx, dy,
+                    state.getRightFlipperPivotX(), state.getRightFlipperPivotY(), end.x, end.y, flipperRadius),
+                    HIT_RIGHT_FLIPPER, -1);
         }
 
-        checkTargetsCollisions();
-        checkBumpersCollisions();
-        checkFunnelCollisions();
-        checkBallLoss();
-        checkFlipperCollisions();
+        double minX = Math.min(px, px + dx) - BALL_RADIUS;
+        double minY = Math.min(py, py + dy) - BALL_RADIUS;
+        double maxX = Math.max(px, px + dx) + BALL_RADIUS;
+        double maxY = Math.max(py, py + dy) + BALL_RADIUS;
+
+        java.util.List<Bumper> bumpers = state.getBumpers();
+        int found = bumperGrid.query(minX, minY, maxX, maxY, candidates);
+        for (int i = 0; i < found; i++) {
+            int index = candidates[i];
+            if (skipKind == HIT_BUMPER && skipIndex == index) {
+                continue;
+            }
+            Bumper bumper = bumpers.get(index);
+            recordHit(SweptCollision.sweepCircle(px, py, dx, dy, bumper.getX(), bumper.getY(),
+                    BALL_RADIUS + bumper.getRadius() + SweptCollision.SKIN), HIT_BUMPER, index);
+        }
+
+        java.util.List<Target> targets = state.getTargets();
+        found = targetGrid.query(minX, minY, maxX, maxY, candidates);
+        for (int i = 0; i < found; i++) {
+            int index = candidates[i];
+            if (skipKind == HIT_TARGET && skipIndex == index) {
+                continue;
+            }
+            Target target = targets.get(index);
+            recordHit(SweptCollision.sweepBox(px, py, dx, dy, target.getX(), target.getY(),
+                    target.getX() + target.getWidth(), target.getY() + target.getHeight(),
+                    BALL_RADIUS + SweptCollision.SKIN), HIT_TARGET, index);
+        }
     }
 
 
-    private void checkFunnelCollisions() {
-        double funnelLeftX = visualizer.getFunnelLeftX();
-        double funnelLeftY = visualizer.getFunnelLeftY();
-        double topLeftX = visualizer.getTopLeftX();
-        double topLeftY = visualizer.getTopLeftY();
-        double topRightX = visualizer.getTopRightX();
-        double topRightY = visualizer.getTopRightY();
-        double funnelRightX = visualizer.getFunnelRightX();
-        double funnelRightY = visualizer.getFunnelRightY();
+    private void recordHit(double time, int kind, int index) {
+        collisionChecks++;
+        if (time < hitTime) {
+            hitTime = time;
+            hitKind = kind;
+            hitIndex = index;
+        }
+    }
 
 
-        if (checkLineCollision(funnelLeftX, funnelLeftY, topLeftX, topLeftY, true)) {
-            return;
+    //реакция та же, что и при дискретной проверке, но скорость после неё обязана уводить от препятствия:
+    //иначе быстрый шарик, получив фиксированный импульс, всё равно прошёл бы насквозь
+    private void respond(int ball, int kind, int index) {
+        double px = balls.x[ball];
+        double py = balls.y[ball];
+        double vx = balls.vx[ball];
+        double vy = balls.vy[ball];
+        int eventKind;
+        int object;
+        switch (kind) {
+            case HIT_TOP:
+                balls.vy[ball] = Math.abs(balls.vy[ball]);
+                return;
+            case HIT_WALL:
+                respondWall(ball, index, px, py);
+                eventKind = CollisionEvents.WALL;
+                object = index;
+                break;
+            case HIT_LEFT_FLIPPER: {
+                respondFlipper(ball, state.isLeftFlipperActive(), true);
+                Vector2 end = flipperController.getLeftFlipperEndPoint();
+                closestPointOnSegment(px, py, state.getLeftFlipperPivotX(), state.getLeftFlipperPivotY(),
+                        end.x, end.y, contact);
+                eventKind = CollisionEvents.FLIPPER;
+                object = CollisionEvents.LEFT;
+                break;
+            }
+            case HIT_RIGHT_FLIPPER: {
+                respondFlipper(ball, state.isRightFlipperActive(), false);
+                Vector2 end = flipperController.getRightFlipperEndPoint();
+                closestPointOnSegment(px, py, state.getRightFlipperPivotX(), state.getRightFlipperPivotY(),
+                        end.x, end.y, contact);
+                eventKind = CollisionEvents.FLIPPER;
+                object = CollisionEvents.RIGHT;
+                break;
+            }
+            case HIT_BUMPER: {
+                Bumper bumper = state.getBumpers().get(index);
+                respondBumper(ball, bumper);
+                contact.set(bumper.getX(), bumper.getY());
+                eventKind = CollisionEvents.BUMPER;
+                object = index;
+                break;
+            }
+            case HIT_TARGET: {
+                Target target = state.getTargets().get(index);
+                respondTarget(ball, target);
+                contact.set(Math.max(target.getX(), Math.min(px, target.getX() + target.getWidth())),
+                        Math.max(target.getY(), Math.min(py, target.getY() + target.getHeight())));
+                eventKind = CollisionEvents.TARGET;
+                object = index;
+                break;
+            }
+            default:
+                return;
         }
+        ensureSeparating(ball, px - contact.x, py - contact.y);
+        publish(eventKind, object, ball, contact.x, contact.y, vx, vy);
+    }
+
+
+    //импульс события - модуль изменения скорости шарика при отскоке
+    private void publish(int kind, int object, int ball, double x, double y, double vx, double vy) {
+        double dvx = balls.vx[ball] - vx;
+        double dvy = balls.vy[ball] - vy;
+        events.publish(kind, object, ball, x, y, Math.sqrt(dvx * dvx + dvy * dvy));
+    }
 
 
-        if (checkLineCollision(funnelRightX, funnelRightY, topRightX, topRightY, false)) {
+    //отражает нормальную составляющую, если скорость всё ещё направлена внутрь препятствия
+    private void ensureSeparating(int ball, double normalX, double normalY) {
+        double length = Math.sqrt(normalX * normalX + normalY * normalY);
+        if (length == 0) {
             return;
         }
+        reflect(ball, normalX / length, normalY / length);
+    }
 
 
-        if (visualizer.getBallPositionY() >= funnelLeftY + visualizer.getFlipperLength() - BALL_RADIUS) {
-            visualizer.setBallPositionY(funnelLeftY - BALL_RADIUS);
-            visualizer.setBallVelocityY(-Math.abs(visualizer.getBallVelocityY()));
+    //нормаль должна быть единичной
+    private void reflect(int ball, double normalX, double normalY) {
+        double normalVelocity = balls.vx[ball] * normalX + balls.vy[ball] * normalY;
+        if (normalVelocity < 0) {
+            double change = -(1 + BOUNCE_DAMPING) * normalVelocity;
+            balls.vx[ball] += change * normalX;
+            balls.vy[ball] += change * normalY;
         }
     }
 
 
-    private boolean checkLineCollision(double x1, double y1, double x2, double y2, boolean isLeft) {
-        double distance = pointToLineDistance(visualizer.getBallPositionX(), visualizer.getBallPositionY(),
-                x1, y1, x2, y2);
+    private static void closestPointOnSegment(double px, double py, double x1, double y1,
+                                              double x2, double y2, Vector2 result) {
+        double ex = x2 - x1;
+        double ey = y2 - y1;
+        double lengthSquared = ex * ex + ey * ey;
+        double t = lengthSquared > 0 ? ((px - x1) * ex + (py - y1) * ey) / lengthSquared : 0;
+        t = Math.max(0, Math.min(1, t));
+        result.set(x1 + t * ex, y1 + t * ey);
+    }
 
-        if (distance < BALL_RADIUS) {
-            double closestX = closestPointOnLine(visualizer.getBallPositionX(), x1, x2);
-            double closestY = closestPointOnLine(visualizer.getBallPositionY(), y1, y2);
 
-            double dx = visualizer.getBallPositionX() - closestX;
-            double dy = visualizer.getBallPositionY() - closestY;
-            double distanceToClosest = Math.sqrt(dx * dx + dy * dy);
+    public void checkCollisions() {
+        ensureBroadPhase();
+        boolean[] active = balls.active;
+        for (int i = 0; i < balls.count; i++) {
+            if (active[i]) {
+                checkCollisions(i);
+            }
+        }
+    }
 
-            if (distanceToClosest < BALL_RADIUS) {
-                Logger.debug("шарик столкнулся со стенкой");
-                //new скорость по x сохранена в другой переменной
-                double velocityX = Math.abs(visualizer.getBallVelocityX());
 
-                if (isLeft) {
-                    visualizer.setBallVelocityX(Math.abs(visualizer.getBallVelocityY()));
-                } else {
-                    visualizer.setBallVelocityX(-Math.abs(visualizer.getBallVelocityY()));
-                }
+    private void checkCollisions(int ball) {
+        if (balls.y[ball] < TableState.BORDER_MARGIN + BALL_RADIUS) {
+            balls.vy[ball] = Math.abs(balls.vy[ball]);
+        }
+
+        checkTargetsCollisions(ball);
+        checkBumpersCollisions(ball);
+        checkFunnelCollisions(ball);
+        checkBallLoss(ball);
+        checkFlipperCollisions(ball);
+    }
+
 
-                //new после соударения у < 0
-                visualizer.setBallVelocityY(- velocityX - 1);
-                return true;
+    private void checkFunnelCollisions(int ball) {
+        for (int wall = 0; wall < walls.count; wall++) {
+            if (checkWallCollision(ball, wall)) {
+                return;
             }
         }
-        return false;
+
+
+        double funnelLeftY = state.getFunnelLeftY();
+        if (balls.y[ball] >= funnelLeftY + flipperController.getFlipperLength() - BALL_RADIUS) {
+            balls.y[ball] = funnelLeftY - BALL_RADIUS;
+            balls.vy[ball] = -Math.abs(balls.vy[ball]);
+        }
+    }
+
+
+    private boolean checkWallCollision(int ball, int wall) {
+        collisionChecks++;
+        double ballX = balls.x[ball];
+        double ballY = balls.y[ball];
+        if (walls.distanceSquared(wall, ballX, ballY) >= BALL_RADIUS * BALL_RADIUS) {
+            return false;
+        }
+
+        double vx = balls.vx[ball];
+        double vy = balls.vy[ball];
+        respondWall(ball, wall, ballX, ballY);
+        publish(CollisionEvents.WALL, wall, ball, contact.x, contact.y, vx, vy);
+        return true;
+    }
+
+
+    //отражение по нормали стенки с потерей энергии; у концов стенки нормаль идёт от ближайшей точки к шарику
+    private void respondWall(int ball, int wall, double px, double py) {
+        double t = walls.project(wall, px, py);
+        contact.set(walls.x1[wall] + t * walls.dirX[wall], walls.y1[wall] + t * walls.dirY[wall]);
+        if (t > 0 && t < 1) {
+            reflect(ball, walls.normalX[wall], walls.normalY[wall]);
+        } else {
+            ensureSeparating(ball, px - contact.x, py - contact.y);
+        }
     }
 
 
     private void checkBallLoss() {
-        if (visualizer.getBallPositionY() > visualizer.getFunnelLeftY() + visualizer.getFlipperLength() / 2) {
-            visualizer.setBallLost(true);
-            visualizer.setLives(visualizer.getLives() - 1);
-            Logger.debug("Шарик потерян! Осталось жизней: " + visualizer.getLives());
+        boolean[] active = balls.active;
+        for (int i = 0; i < balls.count; i++) {
+            if (active[i]) {
+                checkBallLoss(i);
+            }
+        }
+    }
+
+
+    //в мультиболе ушедший шарик просто выключается, жизнь теряется вместе с последним
+    private void checkBallLoss(int ball) {
+        if (balls.y[ball] > state.getFunnelLeftY() + flipperController.getFlipperLength() / 2) {
+            if (balls.activeCount > 1) {
+                balls.deactivate(ball);
+                if (Logger.isDebugEnabled()) {
+                    Logger.debug(LogCategory.Physics, "Шарик ушёл. Осталось шариков: " + balls.activeCount);
+                }
+                return;
+            }
 
-            if (visualizer.getLives() <= 0) {
-                Logger.debug("ИГРА ОКОНЧЕНА! Финальный счет: " + visualizer.getScore());
+            state.setBallLost(true);
+            state.setLives(state.getLives() - 1);
+            Logger.debug(LogCategory.Physics, "Шарик потерян! Осталось жизней: " + state.getLives());
+
+            if (state.getLives() <= 0) {
+                Logger.debug(LogCategory.Physics, "ИГРА ОКОНЧЕНА! Финальный счет: " + state.getScore());
             }
         }
     }
 
 
     private void checkFlipperCollisions() {
-        checkFlipperCollision(visualizer.getLeftFlipperPivotX(), visualizer.getLeftFlipperPivotY(),
-                visualizer.getLeftFlipperAngle(), visualizer.isLeftFlipperActive(), true);
-        checkFlipperCollision(visualizer.getRightFlipperPivotX(), visualizer.getRightFlipperPivotY(),
-                visualizer.getRightFlipperAngle(), visualizer.isRightFlipperActive(), false);
+        boolean[] active = balls.active;
+        for (int i = 0; i < balls.count; i++) {
+            if (active[i]) {
+                checkFlipperCollisions(i);
+            }
+        }
+    }
+
+
+    private void checkFlipperCollisions(int ball) {
+        checkFlipperCollision(ball, state.getLeftFlipperPivotX(), state.getLeftFlipperPivotY(),
+                flipperController.getLeftFlipperEndPoint(), state.isLeftFlipperActive(), true);
+        checkFlipperCollision(ball, state.getRightFlipperPivotX(), state.getRightFlipperPivotY(),
+                flipperController.getRightFlipperEndPoint(), state.isRightFlipperActive(), false);
     }
 
 
-    private void checkFlipperCollision(double pivotX, double pivotY, double angle,
+    private void checkFlipperCollision(int ball, double pivotX, double pivotY, Vector2 endPoint,
                                        boolean isActive, boolean isLeftFlipper) {
+        collisionChecks++;
 
-        double[] endPoint = visualizer.getFlipperController().calculateFlipperEndPoint(
-                pivotX, pivotY, angle, isLeftFlipper);
-        double flipperEndX = endPoint[0];
-        double flipperEndY = endPoint[1];
+        double flipperEndX = endPoint.x;
+        double flipperEndY = endPoint.y;
 
-        double distanceToLine = pointToLineDistance(visualizer.getBallPositionX(), visualizer.getBallPositionY(),
+        double distanceToLine = pointToLineDistance(balls.x[ball], balls.y[ball],
                 pivotX, pivotY, flipperEndX, flipperEndY);
 
-        if (distanceToLine < BALL_RADIUS + visualizer.getFlipperWidth() / 2) {
+        if (distanceToLine < BALL_RADIUS + flipperController.getFlipperWidth() / 2) {
+            double vx = balls.vx[ball];
+            double vy = balls.vy[ball];
+            respondFlipper(ball, isActive, isLeftFlipper);
+            publish(CollisionEvents.FLIPPER, isLeftFlipper ? CollisionEvents.LEFT : CollisionEvents.RIGHT,
+                    ball, balls.x[ball], balls.y[ball], vx, vy);
+        }
+    }
+
+
+    private void respondFlipper(int ball, boolean isActive, boolean isLeftFlipper) {
+        if (isLeftFlipper) {
+            balls.vx[ball] = Math.abs(balls.vx[ball]) * BOUNCE_DAMPING + 2.0;
+        } else {
+            balls.vx[ball] = -Math.abs(balls.vx[ball]) * BOUNCE_DAMPING - 2.0;
+        }
+
+        balls.vy[ball] = -Math.abs(balls.vy[ball]) * BOUNCE_DAMPING - 3.0;
+
+        if (isActive) {
             if (isLeftFlipper) {
-                visualizer.setBallVelocityX(Math.abs(visualizer.getBallVelocityX()) * BOUNCE_DAMPING + 2.0);
+                balls.vx[ball] += 3.0;
             } else {
-                visualizer.setBallVelocityX(-Math.abs(visualizer.getBallVelocityX()) * BOUNCE_DAMPING - 2.0);
+                balls.vx[ball] -= 3.0;
             }
+            balls.vy[ball] -= 4.0;
+        }
+    }
 
-            visualizer.setBallVelocityY(-Math.abs(visualizer.getBallVelocityY()) * BOUNCE_DAMPING - 3.0);
 
-            if (isActive) {
-                if (isLeftFlipper) {
-                    visualizer.setBallVelocityX(visualizer.getBallVelocityX() + 3.0);
-                } else {
-                    visualizer.setBallVelocityX(visualizer.getBallVelocityX() - 3.0);
-                }
-                visualizer.setBallVelocityY(visualizer.getBallVelocityY() - 4.0);
+    //кандидаты берутся из сетки по рамке шарика, точная проверка - только для них
+    private void checkTargetsCollisions(int ball) {
+        java.util.List<Target> targets = state.getTargets();
+        int found = targetGrid.query(balls.x[ball] - BALL_RADIUS, balls.y[ball] - BALL_RADIUS,
+                balls.x[ball] + BALL_RADIUS, balls.y[ball] + BALL_RADIUS, candidates);
+        collisionChecks += found;
+        for (int i = 0; i < found; i++) {
+            Target target = targets.get(candidates[i]);
+            if (target.checkCollisionTarget(balls.x[ball], balls.y[ball], BALL_RADIUS)) {
+                double vx = balls.vx[ball];
+                double vy = balls.vy[ball];
+                respondTarget(ball, target);
+                publish(CollisionEvents.TARGET, candidates[i], ball, balls.x[ball], balls.y[ball], vx, vy);
             }
-
-            visualizer.setScore(visualizer.getScore() + 10);
-            Logger.debug((isLeftFlipper ? "Левый" : "Правый") + " флиппер: отскок!");
         }
     }
 
 
-    private void checkTargetsCollisions() {
-        for (Target target : visualizer.getTargets()) {
-            if (target.checkCollisionTarget(visualizer.getBallPositionX(), visualizer.getBallPositionY(), BALL_RADIUS)) {
-                int points = target.hit();
-                visualizer.setScore(visualizer.getScore() + points);
+    private void respondTarget(int ball, Target target) {
+        target.hit();
+        target.getBounceDirection(balls.x[ball], balls.y[ball], bounce);
+        balls.vx[ball] += bounce.x;
+        balls.vy[ball] += bounce.y;
+    }
 
-                double[] bounce = target.getBounceDirection(visualizer.getBallPositionX(), visualizer.getBallPositionY());
-                visualizer.setBallVelocityX(visualizer.getBallVelocityX() + bounce[0]);
-                visualizer.setBallVelocityY(visualizer.getBallVelocityY() + bounce[1]);
 
-                Logger.debug("Попадание в мишень! +" + points + " очков");
+    private void checkBumpersCollisions(int ball) {
+        java.util.List<Bumper> bumpers = state.getBumpers();
+        int found = bumperGrid.query(balls.x[ball] - BALL_RADIUS, balls.y[ball] - BALL_RADIUS,
+                balls.x[ball] + BALL_RADIUS, balls.y[ball] + BALL_RADIUS, candidates);
+        collisionChecks += found;
+        for (int i = 0; i < found; i++) {
+            Bumper bumper = bumpers.get(candidates[i]);
+            if (bumper.checkCollisionBumper(balls.x[ball], balls.y[ball], BALL_RADIUS)) {
+                double vx = balls.vx[ball];
+                double vy = balls.vy[ball];
+                respondBumper(ball, bumper);
+                publish(CollisionEvents.BUMPER, candidates[i], ball, balls.x[ball], balls.y[ball], vx, vy);
             }
         }
     }
 
 
-    private void checkBumpersCollisions() {
-        for (Bumper bumper : visualizer.getBumpers()) {
-            if (bumper.checkCollisionBumper(visualizer.getBallPositionX(), visualizer.getBallPositionY(), BALL_RADIUS)) {
-                int points = bumper.hit();
-                visualizer.setScore(visualizer.getScore() + points);
-
-                double[] bounce = bumper.getBounceDirection(visualizer.getBallPositionX(), visualizer.getBallPositionY());
-                visualizer.setBallVelocityX(visualizer.getBallVelocityX() + bounce[0]);
-                visualizer.setBallVelocityY(visualizer.getBallVelocityY() + bounce[1]);
-
-                Logger.debug("Столкновение с бампером! +" + points + " очков");
-            }
-        }
+    private void respondBumper(int ball, Bumper bumper) {
+        bumper.hit();
+        bumper.getBounceDirection(balls.x[ball], balls.y[ball], bounce);
+        balls.vx[ball] += bounce.x;
+        balls.vy[ball] += bounce.y;
     }
 
 
@@ -225,9 +601,4 @@ public class GamePhysics {
         double dy = py - yy;
         return Math.sqrt(dx * dx + dy * dy);
     }
-
-    private double closestPointOnLine(double p, double a, double b) {
-        double t = Math.max(0, Math.min(1, (p - a) / (b - a)));
-        return a + t * (b - a);
-    }
-}
\ No newline at end of file
+}
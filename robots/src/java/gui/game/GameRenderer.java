@@ -2,156 +2,367 @@ package gui.game;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
 
 public class GameRenderer {
+    private static final Color FIELD_COLOR = new Color(40, 40, 80);
+    private static final Color EMPTY_BACKGROUND_COLOR = new Color(20, 20, 73);
+    private static final Color DRAIN_COLOR = new Color(255, 0, 0, 50);
+    private static final Stroke DEFAULT_STROKE = new BasicStroke(1.0f);
+    private static final Color METRICS_COLOR = new Color(120, 255, 120);
+
+    //область оверлея метрик под основной строкой состояния
+    public static final int METRICS_OVERLAY_X = 0, METRICS_OVERLAY_Y = 125;
+    public static final int METRICS_OVERLAY_WIDTH = 420, METRICS_OVERLAY_HEIGHT = 105;
+    //перцентили пересчитываются не на каждом кадре
+    private static final long METRICS_REFRESH_NANOS = 250_000_000L;
+
     private final GameVisualizer visualizer;
+    private final GameMetrics metrics;
+    //свой буфер: кэш контроллера принадлежит потоку физики
+    private final Vector2 flipperEndPoint = new Vector2();
+    //при масштабе мира целые координаты дрожали бы, поэтому шарик и флипперы рисуются дробными фигурами
+    private final Ellipse2D.Double ballShape = new Ellipse2D.Double();
+    private final Line2D.Double flipperShape = new Line2D.Double();
+    private Stroke flipperStroke;
+    private double flipperStrokeWidth = Double.NaN;
+
+    //неподвижная часть стола рисуется один раз и пересобирается только при смене размера или стола
+    private BufferedImage staticLayer;
+    private int staticLayerWidth;
+    private int staticLayerHeight;
+    private WorldView staticLayerView;
+    private int staticLayerVersion = -1;
+    //фон грузится асинхронно: пока он не догрузился, слой пересобирается каждый кадр
+    private boolean staticLayerComplete;
+    private int staticLayerBuilds = 0;
+
+    //время между кадрами, сглаженное экспоненциально
+    private long lastFrameNanos = 0;
+    private double frameMillis = 0;
+
+    //при перерисовке по частям все части кадра берут один и тот же снимок
+    private GameSnapshot heldSnapshot;
+    private long heldFrameStartNanos;
+
+    //оверлей метрик включается F3; строки кэшируются между пересчётами
+    private volatile boolean metricsOverlayVisible = false;
+    private String[] metricsLines = new String[0];
+    private long metricsLinesNanos = Long.MIN_VALUE;
 
     public GameRenderer(GameVisualizer visualizer) {
         this.visualizer = visualizer;
+        this.metrics = visualizer.getSimulation().getMetrics();
     }
 
+    //всё изменяемое берётся из одного снимка, поэтому кадр не смешивает два шага физики;
+    //стол рисуется в координатах мира через WorldView, текст - в пикселях панели
     public void render(Graphics2D g2d) {
-        if (visualizer.getBackgroundImage() != null) {
-            g2d.drawImage(visualizer.getBackgroundImage(), 0, 0,
-                    visualizer.getWidth(), visualizer.getHeight(), visualizer);
-        } else {
-            g2d.setColor(new Color(20, 20, 73));
-            g2d.fillRect(0, 0, visualizer.getWidth(), visualizer.getHeight());
+        boolean partOfFrame = heldSnapshot != null;
+        long start = System.nanoTime();
+        GameSnapshot snapshot = partOfFrame ? heldSnapshot : acquireFrame();
+        WorldView view = visualizer.getView();
+
+        drawStaticLayer(g2d, snapshot, view);
+
+        AffineTransform screenTransform = g2d.getTransform();
+        view.applyTo(g2d);
+        drawBall(g2d, snapshot);
+        drawFlippers(g2d, snapshot);
+        drawTargetsAndBumpers(g2d, snapshot);
+        g2d.setTransform(screenTransform);
+
+        drawInfo(g2d, snapshot);
+
+        //кадр по частям меряется целиком в endFrame
+        if (!partOfFrame) {
+            metrics.recordRender(System.nanoTime() - start);
         }
+    }
 
-        g2d.setColor(Color.WHITE);
-        g2d.drawRect(visualizer.getBorderMargin(), visualizer.getBorderMargin(),
-                visualizer.getFieldWidth(), visualizer.getFieldHeight());
+    //начало кадра, который рисуется несколькими вызовами render с разными областями
+    public void beginFrame() {
+        heldFrameStartNanos = System.nanoTime();
+        heldSnapshot = acquireFrame();
+    }
+
+    public void endFrame() {
+        if (heldSnapshot != null) {
+            metrics.recordRender(System.nanoTime() - heldFrameStartNanos);
+        }
+        heldSnapshot = null;
+    }
+
+    public boolean toggleMetricsOverlay() {
+        metricsOverlayVisible = !metricsOverlayVisible;
+        metricsLinesNanos = Long.MIN_VALUE;
+        return metricsOverlayVisible;
+    }
+
+    public boolean isMetricsOverlayVisible() { return metricsOverlayVisible; }
 
-        drawPlayingField(g2d);
-        drawBall(g2d);
-        drawFlippers(g2d);
-        drawInfo(g2d);
-        drawTargetsAndBumpers(g2d);
+    private GameSnapshot acquireFrame() {
+        measureFrame();
+        return visualizer.getSimulation().getSnapshots().acquire();
     }
 
-    private void drawPlayingField(Graphics2D g2d) {
-        g2d.setColor(new Color(40, 40, 80));
+    //сбросить кэш, например после смены фона
+    public void invalidateStaticLayer() {
+        staticLayerVersion = -1;
+    }
+
+    public int getStaticLayerBuilds() { return staticLayerBuilds; }
+    public double getFrameMillis() { return frameMillis; }
 
-        Polygon fieldPolygon = getPolygon();
+    private void measureFrame() {
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0) {
+            metrics.recordFrameInterval(now - lastFrameNanos);
+            double millis = (now - lastFrameNanos) / 1_000_000.0;
+            frameMillis = frameMillis == 0 ? millis : frameMillis * 0.9 + millis * 0.1;
+        }
+        lastFrameNanos = now;
+    }
+
+    private void drawStaticLayer(Graphics2D g2d, GameSnapshot snapshot, WorldView view) {
+        int width = visualizer.getWidth();
+        int height = visualizer.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (staticLayer == null || !staticLayerComplete || width != staticLayerWidth || height != staticLayerHeight
+                || view != staticLayerView || snapshot.getLayoutVersion() != staticLayerVersion) {
+            buildStaticLayer(width, height, snapshot, view);
+        }
+        g2d.drawImage(staticLayer, 0, 0, null);
+    }
+
+    private void buildStaticLayer(int width, int height, GameSnapshot snapshot, WorldView view) {
+        if (staticLayer == null || staticLayer.getWidth() != width || staticLayer.getHeight() != height) {
+            GraphicsConfiguration configuration = visualizer.getGraphicsConfiguration();
+            staticLayer = configuration != null
+                    ? configuration.createCompatibleImage(width, height, Transparency.OPAQUE)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+
+        Graphics2D layer = staticLayer.createGraphics();
+        try {
+            Image backgroundImage = visualizer.getBackgroundImage();
+            if (backgroundImage != null) {
+                layer.setColor(visualizer.getBackground());
+                layer.fillRect(0, 0, width, height);
+                staticLayerComplete = layer.drawImage(backgroundImage, 0, 0, width, height, visualizer)
+                        || (visualizer.checkImage(backgroundImage, visualizer) & ImageObserver.ERROR) != 0;
+            } else {
+                layer.setColor(EMPTY_BACKGROUND_COLOR);
+                layer.fillRect(0, 0, width, height);
+                staticLayerComplete = true;
+            }
+
+            AffineTransform screenTransform = layer.getTransform();
+            view.applyTo(layer);
+            layer.setColor(Color.WHITE);
+            layer.drawRect(visualizer.getBorderMargin(), visualizer.getBorderMargin(),
+                    snapshot.getFieldWidth(), snapshot.getFieldHeight());
+            drawPlayingField(layer, snapshot, view);
+            layer.setTransform(screenTransform);
+
+            drawHelp(layer);
+        } finally {
+            layer.dispose();
+        }
+
+        staticLayerWidth = width;
+        staticLayerHeight = height;
+        staticLayerView = view;
+        staticLayerVersion = snapshot.getLayoutVersion();
+        staticLayerBuilds++;
+    }
+
+    private void drawPlayingField(Graphics2D g2d, GameSnapshot snapshot, WorldView view) {
+        g2d.setColor(FIELD_COLOR);
+
+        Polygon fieldPolygon = getPolygon(snapshot);
 
         g2d.fillPolygon(fieldPolygon);
 
         g2d.setColor(Color.WHITE);
-        g2d.drawLine((int)visualizer.getTopLeftX(), (int)visualizer.getTopLeftY(),
-                (int)visualizer.getTopRightX(), (int)visualizer.getTopRightY());
-        g2d.drawLine((int)visualizer.getTopLeftX(), (int)visualizer.getTopLeftY(),
-                (int)visualizer.getFunnelLeftX(), (int)visualizer.getFunnelLeftY());
-        g2d.drawLine((int)visualizer.getTopRightX(), (int)visualizer.getTopRightY(),
-                (int)visualizer.getFunnelRightX(), (int)visualizer.getFunnelRightY());
-        g2d.drawLine((int)visualizer.getFunnelLeftX(),
-                (int)visualizer.getFunnelLeftY() + (int)visualizer.getFlipperLength(),
-                (int)visualizer.getFunnelRightX(),
-                (int)visualizer.getFunnelRightY() + (int)visualizer.getFlipperLength());
-
-        g2d.setColor(new Color(255, 0, 0, 50));
-        g2d.fillRect((int)visualizer.getFunnelLeftX(),
-                (int)visualizer.getFunnelLeftY() + (int)visualizer.getFlipperLength(),
-                (int)(visualizer.getFunnelRightX() - visualizer.getFunnelLeftX()),
-                visualizer.getHeight() - (int)visualizer.getFunnelLeftY() + (int)visualizer.getFlipperLength());
-    }
-
-    private Polygon getPolygon() {
+        g2d.drawLine((int)snapshot.getTopLeftX(), (int)snapshot.getTopLeftY(),
+                (int)snapshot.getTopRightX(), (int)snapshot.getTopRightY());
+        g2d.drawLine((int)snapshot.getTopLeftX(), (int)snapshot.getTopLeftY(),
+                (int)snapshot.getFunnelLeftX(), (int)snapshot.getFunnelLeftY());
+        g2d.drawLine((int)snapshot.getTopRightX(), (int)snapshot.getTopRightY(),
+                (int)snapshot.getFunnelRightX(), (int)snapshot.getFunnelRightY());
+        g2d.drawLine((int)snapshot.getFunnelLeftX(),
+                (int)snapshot.getFunnelLeftY() + (int)snapshot.getFlipperLength(),
+                (int)snapshot.getFunnelRightX(),
+                (int)snapshot.getFunnelRightY() + (int)snapshot.getFlipperLength());
+
+        //сток тянется до нижнего края мира
+        int drainY = (int)snapshot.getFunnelLeftY() + (int)snapshot.getFlipperLength();
+        g2d.setColor(DRAIN_COLOR);
+        g2d.fillRect((int)snapshot.getFunnelLeftX(), drainY,
+                (int)(snapshot.getFunnelRightX() - snapshot.getFunnelLeftX()),
+                (int)Math.ceil(view.getWorldHeight()) - drainY);
+    }
+
+    private Polygon getPolygon(GameSnapshot snapshot) {
         Polygon fieldPolygon = new Polygon();
-        fieldPolygon.addPoint((int)visualizer.getTopLeftX(), (int)visualizer.getTopLeftY());
-        fieldPolygon.addPoint((int)visualizer.getTopRightX(), (int)visualizer.getTopRightY());
-        fieldPolygon.addPoint((int)visualizer.getFunnelRightX(), (int)visualizer.getFunnelRightY());
-        fieldPolygon.addPoint((int)visualizer.getFunnelRightX(),
-                (int)visualizer.getFunnelRightY() + (int)visualizer.getFlipperLength());
-        fieldPolygon.addPoint((int)visualizer.getFunnelLeftX(),
-                (int)visualizer.getFunnelLeftY() + (int)visualizer.getFlipperLength());
-        fieldPolygon.addPoint((int)visualizer.getFunnelLeftX(), (int)visualizer.getFunnelLeftY());
+        fieldPolygon.addPoint((int)snapshot.getTopLeftX(), (int)snapshot.getTopLeftY());
+        fieldPolygon.addPoint((int)snapshot.getTopRightX(), (int)snapshot.getTopRightY());
+        fieldPolygon.addPoint((int)snapshot.getFunnelRightX(), (int)snapshot.getFunnelRightY());
+        fieldPolygon.addPoint((int)snapshot.getFunnelRightX(),
+                (int)snapshot.getFunnelRightY() + (int)snapshot.getFlipperLength());
+        fieldPolygon.addPoint((int)snapshot.getFunnelLeftX(),
+                (int)snapshot.getFunnelLeftY() + (int)snapshot.getFlipperLength());
+        fieldPolygon.addPoint((int)snapshot.getFunnelLeftX(), (int)snapshot.getFunnelLeftY());
         return fieldPolygon;
     }
 
-    private void drawBall(Graphics2D g2d) {
+    private void drawBall(Graphics2D g2d, GameSnapshot snapshot) {
         double ballRadius = visualizer.getBallRadius();
+        double alpha = visualizer.getInterpolationAlpha();
+        for (int i = 0, n = snapshot.getBallCount(); i < n; i++) {
+            if (snapshot.isBallActive(i)) {
+                drawBall(g2d, snapshot.getInterpolatedBallX(i, alpha),
+                        snapshot.getInterpolatedBallY(i, alpha), ballRadius);
+            }
+        }
+    }
+
+    private void drawBall(Graphics2D g2d, double ballX, double ballY, double ballRadius) {
+        ballShape.setFrame(ballX - ballRadius, ballY - ballRadius, ballRadius * 2, ballRadius * 2);
         g2d.setColor(Color.YELLOW);
-        g2d.fillOval(
-                (int)(visualizer.getBallPositionX() - ballRadius),
-                (int)(visualizer.getBallPositionY() - ballRadius),
-                (int)(ballRadius * 2),
-                (int)(ballRadius * 2)
-        );
+        g2d.fill(ballShape);
 
         g2d.setColor(Color.ORANGE);
-        g2d.drawOval(
-                (int)(visualizer.getBallPositionX() - ballRadius),
-                (int)(visualizer.getBallPositionY() - ballRadius),
-                (int)(ballRadius * 2),
-                (int)(ballRadius * 2)
-        );
+        g2d.draw(ballShape);
     }
 
-    private void drawFlippers(Graphics2D g2d) {
+    private void drawFlippers(Graphics2D g2d, GameSnapshot snapshot) {
         AffineTransform oldTransform = g2d.getTransform();
 
-        drawFlipper(g2d, visualizer.getLeftFlipperPivotX(), visualizer.getLeftFlipperPivotY(),
-                visualizer.getLeftFlipperAngle(), visualizer.isLeftFlipperActive(), true);
+        drawFlipper(g2d, snapshot, snapshot.getLeftFlipperPivotX(), snapshot.getLeftFlipperPivotY(),
+                snapshot.getLeftFlipperAngle(), snapshot.isLeftFlipperActive(), true);
 
-        drawFlipper(g2d, visualizer.getRightFlipperPivotX(), visualizer.getRightFlipperPivotY(),
-                visualizer.getRightFlipperAngle(), visualizer.isRightFlipperActive(), false);
+        drawFlipper(g2d, snapshot, snapshot.getRightFlipperPivotX(), snapshot.getRightFlipperPivotY(),
+                snapshot.getRightFlipperAngle(), snapshot.isRightFlipperActive(), false);
 
         g2d.setTransform(oldTransform);
     }
 
-    private void drawFlipper(Graphics2D g2d, double pivotX, double pivotY,
+    //размеры флиппера тоже из снимка: перезагрузка стола меняет контроллер на потоке физики
+    private void drawFlipper(Graphics2D g2d, GameSnapshot snapshot, double pivotX, double pivotY,
                              double angle, boolean isActive, boolean isLeftFlipper) {
 
-        double flipperWidth = visualizer.getFlipperWidth();
+        double flipperWidth = snapshot.getFlipperWidth();
+
+        FlipperController.calculateFlipperEndPoint(
+                pivotX, pivotY, angle, isLeftFlipper, snapshot.getFlipperLength(), flipperEndPoint);
 
-        double[] endPoint = visualizer.getFlipperController().calculateFlipperEndPoint(
-                pivotX, pivotY, angle, isLeftFlipper);
+        double endX = flipperEndPoint.x;
+        double endY = flipperEndPoint.y;
 
-        double endX = endPoint[0];
-        double endY = endPoint[1];
+        if (flipperWidth != flipperStrokeWidth) {
+            flipperStroke = new BasicStroke((float)flipperWidth,
+                    BasicStroke.CAP_ROUND,
+                    BasicStroke.JOIN_ROUND);
+            flipperStrokeWidth = flipperWidth;
+        }
 
         g2d.setColor(isActive ? Color.CYAN : Color.GRAY);
-        g2d.setStroke(new BasicStroke((float)flipperWidth,
-                BasicStroke.CAP_ROUND,
-                BasicStroke.JOIN_ROUND));
-        g2d.drawLine((int)pivotX, (int)pivotY, (int)endX, (int)endY);
+        g2d.setStroke(flipperStroke);
+        flipperShape.setLine(pivotX, pivotY, endX, endY);
+        g2d.draw(flipperShape);
 
-        g2d.setStroke(new BasicStroke(1.0f));
+        g2d.setStroke(DEFAULT_STROKE);
 
         g2d.setColor(Color.RED);
         g2d.fillOval((int)pivotX - 3, (int)pivotY - 3, 6, 6);
     }
 
-    private void drawInfo(Graphics2D g2d) {
+    //подсказка не меняется и входит в неподвижный слой
+    private void drawHelp(Graphics2D g2d) {
         g2d.setColor(Color.WHITE);
         g2d.drawString("Управление: ←/A - левый флиппер, →/D - правый флиппер", 10, 20);
-        g2d.drawString("Пробел - запуск шарика, R - сброс, F - полноэкранный режим", 10, 40);
+        g2d.drawString("Пробел - запуск шарика, M - мультибол, P - пауза, R - сброс, F - полноэкранный режим, F3 - метрики",
+                10, 40);
+    }
+
+    private void drawInfo(Graphics2D g2d, GameSnapshot snapshot) {
+        g2d.setColor(Color.WHITE);
         g2d.drawString(String.format("Скорость: X=%.1f Y=%.1f",
-                visualizer.getBallVelocityX(), visualizer.getBallVelocityY()), 10, 60);
-        g2d.drawString(String.format("Счет: %d", visualizer.getScore()), 10, 80);
-        g2d.drawString(String.format("Жизни: %d", visualizer.getLives()), 10, 100);
+                snapshot.getBallVelocityX(), snapshot.getBallVelocityY()), 10, 60);
+        g2d.drawString(String.format("Счет: %d", snapshot.getScore()), 10, 80);
+        g2d.drawString(String.format("Жизни: %d", snapshot.getLives()), 10, 100);
+        if (frameMillis > 0) {
+            g2d.drawString(String.format("Кадр: %.1f мс (%.0f FPS)%s", frameMillis, 1000 / frameMillis,
+                    visualizer.isActiveRendering() ? ", активная отрисовка" : ""), 10, 120);
+        }
+        if (metricsOverlayVisible) {
+            drawMetricsOverlay(g2d);
+        }
 
-        if (visualizer.isBallLost()) {
-            if (visualizer.getLives() > 0) {
+        if (snapshot.getGameState() == GameState.PAUSED) {
+            g2d.setColor(Color.YELLOW);
+            g2d.drawString("Пауза. Нажмите P для продолжения",
+                    visualizer.getWidth() / 2 - 100, visualizer.getHeight() / 2);
+        } else if (snapshot.isBallLost()) {
+            if (snapshot.getLives() > 0) {
                 g2d.setColor(Color.YELLOW);
                 g2d.drawString("Шарик потерян! Нажмите ПРОБЕЛ для продолжения",
                         visualizer.getWidth() / 2 - 150, visualizer.getHeight() / 2);
             } else {
                 g2d.setColor(Color.RED);
-                g2d.drawString("ИГРА ОКОНЧЕНА! Финальный счет: " + visualizer.getScore(),
+                g2d.drawString("ИГРА ОКОНЧЕНА! Финальный счет: " + snapshot.getScore(),
                         visualizer.getWidth() / 2 - 100, visualizer.getHeight() / 2);
             }
         }
     }
 
-    private void drawTargetsAndBumpers(Graphics2D g2d) {
-        for (Target target : visualizer.getTargets()) {
-            target.draw(g2d);
+    private void drawMetricsOverlay(Graphics2D g2d) {
+        long now = System.nanoTime();
+        if (now - metricsLinesNanos >= METRICS_REFRESH_NANOS || metricsLinesNanos == Long.MIN_VALUE) {
+            metricsLines = formatMetrics();
+            metricsLinesNanos = now;
+        }
+        g2d.setColor(METRICS_COLOR);
+        int y = METRICS_OVERLAY_Y + 15;
+        for (String line : metricsLines) {
+            g2d.drawString(line, 10, y);
+            y += 20;
+        }
+    }
+
+    private String[] formatMetrics() {
+        Histogram ticks = metrics.getTickHistogram();
+        Histogram renders = metrics.getRenderHistogram();
+        Histogram checks = metrics.getCollisionChecksHistogram();
+        return new String[]{
+                String.format("Шаг физики: ср %.3f, p99 %.3f, макс %.3f мс",
+                        ticks.getMean() / 1e6, ticks.getValueAtPercentile(99) / 1e6, ticks.getMax() / 1e6),
+                String.format("Отрисовка: ср %.2f, p99 %.2f, макс %.2f мс",
+                        renders.getMean() / 1e6, renders.getValueAtPercentile(99) / 1e6, renders.getMax() / 1e6),
+                String.format("FPS: %.0f, кадров %d", metrics.getFramesPerSecond(), renders.getCount()),
+                String.format("Шагов: %d, пропущено %d", ticks.getCount(), metrics.getMissedTicks()),
+                String.format("Проверок столкновений за шаг: ср %.1f, p99 %d",
+                        checks.getMean(), checks.getValueAtPercentile(99))
+        };
+    }
+
+    private void drawTargetsAndBumpers(Graphics2D g2d, GameSnapshot snapshot) {
+        //подсветка берётся из снимка: живые объекты в это время меняет поток физики
+        Target[] targets = snapshot.getTargets();
+        for (int i = 0; i < targets.length; i++) {
+            targets[i].draw(g2d, snapshot.isTargetLit(i));
         }
 
-        for (Bumper bumper : visualizer.getBumpers()) {
-            bumper.draw(g2d);
+        Bumper[] bumpers = snapshot.getBumpers();
+        for (int i = 0; i < bumpers.length; i++) {
+            bumpers[i].draw(g2d, snapshot.isBumperLit(i));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package gui.game;
+
+import log.LogCategory;
+import log.Logger;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+//общий планировщик игровых циклов: вместо потока на каждый стол несколько рабочих потоков ведут все столы.
+//за проход рабочий поток продвигает свои столы с одним и тем же моментом времени, а потом спит
+//до ближайшего шага или кадра; простаивающие столы его не будят, пока не придёт ввод.
+//поток без столов завершается, так что закрытие последнего окна освобождает все потоки.
+//стол, упавший с исключением, останавливается один, остальные столы потока продолжают игру
+public class GameScheduler {
+    private static GameScheduler shared;
+
+    private final Worker[] m_workers;
+
+    public GameScheduler(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Число потоков планировщика должно быть положительным: " + threads);
+        }
+        m_workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            m_workers[i] = new Worker("game scheduler " + i);
+        }
+    }
+
+    //-Dpinball.schedulerThreads задаёт число потоков, по умолчанию - по числу ядер, но не больше 4
+    public static synchronized GameScheduler getShared() {
+        if (shared == null) {
+            int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+            shared = new GameScheduler(Integer.getInteger("pinball.schedulerThreads", threads));
+        }
+        return shared;
+    }
+
+    //стол достаётся наименее загруженному потоку и остаётся за ним до detach
+    synchronized void attach(GameLoop loop) {
+        Worker worker = m_workers[0];
+        for (Worker candidate : m_workers) {
+            if (candidate.m_loops.size() < worker.m_loops.size()) {
+                worker = candidate;
+            }
+        }
+        worker.m_loops.add(loop);
+        worker.start();
+        loop.setDriver(worker.m_thread);
+        LockSupport.unpark(worker.m_thread);
+    }
+
+    synchronized void detach(GameLoop loop) {
+        for (Worker worker : m_workers) {
+            //поток, оставшийся без столов, просыпается и завершается
+            if (worker.m_loops.remove(loop) && worker.m_loops.isEmpty() && worker.m_thread != null) {
+                LockSupport.unpark(worker.m_thread);
+            }
+        }
+    }
+
+    //поток завершается, только если за это время ему не дали новый стол
+    private synchronized boolean retire(Worker worker) {
+        if (!worker.m_loops.isEmpty()) {
+            return false;
+        }
+        worker.m_running = false;
+        return true;
+    }
+
+    //поток, завершившийся по любой причине, будет запущен заново при следующем attach
+    private synchronized void exited(Worker worker) {
+        if (worker.m_thread == Thread.currentThread()) {
+            worker.m_running = false;
+        }
+    }
+
+    public int getThreadCount() { return m_workers.length; }
+
+    public synchronized int getTableCount() {
+        int count = 0;
+        for (Worker worker : m_workers) {
+            count += worker.m_loops.size();
+        }
+        return count;
+    }
+
+    //сколько рабочих потоков сейчас живо
+    public synchronized int getLiveThreadCount() {
+        int count = 0;
+        for (Worker worker : m_workers) {
+            if (worker.m_thread != null && worker.m_thread.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //сколько проходов сделали все потоки: при простое всех столов число не растёт
+    public long getPassCount() {
+        long count = 0;
+        for (Worker worker : m_workers) {
+            count += worker.m_passCount;
+        }
+        return count;
+    }
+
+    private final class Worker {
+        private final String m_name;
+        private final CopyOnWriteArrayList<GameLoop> m_loops = new CopyOnWriteArrayList<>();
+        //поток и флаг меняются под блокировкой планировщика
+        private Thread m_thread;
+        private boolean m_running;
+        private volatile long m_passCount;
+
+        Worker(String name) {
+            m_name = name;
+        }
+
+        //поток запускается с первым столом и завершается, когда столов не остаётся
+        void start() {
+            if (!m_running) {
+                m_running = true;
+                m_thread = new Thread(this::run, m_name);
+                m_thread.setDaemon(true);
+                //столы, оставшиеся от упавшего потока, будит уже новый поток
+                for (GameLoop loop : m_loops) {
+                    loop.setDriver(m_thread);
+                }
+                m_thread.start();
+            }
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    if (m_loops.isEmpty() && retire(this)) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    long wakeNanos = GameLoop.IDLE;
+                    for (GameLoop loop : m_loops) {
+                        wakeNanos = Math.min(wakeNanos, advance(loop, now));
+                    }
+                    m_passCount++;
+                    if (wakeNanos == GameLoop.IDLE) {
+                        LockSupport.park(this);
+                        continue;
+                    }
+                    long sleepNanos = wakeNanos - System.nanoTime();
+                    if (sleepNanos > 0) {
+                        LockSupport.parkNanos(this, sleepNanos);
+                    }
+                }
+            } finally {
+                exited(this);
+            }
+        }
+
+        //ошибка одного стола не должна останавливать соседей по потоку
+        private long advance(GameLoop loop, long now) {
+            try {
+                return loop.advanceScheduled(now);
+            } catch (RuntimeException e) {
+                Logger.error(LogCategory.Game, "Стол остановлен из-за ошибки: " + e);
+                loop.stop();
+                return GameLoop.IDLE;
+            }
+        }
+    }
+}
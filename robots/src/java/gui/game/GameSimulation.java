@@ -0,0 +1,439 @@
+package gui.game;
+
+import log.LogCategory;
+import log.Logger;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+//ядро игры без Swing: состояние стола + шаг физики фиксированной длины
+public class GameSimulation {
+    //базовая длина шага физики, все скорости заданы в пикселях за базовый шаг
+    public static final double TICK_MILLIS = 16;
+    //размер стола в единицах мира; окно только масштабирует его (см. WorldView), физика от окна не зависит
+    public static final int WORLD_WIDTH = 800;
+    public static final int WORLD_HEIGHT = 600;
+
+    private final TableState m_state;
+    private final GamePhysics m_physics;
+    private final FlipperController m_flipperController;
+    private final SnapshotBuffer m_snapshots = new SnapshotBuffer();
+    private final GameMetrics m_metrics = new GameMetrics();
+    private final CollisionStatistics m_collisionStatistics = new CollisionStatistics();
+    private TableLayout m_layout = TableLayout.defaultLayout();
+    //стол, присланный из другого потока (перезагрузка файла), применяется в начале ближайшего шага
+    private final AtomicReference<TableLayout> m_pendingLayout = new AtomicReference<>();
+
+    //благодаря непрерывной проверке столкновений шаг можно увеличить без проскоков
+    private double m_tickMillis = TICK_MILLIS;
+    private double m_accumulatedMillis = 0;
+    private long m_tickCount = 0;
+    private int m_width;
+    private int m_height;
+
+    //весь случайный разброс идёт из одного генератора, чтобы сеанс можно было повторить по зерну
+    private final Random m_random = new Random();
+    private long m_seed;
+    //ввод из других потоков копится здесь и применяется в начале ближайшего шага
+    private final Queue<GameInput> m_pendingInputs = new ConcurrentLinkedQueue<>();
+    private SessionRecorder m_recorder;
+    private long m_recordingStartTick;
+    //будит игровой цикл, уснувший в простое, когда из другого потока пришёл ввод или новый стол
+    private volatile Runnable m_wakeUp;
+
+    public GameSimulation() {
+        m_state = new TableState();
+        m_flipperController = new FlipperController(m_state);
+        m_physics = new GamePhysics(m_state, m_flipperController);
+        CollisionEvents events = m_physics.getCollisionEvents();
+        events.addListener(new CollisionScoring(m_state));
+        events.addListener(new CollisionLogger(m_state));
+        events.addListener(m_collisionStatistics);
+        setSeed(System.nanoTime());
+        m_snapshots.publish(m_state, m_tickCount);
+    }
+
+    public GameSimulation(int width, int height) {
+        this();
+        resize(width, height);
+        m_snapshots.publish(m_state, m_tickCount);
+    }
+
+    //перестроение стола под новый размер мира; при изменении окна не вызывается
+    public synchronized void resize(int width, int height) {
+        m_width = width;
+        m_height = height;
+        if (m_recorder != null) {
+            try {
+                m_recorder.recordResize(m_tickCount - m_recordingStartTick, width, height);
+            } catch (IOException e) {
+                abortRecording(e);
+            }
+        }
+
+        buildTable();
+        resetBallPosition();
+    }
+
+    //для других потоков: отрисовка и трекер областей читают стол между шагами, поэтому он меняется в шаге
+    public void submitLayout(TableLayout layout) {
+        m_pendingLayout.set(layout);
+        wakeUp();
+    }
+
+    //смена стола на ходу: шарики остаются где были, меняются только препятствия
+    //во время записи смена стола попадает в журнал и применяется при воспроизведении перед тем же шагом
+    public synchronized void setLayout(TableLayout layout) {
+        if (m_recorder != null) {
+            try {
+                m_recorder.recordLayout(m_tickCount - m_recordingStartTick, layout);
+            } catch (IOException e) {
+                abortRecording(e);
+            }
+        }
+        m_layout = layout;
+        m_flipperController.configure(layout.getFlippers());
+        buildTable();
+        Logger.debug(LogCategory.Game, "Стол загружен: мишеней " + layout.getTargets().size()
+                + ", бамперов " + layout.getBumpers().size());
+    }
+
+    public synchronized TableLayout getLayout() {
+        return m_layout;
+    }
+
+    //раскладка стола под текущие размеры поля
+    private void buildTable() {
+        int borderMargin = TableState.BORDER_MARGIN;
+        int fieldWidth = m_width - borderMargin * 2;
+        int fieldHeight = m_height - borderMargin * 2;
+        m_state.setFieldSize(fieldWidth, fieldHeight);
+
+        m_state.setTop(borderMargin, borderMargin, borderMargin + fieldWidth, borderMargin);
+
+        //воронка
+        double funnelWidth = m_layout.getFunnelWidth();
+        double funnelHeight = fieldHeight * m_layout.getFunnelHeight();
+        double funnelY = borderMargin + fieldHeight - funnelHeight;
+
+        m_state.setFunnel(borderMargin + (fieldWidth - funnelWidth) / 2, funnelY,
+                borderMargin + (fieldWidth + funnelWidth) / 2, funnelY);
+
+        //флиперы
+        double centerX = borderMargin + fieldWidth / 2.0;
+        m_state.setLeftFlipperPivot(centerX - funnelWidth / 2, funnelY);
+        m_state.setRightFlipperPivot(centerX + funnelWidth / 2, funnelY);
+        m_state.setFlipperSize(m_layout.getFlippers().getLength(), m_layout.getFlippers().getWidth());
+
+        initializeTargets();
+        initializeBumpers();
+        m_state.incrementLayoutVersion();
+        m_physics.rebuildBroadPhase();
+    }
+
+    //один шаг физики; в конце шага состояние публикуется снимком для отрисовки
+    public synchronized void tick() {
+        TableLayout layout = m_pendingLayout.getAndSet(null);
+        if (layout != null) {
+            setLayout(layout);
+        }
+        GameInput input;
+        while ((input = m_pendingInputs.poll()) != null) {
+            if (m_recorder != null) {
+                try {
+                    m_recorder.recordInput(m_tickCount - m_recordingStartTick, input);
+                } catch (IOException e) {
+                    abortRecording(e);
+                }
+            }
+            applyInput(input);
+        }
+
+        if (m_state.getGameState() == GameState.PLAYING && !m_state.isBallLost()) {
+            long checksBefore = m_physics.getCollisionChecks();
+            m_physics.getCollisionEvents().setTick(m_tickCount);
+            m_physics.updatePhysics();
+            m_physics.checkCollisions();
+            m_physics.getCollisionEvents().dispatch();
+            m_metrics.recordCollisionChecks(m_physics.getCollisionChecks() - checksBefore);
+        }
+        if (m_state.getGameState() != GameState.PAUSED) {
+            m_flipperController.updateFlippers(m_physics.getTimeStep());
+        }
+        m_tickCount++;
+        m_snapshots.publish(m_state, m_tickCount);
+    }
+
+    //продвигает симуляцию на dtMillis, выполняя целое число шагов; возвращает их количество
+    public int step(double dtMillis) {
+        m_accumulatedMillis += dtMillis;
+        int ticks = 0;
+        while (m_accumulatedMillis >= m_tickMillis) {
+            tick();
+            m_accumulatedMillis -= m_tickMillis;
+            ticks++;
+        }
+        return ticks;
+    }
+
+    //ввод, который попадает в журнал сеанса; можно вызывать из любого потока
+    public void submitInput(GameInput input) {
+        m_pendingInputs.add(input);
+        wakeUp();
+    }
+
+    public void setWakeUp(Runnable wakeUp) {
+        m_wakeUp = wakeUp;
+    }
+
+    private void wakeUp() {
+        Runnable wakeUp = m_wakeUp;
+        if (wakeUp != null) {
+            wakeUp.run();
+        }
+    }
+
+    //шаг ничего бы не изменил: шарики стоят (нет игры, пауза или шарик потерян), флипперы на месте
+    //или заморожены паузой, ввода и нового стола нет; вызывается из потока шагов
+    public boolean isIdle() {
+        GameState gameState = m_state.getGameState();
+        boolean ballsMoving = gameState == GameState.PLAYING && !m_state.isBallLost();
+        boolean flippersMoving = gameState != GameState.PAUSED && !m_flipperController.isSettled();
+        return !ballsMoving && !flippersMoving && m_pendingInputs.isEmpty() && m_pendingLayout.get() == null;
+    }
+
+    private void applyInput(GameInput input) {
+        switch (input) {
+            case LEFT_FLIPPER_DOWN:
+                m_state.setLeftFlipperActive(true);
+                break;
+            case LEFT_FLIPPER_UP:
+                m_state.setLeftFlipperActive(false);
+                break;
+            case RIGHT_FLIPPER_DOWN:
+                m_state.setRightFlipperActive(true);
+                break;
+            case RIGHT_FLIPPER_UP:
+                m_state.setRightFlipperActive(false);
+                break;
+            case START:
+                startGame();
+                break;
+            case LAUNCH:
+                launchBall();
+                break;
+            case RESET:
+                resetGame();
+                break;
+            case ADD_BALL:
+                addBall();
+                break;
+            case TOGGLE_PAUSE:
+                if (m_state.getGameState() == GameState.PAUSED) {
+                    resume();
+                } else {
+                    pause();
+                }
+                break;
+            case PAUSE:
+                pause();
+                break;
+        }
+    }
+
+    //начинает запись с известного состояния: стол перестраивается, игра сбрасывается, зерно новое
+    public synchronized void startRecording(SessionRecorder recorder) throws IOException {
+        stopRecording();
+        beginSession(System.nanoTime());
+        recorder.writeHeader(m_seed, m_tickMillis, m_width, m_height, m_layout);
+        m_recorder = recorder;
+        m_recordingStartTick = m_tickCount;
+        Logger.debug(LogCategory.Game, "Запись сеанса начата, зерно " + m_seed);
+    }
+
+    public void startRecording(Path file) throws IOException {
+        startRecording(SessionRecorder.create(file));
+    }
+
+    public synchronized void stopRecording() {
+        SessionRecorder recorder = m_recorder;
+        if (recorder == null) {
+            return;
+        }
+        m_recorder = null;
+        try {
+            recorder.finish(m_tickCount - m_recordingStartTick);
+            Logger.debug(LogCategory.Game, "Запись сеанса завершена");
+        } catch (IOException e) {
+            Logger.error(LogCategory.Game, "Ошибка записи сеанса: " + e.getMessage());
+        }
+    }
+
+    private void abortRecording(IOException e) {
+        Logger.error(LogCategory.Game, "Ошибка записи сеанса, запись остановлена: " + e.getMessage());
+        SessionRecorder recorder = m_recorder;
+        m_recorder = null;
+        try {
+            recorder.close();
+        } catch (IOException ignored) {
+            //журнал уже испорчен
+        }
+    }
+
+    //одинаковое начало для записи и воспроизведения
+    synchronized void beginSession(long seed) {
+        setSeed(seed);
+        m_pendingInputs.clear();
+        m_accumulatedMillis = 0;
+        resize(m_width, m_height);
+        m_flipperController.resetFlippers();
+        resetGame();
+    }
+
+    public synchronized boolean isRecording() { return m_recorder != null; }
+
+    //пробел: новая игра или следующий шарик
+    public void startGame() {
+        GameState gameState = m_state.getGameState();
+        if (gameState == GameState.READY || gameState == GameState.GAME_OVER) {
+            //new
+            m_state.setScore(0);
+            m_state.setLives(TableState.INITIAL_LIVES);
+            resetBallPosition();
+            m_state.setGameState(GameState.PLAYING);
+            launchBall();
+            Logger.debug(LogCategory.Game, "Игра началась!");
+        }
+        else if (gameState == GameState.PLAYING && m_state.isBallLost()) {
+            //old
+            if (m_state.getLives() > 0) {
+                resetBallPosition();
+                launchBall();
+                Logger.debug(LogCategory.Game, "Продолжение игры. Осталось жизней: " + m_state.getLives());
+            }
+        }
+    }
+
+    //пауза возможна только во время игры; шарики и флипперы замирают до продолжения
+    public void pause() {
+        if (m_state.getGameState() == GameState.PLAYING) {
+            m_state.setGameState(GameState.PAUSED);
+            Logger.debug(LogCategory.Game, "Пауза");
+        }
+    }
+
+    public void resume() {
+        if (m_state.getGameState() == GameState.PAUSED) {
+            m_state.setGameState(GameState.PLAYING);
+            Logger.debug(LogCategory.Game, "Игра продолжена");
+        }
+    }
+
+    public void launchBall() {
+        if (m_state.getGameState() == GameState.PLAYING && !m_state.isBallLost()) {
+            m_state.setBallVelocityX((m_random.nextDouble() - 0.5) * 8);
+            m_state.setBallVelocityY(-m_random.nextDouble() * 6 - 3);
+            Logger.debug(LogCategory.Game, "Шарик запущен!");
+        }
+    }
+
+    public void resetGame() {
+        m_state.setGameState(GameState.READY);
+        m_state.setScore(0);
+        m_state.setLives(TableState.INITIAL_LIVES);
+        resetBallPosition();
+        Logger.debug(LogCategory.Game, "Игра сброшена");
+    }
+
+    //мультибол: дополнительный шарик из точки старта, возвращает его индекс или -1
+    public int addBall() {
+        if (m_state.getGameState() != GameState.PLAYING || m_state.isBallLost()) {
+            return -1;
+        }
+        int index = m_state.getBalls().add(getStartX(), getStartY(),
+                (m_random.nextDouble() - 0.5) * 8, -m_random.nextDouble() * 6 - 3);
+        Logger.debug(LogCategory.Game, "Мультибол! Шариков на столе: " + m_state.getBalls().getActiveCount());
+        return index;
+    }
+
+    // изменение позиции шарика
+    private void resetBallPosition() {
+        m_state.getBalls().resetToSingle(getStartX(), getStartY());
+        m_state.setBallLost(false);
+    }
+
+    private double getStartX() {
+        return TableState.BORDER_MARGIN + m_state.getFieldWidth() / 2.0;
+    }
+
+    private double getStartY() {
+        return TableState.BORDER_MARGIN + m_state.getFieldHeight() / 3.0;
+    }
+
+    private void initializeTargets() {
+        int borderMargin = TableState.BORDER_MARGIN;
+        int fieldWidth = m_state.getFieldWidth();
+        int fieldHeight = m_state.getFieldHeight();
+
+        java.util.List<Target> targets = m_state.getTargets();
+        targets.clear();
+
+        for (TableLayout.TargetSpec spec : m_layout.getTargets()) {
+            targets.add(new Target(
+                    borderMargin + fieldWidth * spec.getX(),
+                    borderMargin + fieldHeight * spec.getY(),
+                    spec.getWidth(), spec.getHeight(), new Color(spec.getColor()),
+                    spec.getPoints(), spec.getBounceStrength()
+            ));
+        }
+    }
+
+    private void initializeBumpers() {
+        int borderMargin = TableState.BORDER_MARGIN;
+        int fieldWidth = m_state.getFieldWidth();
+        int fieldHeight = m_state.getFieldHeight();
+
+        java.util.List<Bumper> bumpers = m_state.getBumpers();
+        bumpers.clear();
+
+        for (TableLayout.BumperSpec spec : m_layout.getBumpers()) {
+            bumpers.add(new Bumper(
+                    borderMargin + fieldWidth * spec.getX(),
+                    borderMargin + fieldHeight * spec.getY(),
+                    spec.getRadius(), new Color(spec.getColor()), spec.getPoints(), spec.getBounceStrength()
+            ));
+        }
+    }
+
+    public void setTickMillis(double tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Длина шага должна быть положительной: " + tickMillis);
+        }
+        m_tickMillis = tickMillis;
+        m_physics.setTimeStep(tickMillis / TICK_MILLIS);
+    }
+
+    public double getTickMillis() { return m_tickMillis; }
+
+    public void setSeed(long seed) {
+        m_seed = seed;
+        m_random.setSeed(seed);
+    }
+
+    public long getSeed() { return m_seed; }
+
+    public TableState getState() { return m_state; }
+    public GamePhysics getPhysics() { return m_physics; }
+    public int getWorldWidth() { return m_width; }
+    public int getWorldHeight() { return m_height; }
+    public CollisionStatistics getCollisionStatistics() { return m_collisionStatistics; }
+    public FlipperController getFlipperController() { return m_flipperController; }
+    public long getTickCount() { return m_tickCount; }
+    public SnapshotBuffer getSnapshots() { return m_snapshots; }
+    public GameMetrics getMetrics() { return m_metrics; }
+}
@@ -0,0 +1,163 @@
+package gui.game;
+
+//копия состояния стола на момент одного шага физики; заполняет её только поток физики,
+//а после публикации в SnapshotBuffer она принадлежит потоку отрисовки
+public final class GameSnapshot {
+    private double[] m_ballX = new double[BallStore.DEFAULT_CAPACITY];
+    private double[] m_ballY = new double[BallStore.DEFAULT_CAPACITY];
+    private double[] m_prevBallX = new double[BallStore.DEFAULT_CAPACITY];
+    private double[] m_prevBallY = new double[BallStore.DEFAULT_CAPACITY];
+    private boolean[] m_ballActive = new boolean[BallStore.DEFAULT_CAPACITY];
+    private int m_ballCount;
+    private double m_ballVelocityX;
+    private double m_ballVelocityY;
+
+    private double m_leftFlipperAngle;
+    private double m_rightFlipperAngle;
+    private double m_leftFlipperPivotX, m_leftFlipperPivotY;
+    private double m_rightFlipperPivotX, m_rightFlipperPivotY;
+    private boolean m_leftFlipperActive;
+    private boolean m_rightFlipperActive;
+    private double m_flipperLength, m_flipperWidth;
+
+    private GameState m_gameState = GameState.READY;
+    private int m_score;
+    private int m_lives;
+    private boolean m_ballLost;
+    private long m_tick;
+
+    private int m_fieldWidth, m_fieldHeight;
+    private double m_topLeftX, m_topLeftY;
+    private double m_topRightX, m_topRightY;
+    private double m_funnelLeftX, m_funnelLeftY;
+    private double m_funnelRightX, m_funnelRightY;
+
+    //геометрия объектов стола копируется только после перестроения стола, а подсветка - на каждом шаге
+    private Target[] m_targets = new Target[0];
+    private Bumper[] m_bumpers = new Bumper[0];
+    private boolean[] m_targetLit = new boolean[0];
+    private boolean[] m_bumperLit = new boolean[0];
+    private int m_layoutVersion = -1;
+
+    void copyFrom(TableState state, long tick) {
+        BallStore balls = state.getBalls();
+        int count = balls.count;
+        if (m_ballX.length < count) {
+            int capacity = balls.getCapacity();
+            m_ballX = new double[capacity];
+            m_ballY = new double[capacity];
+            m_prevBallX = new double[capacity];
+            m_prevBallY = new double[capacity];
+            m_ballActive = new boolean[capacity];
+        }
+        System.arraycopy(balls.x, 0, m_ballX, 0, count);
+        System.arraycopy(balls.y, 0, m_ballY, 0, count);
+        System.arraycopy(balls.prevX, 0, m_prevBallX, 0, count);
+        System.arraycopy(balls.prevY, 0, m_prevBallY, 0, count);
+        System.arraycopy(balls.active, 0, m_ballActive, 0, count);
+        m_ballCount = count;
+        //скорость в строке состояния - первого шарика в игре; слот ушедшего шарика хранит старые значения
+        m_ballVelocityX = 0;
+        m_ballVelocityY = 0;
+        for (int i = 0; i < count; i++) {
+            if (balls.active[i]) {
+                m_ballVelocityX = balls.vx[i];
+                m_ballVelocityY = balls.vy[i];
+                break;
+            }
+        }
+
+        m_leftFlipperAngle = state.getLeftFlipperAngle();
+        m_rightFlipperAngle = state.getRightFlipperAngle();
+        m_leftFlipperPivotX = state.getLeftFlipperPivotX();
+        m_leftFlipperPivotY = state.getLeftFlipperPivotY();
+        m_rightFlipperPivotX = state.getRightFlipperPivotX();
+        m_rightFlipperPivotY = state.getRightFlipperPivotY();
+        m_leftFlipperActive = state.isLeftFlipperActive();
+        m_rightFlipperActive = state.isRightFlipperActive();
+
+        m_gameState = state.getGameState();
+        m_score = state.getScore();
+        m_lives = state.getLives();
+        m_ballLost = state.isBallLost();
+        m_tick = tick;
+
+        m_fieldWidth = state.getFieldWidth();
+        m_fieldHeight = state.getFieldHeight();
+        m_topLeftX = state.getTopLeftX();
+        m_topLeftY = state.getTopLeftY();
+        m_topRightX = state.getTopRightX();
+        m_topRightY = state.getTopRightY();
+        m_funnelLeftX = state.getFunnelLeftX();
+        m_funnelLeftY = state.getFunnelLeftY();
+        m_funnelRightX = state.getFunnelRightX();
+        m_funnelRightY = state.getFunnelRightY();
+
+        if (m_layoutVersion != state.getLayoutVersion()) {
+            m_layoutVersion = state.getLayoutVersion();
+            m_flipperLength = state.getFlipperLength();
+            m_flipperWidth = state.getFlipperWidth();
+            m_targets = state.getTargets().toArray(new Target[0]);
+            m_bumpers = state.getBumpers().toArray(new Bumper[0]);
+            m_targetLit = new boolean[m_targets.length];
+            m_bumperLit = new boolean[m_bumpers.length];
+        }
+        for (int i = 0; i < m_targets.length; i++) {
+            m_targetLit[i] = m_targets[i].isLit();
+        }
+        for (int i = 0; i < m_bumpers.length; i++) {
+            m_bumperLit[i] = m_bumpers[i].isLit();
+        }
+    }
+
+    public int getBallCount() { return m_ballCount; }
+    public boolean isBallActive(int index) { return m_ballActive[index]; }
+    public double getBallX(int index) { return m_ballX[index]; }
+    public double getBallY(int index) { return m_ballY[index]; }
+
+    //alpha = 0 - положение до шага, alpha = 1 - после
+    public double getInterpolatedBallX(int index, double alpha) {
+        return m_prevBallX[index] + (m_ballX[index] - m_prevBallX[index]) * alpha;
+    }
+
+    public double getInterpolatedBallY(int index, double alpha) {
+        return m_prevBallY[index] + (m_ballY[index] - m_prevBallY[index]) * alpha;
+    }
+
+    public double getBallVelocityX() { return m_ballVelocityX; }
+    public double getBallVelocityY() { return m_ballVelocityY; }
+
+    public double getLeftFlipperAngle() { return m_leftFlipperAngle; }
+    public double getRightFlipperAngle() { return m_rightFlipperAngle; }
+    public double getLeftFlipperPivotX() { return m_leftFlipperPivotX; }
+    public double getLeftFlipperPivotY() { return m_leftFlipperPivotY; }
+    public double getRightFlipperPivotX() { return m_rightFlipperPivotX; }
+    public double getRightFlipperPivotY() { return m_rightFlipperPivotY; }
+    public boolean isLeftFlipperActive() { return m_leftFlipperActive; }
+    public boolean isRightFlipperActive() { return m_rightFlipperActive; }
+    public double getFlipperLength() { return m_flipperLength; }
+    public double getFlipperWidth() { return m_flipperWidth; }
+
+    public GameState getGameState() { return m_gameState; }
+    public int getScore() { return m_score; }
+    public int getLives() { return m_lives; }
+    public boolean isBallLost() { return m_ballLost; }
+    public long getTick() { return m_tick; }
+
+    public int getFieldWidth() { return m_fieldWidth; }
+    public int getFieldHeight() { return m_fieldHeight; }
+    public double getTopLeftX() { return m_topLeftX; }
+    public double getTopLeftY() { return m_topLeftY; }
+    public double getTopRightX() { return m_topRightX; }
+    public double getTopRightY() { return m_topRightY; }
+    public double getFunnelLeftX() { return m_funnelLeftX; }
+    public double getFunnelLeftY() { return m_funnelLeftY; }
+    public double getFunnelRightX() { return m_funnelRightX; }
+    public double getFunnelRightY() { return m_funnelRightY; }
+
+    public int getLayoutVersion() { return m_layoutVersion; }
+    public Target[] getTargets() { return m_targets; }
+    public Bumper[] getBumpers() { return m_bumpers; }
+    public boolean isTargetLit(int index) { return m_targetLit[index]; }
+    public boolean isBumperLit(int index) { return m_bumperLit[index]; }
+}
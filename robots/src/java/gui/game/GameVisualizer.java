@@ -1,96 +1,92 @@
 package gui.game;
 
+import log.LogCategory;
 import log.Logger;
 
 import java.awt.*;
+import java.awt.event.HierarchyEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JPanel;
 
 public class GameVisualizer extends JPanel
 {
-    private static Timer initTimer()
-    {
-        return new Timer("events generator", true);
-    }
-
-    //парамерты шарика
-    private volatile double m_ballPositionX = 300;
-    private volatile double m_ballPositionY = 300;
-    private volatile double m_ballVelocityX = 0;
-    private volatile double m_ballVelocityY = 0;
-
-    private volatile GameState m_gameState = GameState.READY;
-
-    //флиперов
-    private volatile double m_leftFlipperAngle = Math.PI / 6;
-    private volatile double m_rightFlipperAngle = -Math.PI / 6;
-    //точки вращения
-    private double m_leftFlipperPivotX;
-    private double m_leftFlipperPivotY;
-    private double m_rightFlipperPivotX;
-    private double m_rightFlipperPivotY;
-
-    //границы поля
-    private static final int BORDER_MARGIN = 20;
-    private int m_fieldWidth = 500;
-    private int m_fieldHeight = 400;
-
-    //управление
-    private boolean m_leftFlipperActive = false;
-    private boolean m_rightFlipperActive = false;
-    private int m_score = 0;
-    private int m_lives = 3;
-    private boolean m_ballLost = false;
-
-    private double m_topLeftX, m_topLeftY;
-    private double m_topRightX, m_topRightY;
-    private double m_funnelLeftX, m_funnelLeftY;
-    private double m_funnelRightX, m_funnelRightY;
-
-    private final java.util.List<Target> m_targets = new java.util.ArrayList<>();
-    private final java.util.List<Bumper> m_bumpers = new java.util.ArrayList<>();
-
     private Image m_backgroundImage;
 
+    //визуализатор только наблюдает за симуляцией и передаёт ей ввод
+    private final GameSimulation m_simulation;
+    private final TableState m_state;
     private final gui.game.GamePhysics m_physics;
     private final gui.game.FlipperController m_flipperController;
     private final gui.game.GameRenderer m_renderer;
+    private final GameLoop m_gameLoop;
+    //при -Dpinball.activeRendering=true кадры рисует поток цикла на этом холсте, иначе - repaint
+    private final ActiveRenderCanvas m_activeCanvas;
+    private TableLayoutWatcher m_tableWatcher;
+    //0 - основной стол, остальные номера - дополнительные столы аркады
+    private final int m_tableNumber;
+
+    //доля шага физики для интерполяции, выставляется циклом перед перерисовкой
+    private volatile double m_interpolationAlpha = 1;
+    //чтобы не засыпать очередь событий перерисовками, пока предыдущая не выполнена
+    private final AtomicBoolean m_repaintPending = new AtomicBoolean();
+
+    //перерисовываются только изменившиеся области: трекер и m_frameRegion принадлежат потоку цикла,
+    //m_pendingRegion копит области до ближайшей перерисовки, m_paintRegion принадлежит EDT
+    private final DirtyRegionTracker m_dirtyTracker = new DirtyRegionTracker();
+    private final DirtyRegion m_frameRegion = new DirtyRegion();
+    private final DirtyRegion m_pendingRegion = new DirtyRegion();
+    private final DirtyRegion m_paintRegion = new DirtyRegion();
+    //масштаб мира под текущий размер панели; меняется на EDT, читается потоком цикла и отрисовкой
+    private volatile WorldView m_view;
 
 
     public GameVisualizer()
     {
-        m_physics = new gui.game.GamePhysics(this);
-        m_flipperController = new FlipperController(this);
+        this(0);
+    }
+
+    //все столы ведёт общий планировщик, а их перерисовки собираются в одно событие EDT;
+    //у столов аркады нет записи сеанса и слежения за файлом стола, а метрики регистрируются под своим номером
+    public GameVisualizer(int tableNumber)
+    {
+        m_tableNumber = tableNumber;
+        m_simulation = new GameSimulation(GameSimulation.WORLD_WIDTH, GameSimulation.WORLD_HEIGHT);
+        m_state = m_simulation.getState();
+        m_physics = m_simulation.getPhysics();
+        m_flipperController = m_simulation.getFlipperController();
         m_renderer = new GameRenderer(this);
 
         setBackground(Color.BLACK);
-        updateFieldDimensions();
+        updateView();
 
         loadImages();
 
-        Timer m_timer = initTimer();
-        m_timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                onRedrawEvent();
-            }
-        }, 0, 50); // 20 FPS
+        loadTableIfRequested();
 
-        m_timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                onModelUpdateEvent();
-            }
-        }, 0, 16); // 60 FPS для физики
+        m_activeCanvas = Boolean.getBoolean("pinball.activeRendering") ? new ActiveRenderCanvas(m_renderer) : null;
+
+        m_gameLoop = new GameLoop(m_simulation, this::onRedrawEvent);
+        m_gameLoop.setTickMillis(Double.parseDouble(
+                System.getProperty("pinball.tickMillis", String.valueOf(GameSimulation.TICK_MILLIS))));
+        m_gameLoop.setFrameRate(Integer.getInteger("pinball.fps", GameLoop.DEFAULT_FRAME_RATE));
+        m_gameLoop.start(GameScheduler.getShared());
+        if (isArcadeTable()) {
+            m_simulation.getMetrics().registerMBean(GameMetrics.OBJECT_NAME + ",table=" + tableNumber);
+        } else {
+            m_simulation.getMetrics().registerMBean();
+            startRecordingIfRequested();
+        }
 
         setFocusable(true);
-        addKeyListener(new KeyAdapter() {
+        KeyAdapter keyListener = new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
                 handleKeyPress(e.getKeyCode(), true);
@@ -100,275 +96,277 @@ public class GameVisualizer extends JPanel
             public void keyReleased(KeyEvent e) {
                 handleKeyPress(e.getKeyCode(), false);
             }
-        });
+        };
+        addKeyListener(keyListener);
 
         //обработка старта шарика
-        addMouseListener(new MouseAdapter() {
+        MouseAdapter mouseListener = new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 launchBall();
             }
+        };
+        addMouseListener(mouseListener);
+
+        if (m_activeCanvas != null) {
+            //холст тяжеловесный и перекрывает панель, поэтому ввод слушает и он
+            setLayout(new BorderLayout());
+            add(m_activeCanvas, BorderLayout.CENTER);
+            m_activeCanvas.addKeyListener(keyListener);
+            m_activeCanvas.addMouseListener(mouseListener);
+        }
+
+        //окно свернули или закрыли: игра встаёт на паузу, а цикл засыпает до возвращения
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && !isShowing()) {
+                m_simulation.submitInput(GameInput.PAUSE);
+            }
         });
 
         setDoubleBuffered(true);
-        initializeTargets();
-        initializeBumpers();
     }
 
-    // обновление размеров поля
+    //освобождает потоки окна: игровой цикл, слежение за файлом стола, запись сеанса и MBean метрик
+    public void shutdown() {
+        m_gameLoop.stop();
+        if (m_tableWatcher != null) {
+            try {
+                m_tableWatcher.close();
+            } catch (IOException e) {
+                Logger.error(LogCategory.Game, "Не удалось остановить слежение за столом: " + e.getMessage());
+            }
+            m_tableWatcher = null;
+        }
+        m_simulation.stopRecording();
+        m_simulation.getMetrics().unregisterMBean();
+        Logger.debug(LogCategory.Game, "Игровой цикл остановлен");
+    }
+
+    //при смене размера меняется только масштаб: стол не перестраивается, игра продолжается
     @Override
     public void setBounds(int x, int y, int width, int height) {
         super.setBounds(x, y, width, height);
-        updateFieldDimensions();
-    }
-
-    //обновление игрового поля
-    private void updateFieldDimensions() {
-        m_fieldWidth = getWidth() - BORDER_MARGIN * 2;
-        m_fieldHeight = getHeight() - BORDER_MARGIN * 2;
-
-        //воронка
-        m_topLeftX = BORDER_MARGIN;
-        m_topLeftY = BORDER_MARGIN;
-        m_topRightX = BORDER_MARGIN + m_fieldWidth;
-        m_topRightY = BORDER_MARGIN;
-
-        //воронка
-        double m_funnelWidth = m_flipperController.getFlipperLength() * 3.2;
-
-        double funnelHeight = m_fieldHeight * 0.25;
-
-        m_funnelLeftX = BORDER_MARGIN + (m_fieldWidth - m_funnelWidth) / 2;
-        m_funnelLeftY = BORDER_MARGIN + m_fieldHeight - funnelHeight;
-        m_funnelRightX = BORDER_MARGIN + (m_fieldWidth + m_funnelWidth) / 2;
-        m_funnelRightY = BORDER_MARGIN + m_fieldHeight - funnelHeight;
-
-        //флиперы
-        double centerX = BORDER_MARGIN + m_fieldWidth / 2.0;
-        m_leftFlipperPivotX = centerX - m_funnelWidth / 2;
-        m_leftFlipperPivotY = m_funnelLeftY;
-        m_rightFlipperPivotX = centerX + m_funnelWidth / 2;
-        m_rightFlipperPivotY = m_funnelLeftY;
-
-        initializeTargets();
-        initializeBumpers();
-
-        resetBallPosition();
-    }
-
-    // изменение позиции шарика
-    private void resetBallPosition() {
-        m_ballPositionX = BORDER_MARGIN + m_fieldWidth / 2.0;
-        m_ballPositionY = BORDER_MARGIN + m_fieldHeight / 3.0;
-        m_ballVelocityX = 0;
-        m_ballVelocityY = 0;
-        m_ballLost = false;
+        updateView();
+        //активная отрисовка не получает repaint, кадр под новый размер рисует цикл
+        if (m_gameLoop != null) {
+            m_gameLoop.wake();
+        }
     }
 
-    //запуск
-    private void startGame() {
-        if (m_gameState == GameState.READY || m_gameState == GameState.GAME_OVER) {
-            //new
-            m_score = 0;
-            m_lives = 3;
-            resetBallPosition();
-            m_gameState = GameState.PLAYING;
-            launchBall();
-            Logger.debug("Игра началась!");
-        }
-        else if (m_gameState == GameState.PLAYING && m_ballLost) {
-            //old
-            if (m_lives > 0) {
-                resetBallPosition();
-                m_ballLost = false;
-                launchBall();
-                Logger.debug("Продолжение игры. Осталось жизней: " + m_lives);
-            }
+    private void updateView() {
+        WorldView view = m_view;
+        if (view != null && view.getScreenWidth() == getWidth() && view.getScreenHeight() == getHeight()
+                && view.getWorldWidth() == m_simulation.getWorldWidth()
+                && view.getWorldHeight() == m_simulation.getWorldHeight()) {
+            return;
         }
+        m_view = new WorldView(m_simulation.getWorldWidth(), m_simulation.getWorldHeight(), getWidth(), getHeight());
     }
 
 
     private void launchBall() {
-        if (m_gameState == GameState.PLAYING && !m_ballLost) {
-            m_ballVelocityX = (Math.random() - 0.5) * 8;
-            m_ballVelocityY = -Math.random() * 6 - 3;
-            Logger.debug("Шарик запущен!");
-        }
+        m_simulation.submitInput(GameInput.LAUNCH);
     }
 
 
+    //клавиши превращаются в ввод симуляции, он применяется в начале следующего шага
     private void handleKeyPress(int keyCode, boolean pressed) {
-        m_flipperController.handleKeyPress(keyCode, pressed);
-
-        switch (keyCode) {
-            case KeyEvent.VK_SPACE:
-                if (pressed) {
-                    if (m_gameState == GameState.READY || m_gameState == GameState.GAME_OVER) {
-                        startGame();
-                    }
-                    else if (m_gameState == GameState.PLAYING) {
-                        if (m_ballLost) {
-                            startGame();
-                        }
-                    }
+        //оверлей метрик относится к отображению и в симуляцию не передаётся
+        if (keyCode == KeyEvent.VK_F3) {
+            if (pressed) {
+                m_renderer.toggleMetricsOverlay();
+                synchronized (m_pendingRegion) {
+                    m_pendingRegion.markFull();
                 }
-                break;
-            case KeyEvent.VK_R:
-                resetGame();
-                break;
+                m_gameLoop.wake();
+            }
+            return;
+        }
+        GameInput input = GameInput.fromKey(keyCode, pressed);
+        if (input != null) {
+            m_simulation.submitInput(input);
         }
-    }
-
-    private void resetGame() {
-        m_gameState = GameState.READY;
-        m_score = 0;
-        m_lives = 3;
-        resetBallPosition();
-        Logger.debug("Игра сброшена");
     }
     
-    protected void onRedrawEvent()
+    protected void onRedrawEvent(double alpha)
     {
-        EventQueue.invokeLater(this::repaint);
-    }
+        m_interpolationAlpha = alpha;
+        if (m_activeCanvas != null) {
+            m_activeCanvas.renderFrame();
+            return;
+        }
 
+        m_frameRegion.clear();
+        m_dirtyTracker.update(m_state, m_flipperController, m_physics.getBallRadius(), m_view, m_frameRegion);
+        if (m_renderer.isMetricsOverlayVisible()) {
+            m_frameRegion.add(GameRenderer.METRICS_OVERLAY_X, GameRenderer.METRICS_OVERLAY_Y,
+                    GameRenderer.METRICS_OVERLAY_WIDTH, GameRenderer.METRICS_OVERLAY_HEIGHT);
+        }
+        synchronized (m_pendingRegion) {
+            m_pendingRegion.addAll(m_frameRegion);
+        }
+        if (m_repaintPending.compareAndSet(false, true)) {
+            RepaintQueue.getShared().post(this::paintDirtyRegions);
+        }
+    }
 
-    protected void onModelUpdateEvent() {
-        if (m_gameState == GameState.PLAYING && !m_ballLost){
-            m_physics.updatePhysics();
-            m_physics.checkCollisions();
+    private void paintDirtyRegions() {
+        m_repaintPending.set(false);
+        synchronized (m_pendingRegion) {
+            m_paintRegion.clear();
+            m_paintRegion.addAll(m_pendingRegion);
+            m_pendingRegion.clear();
+        }
+        if (m_paintRegion.isFull()) {
+            repaint();
+            return;
+        }
+        if (m_paintRegion.isEmpty() || !isShowing()) {
+            return;
+        }
+        m_renderer.beginFrame();
+        try {
+            for (int i = 0; i < m_paintRegion.getCount(); i++) {
+                paintImmediately(m_paintRegion.getRectangle(i));
+            }
+        } finally {
+            m_renderer.endFrame();
         }
-        m_flipperController.updateFlippers();
     }
 
 
     @Override
     public void paint(Graphics g) {
         super.paint(g);
-        Graphics2D g2d = (Graphics2D) g;
-        m_renderer.render(g2d);
+        //в активном режиме рендерер принадлежит потоку цикла
+        if (m_activeCanvas == null) {
+            Graphics2D g2d = (Graphics2D) g;
+            m_renderer.render(g2d);
+        }
     }
 
 
-    private void initializeTargets() {
-        m_targets.clear();
-
-        m_targets.add(new Target(
-                BORDER_MARGIN + m_fieldWidth * 0.2,
-                BORDER_MARGIN + m_fieldHeight * 0.1,
-                25, 12, Color.RED, 100
-        ));
-
-
-        m_targets.add(new Target(
-                BORDER_MARGIN + m_fieldWidth * 0.7,
-                BORDER_MARGIN + m_fieldHeight * 0.1,
-                25, 12, Color.RED, 100
-        ));
-
-
-        m_targets.add(new Target(
-                BORDER_MARGIN + m_fieldWidth * 0.45,
-                BORDER_MARGIN + m_fieldHeight * 0.2,
-                35, 15, Color.BLUE, 500, 12.0
-        ));
+    //-Dpinball.table=файл.json задаёт стол; у основного стола файл перечитывается при каждом сохранении
+    private void loadTableIfRequested() {
+        String tablePath = System.getProperty("pinball.table");
+        if (tablePath == null || tablePath.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(tablePath);
+        try {
+            m_simulation.setLayout(TableLayoutLoader.load(file));
+        } catch (IOException e) {
+            Logger.error(LogCategory.Game, "Не удалось загрузить стол, используется стандартный: " + e.getMessage());
+        }
+        if (isArcadeTable()) {
+            return;
+        }
+        try {
+            m_tableWatcher = new TableLayoutWatcher(file, m_simulation);
+        } catch (IOException e) {
+            Logger.error(LogCategory.Game, "Перезагрузка стола недоступна: " + e.getMessage());
+        }
     }
 
-    private void initializeBumpers() {
-        m_bumpers.clear();
-
-        m_bumpers.add(new Bumper(
-                BORDER_MARGIN + m_fieldWidth * 0.3,
-                BORDER_MARGIN + m_fieldHeight * 0.4,
-                15, Color.GREEN, 50, 8.0
-        ));
-
-        m_bumpers.add(new Bumper(
-                BORDER_MARGIN + m_fieldWidth * 0.7,
-                BORDER_MARGIN + m_fieldHeight * 0.4,
-                15, Color.GREEN, 50, 8.0
-        ));
-
-        m_bumpers.add(new Bumper(
-                BORDER_MARGIN + m_fieldWidth * 0.5,
-                BORDER_MARGIN + m_fieldHeight * 0.5,
-                18, Color.MAGENTA, 100, 12.0
-        ));
+    //-Dpinball.record=файл пишет журнал сеанса, его можно воспроизвести через SessionReplayer
+    private void startRecordingIfRequested() {
+        String recordPath = System.getProperty("pinball.record");
+        if (recordPath == null || recordPath.isEmpty()) {
+            return;
+        }
+        try {
+            m_simulation.startRecording(Paths.get(recordPath));
+            Runtime.getRuntime().addShutdownHook(new Thread(m_simulation::stopRecording, "session recorder"));
+        } catch (IOException e) {
+            Logger.error(LogCategory.Game, "Не удалось начать запись сеанса: " + e.getMessage());
+        }
     }
 
+
     private void loadImages() {
         try {
             m_backgroundImage = Toolkit.getDefaultToolkit().getImage("C:\\Users\\afoni\\IdeaProjects" +
                     "\\PinBall1.0\\robots\\images\\backGroundImage.jpg");
 
             if (m_backgroundImage.getWidth(null) == -1) {
-                Logger.error("Не удалось загрузить фоновое изображение");
+                Logger.error(LogCategory.Renderer, "Не удалось загрузить фоновое изображение");
             }
         } catch (Exception e) {
-            Logger.error("Ошибка загрузки изображений: " + e.getMessage());
+            Logger.error(LogCategory.Renderer, "Ошибка загрузки изображений: " + e.getMessage());
         }
     }
 
-    public double getLeftFlipperAngle() { return m_leftFlipperAngle; }
-    public void setLeftFlipperAngle(double angle) { m_leftFlipperAngle = angle; }
+    public double getLeftFlipperAngle() { return m_state.getLeftFlipperAngle(); }
+    public void setLeftFlipperAngle(double angle) { m_state.setLeftFlipperAngle(angle); }
 
-    public double getRightFlipperAngle() { return m_rightFlipperAngle; }
-    public void setRightFlipperAngle(double angle) { m_rightFlipperAngle = angle; }
+    public double getRightFlipperAngle() { return m_state.getRightFlipperAngle(); }
+    public void setRightFlipperAngle(double angle) { m_state.setRightFlipperAngle(angle); }
 
-    public boolean isLeftFlipperActive() { return m_leftFlipperActive; }
-    public void setLeftFlipperActive(boolean active) { m_leftFlipperActive = active; }
+    public boolean isLeftFlipperActive() { return m_state.isLeftFlipperActive(); }
+    public void setLeftFlipperActive(boolean active) { m_state.setLeftFlipperActive(active); }
 
-    public boolean isRightFlipperActive() { return m_rightFlipperActive; }
-    public void setRightFlipperActive(boolean active) { m_rightFlipperActive = active; }
+    public boolean isRightFlipperActive() { return m_state.isRightFlipperActive(); }
+    public void setRightFlipperActive(boolean active) { m_state.setRightFlipperActive(active); }
 
-    public double getBallPositionX() { return m_ballPositionX; }
-    public void setBallPositionX(double x) { m_ballPositionX = x; }
+    public double getBallPositionX() { return m_state.getBallPositionX(); }
+    public void setBallPositionX(double x) { m_state.setBallPositionX(x); }
 
-    public double getBallPositionY() { return m_ballPositionY; }
-    public void setBallPositionY(double y) { m_ballPositionY = y; }
+    public double getBallPositionY() { return m_state.getBallPositionY(); }
+    public void setBallPositionY(double y) { m_state.setBallPositionY(y); }
 
-    public double getBallVelocityX() { return m_ballVelocityX; }
-    public void setBallVelocityX(double vx) { m_ballVelocityX = vx; }
+    public double getBallVelocityX() { return m_state.getBallVelocityX(); }
+    public void setBallVelocityX(double vx) { m_state.setBallVelocityX(vx); }
 
-    public double getBallVelocityY() { return m_ballVelocityY; }
-    public void setBallVelocityY(double vy) { m_ballVelocityY = vy; }
+    public double getBallVelocityY() { return m_state.getBallVelocityY(); }
+    public void setBallVelocityY(double vy) { m_state.setBallVelocityY(vy); }
 
     public double getBallRadius() { return m_physics.getBallRadius(); }
 
-    public int getBorderMargin() { return BORDER_MARGIN; }
+    public int getBorderMargin() { return TableState.BORDER_MARGIN; }
 
-    public double getFunnelLeftX() { return m_funnelLeftX; }
-    public double getFunnelLeftY() { return m_funnelLeftY; }
-    public double getTopLeftX() { return m_topLeftX; }
-    public double getTopLeftY() { return m_topLeftY; }
-    public double getTopRightX() { return m_topRightX; }
-    public double getTopRightY() { return m_topRightY; }
-    public double getFunnelRightX() { return m_funnelRightX; }
-    public double getFunnelRightY() { return m_funnelRightY; }
+    public double getFunnelLeftX() { return m_state.getFunnelLeftX(); }
+    public double getFunnelLeftY() { return m_state.getFunnelLeftY(); }
+    public double getTopLeftX() { return m_state.getTopLeftX(); }
+    public double getTopLeftY() { return m_state.getTopLeftY(); }
+    public double getTopRightX() { return m_state.getTopRightX(); }
+    public double getTopRightY() { return m_state.getTopRightY(); }
+    public double getFunnelRightX() { return m_state.getFunnelRightX(); }
+    public double getFunnelRightY() { return m_state.getFunnelRightY(); }
 
     public double getFlipperLength() { return m_flipperController.getFlipperLength(); }
     public double getFlipperWidth() { return m_flipperController.getFlipperWidth(); }
 
-    public double getLeftFlipperPivotX() { return m_leftFlipperPivotX; }
-    public double getLeftFlipperPivotY() { return m_leftFlipperPivotY; }
-    public double getRightFlipperPivotX() { return m_rightFlipperPivotX; }
-    public double getRightFlipperPivotY() { return m_rightFlipperPivotY; }
+    public double getLeftFlipperPivotX() { return m_state.getLeftFlipperPivotX(); }
+    public double getLeftFlipperPivotY() { return m_state.getLeftFlipperPivotY(); }
+    public double getRightFlipperPivotX() { return m_state.getRightFlipperPivotX(); }
+    public double getRightFlipperPivotY() { return m_state.getRightFlipperPivotY(); }
+
+    public int getScore() { return m_state.getScore(); }
+    public void setScore(int score) { m_state.setScore(score); }
 
-    public int getScore() { return m_score; }
-    public void setScore(int score) { m_score = score; }
+    public int getLives() { return m_state.getLives(); }
+    public void setLives(int lives) { m_state.setLives(lives); }
 
-    public int getLives() { return m_lives; }
-    public void setLives(int lives) { m_lives = lives; }
+    public boolean isBallLost() { return m_state.isBallLost(); }
+    public void setBallLost(boolean lost) { m_state.setBallLost(lost); }
 
-    public boolean isBallLost() { return m_ballLost; }
-    public void setBallLost(boolean lost) { m_ballLost = lost; }
+    public java.util.List<Target> getTargets() { return m_state.getTargets(); }
+    public java.util.List<Bumper> getBumpers() { return m_state.getBumpers(); }
 
-    public java.util.List<Target> getTargets() { return m_targets; }
-    public java.util.List<Bumper> getBumpers() { return m_bumpers; }
+    public int getTableNumber() { return m_tableNumber; }
+    public boolean isArcadeTable() { return m_tableNumber > 0; }
 
-    public int getFieldWidth() { return m_fieldWidth; }
-    public int getFieldHeight() { return m_fieldHeight; }
+    public int getFieldWidth() { return m_state.getFieldWidth(); }
+    public int getFieldHeight() { return m_state.getFieldHeight(); }
     public Image getBackgroundImage() { return m_backgroundImage; }
 
     public FlipperController getFlipperController() { return m_flipperController; }
+    public GameSimulation getSimulation() { return m_simulation; }
+    public GameLoop getGameLoop() { return m_gameLoop; }
+    public TableLayoutWatcher getTableWatcher() { return m_tableWatcher; }
+    public boolean isActiveRendering() { return m_activeCanvas != null; }
+    public DirtyRegionTracker getDirtyRegionTracker() { return m_dirtyTracker; }
+    public double getInterpolationAlpha() { return m_interpolationAlpha; }
+    public GameRenderer getRenderer() { return m_renderer; }
+    public WorldView getView() { return m_view; }
 }
@@ -0,0 +1,87 @@
+package gui.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//гистограмма в духе HdrHistogram: значения до 64 считаются точно, дальше на каждую степень двойки
+//приходится 32 корзины, поэтому погрешность не больше 3% при любом порядке величин;
+//запись без блокировок и без выделения памяти, её можно вести прямо в шаге физики
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray m_counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong m_count = new AtomicLong();
+    private final AtomicLong m_total = new AtomicLong();
+    private final AtomicLong m_max = new AtomicLong();
+
+    //отрицательные значения считаются нулём
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        m_counts.incrementAndGet(indexOf(value));
+        m_count.incrementAndGet();
+        m_total.addAndGet(value);
+        long max = m_max.get();
+        while (value > max && !m_max.compareAndSet(max, value)) {
+            max = m_max.get();
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    //наибольшее значение, попадающее в ту же корзину
+    static long highestEquivalent(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index - shift * SUB_BUCKETS;
+        long highest = ((subBucket + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+
+    //значение, не меньше которого percentile процентов записей; оценка сверху с точностью корзины
+    public long getValueAtPercentile(double percentile) {
+        long count = m_count.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += m_counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), m_max.get());
+            }
+        }
+        return m_max.get();
+    }
+
+    public double getMean() {
+        long count = m_count.get();
+        return count == 0 ? 0 : (double) m_total.get() / count;
+    }
+
+    public long getCount() { return m_count.get(); }
+    public long getMax() { return m_max.get(); }
+
+    //запись, идущая одновременно со сбросом, может попасть в старые или новые данные
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            m_counts.set(i, 0);
+        }
+        m_count.set(0);
+        m_total.set(0);
+        m_max.set(0);
+    }
+}
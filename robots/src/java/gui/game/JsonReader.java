@@ -0,0 +1,187 @@
+package gui.game;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//минимальный разбор JSON для файлов стола: объекты - Map, массивы - List, числа - Double
+final class JsonReader {
+    private final String m_text;
+    private int m_position = 0;
+
+    private JsonReader(String text) {
+        m_text = text;
+    }
+
+    static Object parse(String text) throws IOException {
+        JsonReader reader = new JsonReader(text);
+        Object value = reader.readValue();
+        reader.skipWhitespace();
+        if (reader.m_position != text.length()) {
+            throw reader.error("лишние символы после значения");
+        }
+        return value;
+    }
+
+    private Object readValue() throws IOException {
+        skipWhitespace();
+        if (m_position >= m_text.length()) {
+            throw error("неожиданный конец");
+        }
+        char c = m_text.charAt(m_position);
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expect("true");
+                return Boolean.TRUE;
+            case 'f':
+                expect("false");
+                return Boolean.FALSE;
+            case 'n':
+                expect("null");
+                return null;
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() throws IOException {
+        Map<String, Object> object = new LinkedHashMap<>();
+        m_position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            m_position++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("ожидалось имя поля");
+            }
+            String name = readString();
+            skipWhitespace();
+            consume(':');
+            object.put(name, readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                m_position++;
+            } else {
+                consume('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray() throws IOException {
+        List<Object> array = new ArrayList<>();
+        m_position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            m_position++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                m_position++;
+            } else {
+                consume(']');
+                return array;
+            }
+        }
+    }
+
+    private String readString() throws IOException {
+        m_position++;
+        StringBuilder result = new StringBuilder();
+        while (m_position < m_text.length()) {
+            char c = m_text.charAt(m_position++);
+            if (c == '"') {
+                return result.toString();
+            }
+            if (c != '\\') {
+                result.append(c);
+                continue;
+            }
+            if (m_position >= m_text.length()) {
+                break;
+            }
+            char escaped = m_text.charAt(m_position++);
+            switch (escaped) {
+                case 'n': result.append('\n'); break;
+                case 't': result.append('\t'); break;
+                case 'r': result.append('\r'); break;
+                case 'b': result.append('\b'); break;
+                case 'f': result.append('\f'); break;
+                case 'u':
+                    if (m_position + 4 > m_text.length()) {
+                        throw error("неполный \\u");
+                    }
+                    try {
+                        result.append((char) Integer.parseInt(m_text.substring(m_position, m_position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("неверный \\u");
+                    }
+                    m_position += 4;
+                    break;
+                default: result.append(escaped);
+            }
+        }
+        throw error("незакрытая строка");
+    }
+
+    private Double readNumber() throws IOException {
+        int start = m_position;
+        while (m_position < m_text.length() && "+-0123456789.eE".indexOf(m_text.charAt(m_position)) >= 0) {
+            m_position++;
+        }
+        try {
+            return Double.valueOf(m_text.substring(start, m_position));
+        } catch (NumberFormatException e) {
+            m_position = start;
+            throw error("ожидалось значение");
+        }
+    }
+
+    private void expect(String word) throws IOException {
+        if (!m_text.startsWith(word, m_position)) {
+            throw error("ожидалось " + word);
+        }
+        m_position += word.length();
+    }
+
+    private void consume(char expected) throws IOException {
+        if (peek() != expected) {
+            throw error("ожидался символ '" + expected + "'");
+        }
+        m_position++;
+    }
+
+    private char peek() {
+        return m_position < m_text.length() ? m_text.charAt(m_position) : 0;
+    }
+
+    private void skipWhitespace() {
+        while (m_position < m_text.length() && Character.isWhitespace(m_text.charAt(m_position))) {
+            m_position++;
+        }
+    }
+
+    private IOException error(String message) {
+        int line = 1;
+        for (int i = 0; i < m_position && i < m_text.length(); i++) {
+            if (m_text.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return new IOException("Ошибка в описании стола, строка " + line + ": " + message);
+    }
+}
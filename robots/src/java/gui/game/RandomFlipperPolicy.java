@@ -0,0 +1,29 @@
+package gui.game;
+
+import java.util.Random;
+
+//флипперы нажимаются и отпускаются случайно, независимо от шарика
+final class RandomFlipperPolicy implements FlipperPolicy {
+    private static final double PRESS_PROBABILITY = 0.05;
+    private static final double RELEASE_PROBABILITY = 0.2;
+
+    private final Random m_random;
+    private boolean m_leftDown = false;
+    private boolean m_rightDown = false;
+
+    RandomFlipperPolicy(long seed) {
+        m_random = new Random(seed);
+    }
+
+    @Override
+    public void beforeTick(GameSimulation simulation) {
+        if (m_random.nextDouble() < (m_leftDown ? RELEASE_PROBABILITY : PRESS_PROBABILITY)) {
+            m_leftDown = !m_leftDown;
+            simulation.submitInput(m_leftDown ? GameInput.LEFT_FLIPPER_DOWN : GameInput.LEFT_FLIPPER_UP);
+        }
+        if (m_random.nextDouble() < (m_rightDown ? RELEASE_PROBABILITY : PRESS_PROBABILITY)) {
+            m_rightDown = !m_rightDown;
+            simulation.submitInput(m_rightDown ? GameInput.RIGHT_FLIPPER_DOWN : GameInput.RIGHT_FLIPPER_UP);
+        }
+    }
+}
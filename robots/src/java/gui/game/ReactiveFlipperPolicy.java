@@ -0,0 +1,52 @@
+package gui.game;
+
+//игрок по правилу: флиппер нажимается, когда шарик падает на него, и отпускается через HOLD_TICKS шагов
+final class ReactiveFlipperPolicy implements FlipperPolicy {
+    private static final int HOLD_TICKS = 8;
+    //насколько выше оси флиппера шарик уже считается подлетающим
+    private static final double REACTION_HEIGHT = 40;
+
+    private int m_leftHold = 0;
+    private int m_rightHold = 0;
+
+    @Override
+    public void beforeTick(GameSimulation simulation) {
+        TableState state = simulation.getState();
+        double length = simulation.getFlipperController().getFlipperLength();
+        boolean left = false;
+        boolean right = false;
+        BallStore balls = state.getBalls();
+        for (int i = 0; i < balls.count; i++) {
+            if (!balls.active[i] || balls.vy[i] <= 0) {
+                continue;
+            }
+            double x = balls.x[i];
+            double y = balls.y[i];
+            left |= isAbove(x, y, state.getLeftFlipperPivotX(), state.getLeftFlipperPivotX() + length,
+                    state.getLeftFlipperPivotY());
+            right |= isAbove(x, y, state.getRightFlipperPivotX() - length, state.getRightFlipperPivotX(),
+                    state.getRightFlipperPivotY());
+        }
+        m_leftHold = update(simulation, left, m_leftHold, GameInput.LEFT_FLIPPER_DOWN, GameInput.LEFT_FLIPPER_UP);
+        m_rightHold = update(simulation, right, m_rightHold, GameInput.RIGHT_FLIPPER_DOWN, GameInput.RIGHT_FLIPPER_UP);
+    }
+
+    private static boolean isAbove(double x, double y, double fromX, double toX, double pivotY) {
+        return x >= fromX && x <= toX && y >= pivotY - REACTION_HEIGHT && y <= pivotY;
+    }
+
+    //возвращает, сколько шагов флиппер ещё держится
+    private static int update(GameSimulation simulation, boolean trigger, int hold, GameInput down, GameInput up) {
+        if (hold > 0) {
+            if (hold == 1) {
+                simulation.submitInput(up);
+            }
+            return hold - 1;
+        }
+        if (trigger) {
+            simulation.submitInput(down);
+            return HOLD_TICKS;
+        }
+        return 0;
+    }
+}
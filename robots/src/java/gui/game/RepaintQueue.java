@@ -0,0 +1,47 @@
+package gui.game;
+
+import java.awt.EventQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//перерисовки всех столов собираются в одно событие EDT: пока оно не выполнено, новые столы
+//только добавляются в очередь, и десятки окон не засыпают очередь событий своими invokeLater
+public class RepaintQueue {
+    private static final RepaintQueue SHARED = new RepaintQueue(EventQueue::invokeLater);
+
+    private final Executor m_executor;
+    private final ConcurrentLinkedQueue<Runnable> m_pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean m_scheduled = new AtomicBoolean();
+    private volatile long m_passCount = 0;
+
+    //executor выполняет проход по очереди, в программе это EDT
+    public RepaintQueue(Executor executor) {
+        m_executor = executor;
+    }
+
+    public static RepaintQueue getShared() {
+        return SHARED;
+    }
+
+    //можно вызывать из любого потока; один стол не должен ставить себя повторно, пока его не нарисовали
+    public void post(Runnable painter) {
+        m_pending.add(painter);
+        if (m_scheduled.compareAndSet(false, true)) {
+            m_executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        //флаг снимается до разбора: всё, что добавят позже, попадёт в следующий проход
+        m_scheduled.set(false);
+        m_passCount++;
+        Runnable painter;
+        while ((painter = m_pending.poll()) != null) {
+            painter.run();
+        }
+    }
+
+    //сколько событий EDT понадобилось на все перерисовки
+    public long getPassCount() { return m_passCount; }
+}
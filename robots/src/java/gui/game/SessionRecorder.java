@@ -0,0 +1,151 @@
+package gui.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//журнал сеанса: заголовок (зерно, шаг, размер и раскладка стола) и события ввода с номером шага;
+//номер шага пишется разницей с предыдущим событием в varint, так что событие обычно занимает 2 байта.
+//смена стола на ходу пишется событием LAYOUT с полной раскладкой в той же двоичной форме, что и кэш стола
+public final class SessionRecorder implements Closeable {
+    static final int MAGIC = 0x50425250; // "PBRP"
+    static final int VERSION = 2;
+    //в журналах первой версии раскладки нет, они играются на стандартном столе
+    static final int VERSION_WITHOUT_LAYOUT = 1;
+    //служебные коды событий, коды GameInput лежат между ними
+    static final int END = 0;
+    static final int LAYOUT = 126;
+    static final int RESIZE = 127;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final WritableByteChannel m_channel;
+    private final ByteBuffer m_buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long m_lastTick = 0;
+    private boolean m_started = false;
+    private boolean m_closed = false;
+
+    public SessionRecorder(WritableByteChannel channel) {
+        m_channel = channel;
+    }
+
+    public static SessionRecorder create(Path file) throws IOException {
+        return new SessionRecorder(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    void writeHeader(long seed, double tickMillis, int width, int height, TableLayout layout) throws IOException {
+        if (m_started) {
+            throw new IllegalStateException("Запись уже начата");
+        }
+        m_started = true;
+        ensureSpace(32);
+        m_buffer.putInt(MAGIC);
+        m_buffer.put((byte) VERSION);
+        m_buffer.putLong(seed);
+        m_buffer.putDouble(tickMillis);
+        m_buffer.putInt(width);
+        m_buffer.putInt(height);
+        writeLayout(layout);
+    }
+
+    //tick - номер шага от начала сеанса, событие применяется перед этим шагом
+    void recordInput(long tick, GameInput input) throws IOException {
+        writeEvent(tick, input.getCode());
+    }
+
+    void recordResize(long tick, int width, int height) throws IOException {
+        writeEvent(tick, RESIZE);
+        writeVarLong(width);
+        writeVarLong(height);
+    }
+
+    void recordLayout(long tick, TableLayout layout) throws IOException {
+        writeEvent(tick, LAYOUT);
+        writeLayout(layout);
+    }
+
+    private void writeLayout(TableLayout layout) throws IOException {
+        int size = TableLayoutLoader.encodedSize(layout);
+        if (size <= m_buffer.capacity()) {
+            ensureSpace(size);
+            TableLayoutLoader.encode(layout, m_buffer);
+            return;
+        }
+        //большой стол не помещается в буфер и пишется отдельно
+        flush();
+        ByteBuffer bytes = ByteBuffer.allocate(size);
+        TableLayoutLoader.encode(layout, bytes);
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            m_channel.write(bytes);
+        }
+    }
+
+    //закрывает журнал; tick - сколько шагов длился сеанс
+    void finish(long tick) throws IOException {
+        if (m_closed) {
+            return;
+        }
+        try {
+            writeEvent(tick, END);
+            flush();
+        } finally {
+            m_closed = true;
+            m_channel.close();
+        }
+    }
+
+    private void writeEvent(long tick, int code) throws IOException {
+        if (tick < m_lastTick) {
+            throw new IllegalArgumentException("События должны идти по порядку шагов: " + tick);
+        }
+        writeVarLong(tick - m_lastTick);
+        ensureSpace(1);
+        m_buffer.put((byte) code);
+        m_lastTick = tick;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ensureSpace(10);
+        while ((value & ~0x7FL) != 0) {
+            m_buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        m_buffer.put((byte) value);
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+        if (m_buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        m_buffer.flip();
+        while (m_buffer.hasRemaining()) {
+            m_channel.write(m_buffer);
+        }
+        m_buffer.clear();
+    }
+
+    public boolean isClosed() { return m_closed; }
+
+    //закрытие без END: журнал читается как оборванный на последнем событии
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            m_closed = true;
+            m_channel.close();
+        }
+    }
+}
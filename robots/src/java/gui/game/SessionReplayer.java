@@ -0,0 +1,196 @@
+package gui.game;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//воспроизведение журнала SessionRecorder: та же симуляция без окна и без пауз между шагами
+public final class SessionReplayer {
+    private final long m_seed;
+    private final double m_tickMillis;
+    private final int m_width;
+    private final int m_height;
+    //стол, на котором начался сеанс
+    private final TableLayout m_layout;
+
+    //события в порядке записи: шаг, код и аргументы для RESIZE и LAYOUT
+    private final long[] m_eventTicks;
+    private final int[] m_eventCodes;
+    private final int[] m_eventWidths;
+    private final int[] m_eventHeights;
+    private final TableLayout[] m_eventLayouts;
+    private final int m_eventCount;
+    private final long m_totalTicks;
+    private final boolean m_complete;
+
+    private SessionReplayer(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != SessionRecorder.MAGIC) {
+                throw new IOException("Это не журнал сеанса");
+            }
+            int version = buffer.get();
+            if (version != SessionRecorder.VERSION && version != SessionRecorder.VERSION_WITHOUT_LAYOUT) {
+                throw new IOException("Неподдерживаемая версия журнала: " + version);
+            }
+            m_seed = buffer.getLong();
+            m_tickMillis = buffer.getDouble();
+            m_width = buffer.getInt();
+            m_height = buffer.getInt();
+            m_layout = version == SessionRecorder.VERSION_WITHOUT_LAYOUT
+                    ? TableLayout.defaultLayout() : readLayout(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Журнал сеанса обрезан в заголовке", e);
+        }
+
+        long[] ticks = new long[64];
+        int[] codes = new int[64];
+        int[] widths = new int[64];
+        int[] heights = new int[64];
+        TableLayout[] layouts = new TableLayout[64];
+        int count = 0;
+        long tick = 0;
+        boolean complete = false;
+
+        //оборванный журнал (программа закрылась без finish) читается до последнего целого события
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            try {
+                tick += readVarLong(buffer);
+                int code = buffer.get() & 0xFF;
+                if (code == SessionRecorder.END) {
+                    complete = true;
+                    break;
+                }
+                int width = 0;
+                int height = 0;
+                TableLayout layout = null;
+                if (code == SessionRecorder.RESIZE) {
+                    width = (int) readVarLong(buffer);
+                    height = (int) readVarLong(buffer);
+                } else if (code == SessionRecorder.LAYOUT) {
+                    layout = readLayout(buffer);
+                } else if (GameInput.fromCode(code) == null) {
+                    throw new IOException("Неизвестное событие " + code + " в позиции " + start);
+                }
+                if (count == ticks.length) {
+                    ticks = Arrays.copyOf(ticks, count * 2);
+                    codes = Arrays.copyOf(codes, count * 2);
+                    widths = Arrays.copyOf(widths, count * 2);
+                    heights = Arrays.copyOf(heights, count * 2);
+                    layouts = Arrays.copyOf(layouts, count * 2);
+                }
+                ticks[count] = tick;
+                codes[count] = code;
+                widths[count] = width;
+                heights[count] = height;
+                layouts[count] = layout;
+                count++;
+            } catch (BufferUnderflowException e) {
+                tick = count > 0 ? ticks[count - 1] : 0;
+                break;
+            }
+        }
+
+        m_eventTicks = ticks;
+        m_eventCodes = codes;
+        m_eventWidths = widths;
+        m_eventHeights = heights;
+        m_eventLayouts = layouts;
+        m_eventCount = count;
+        //без END сеанс доигрывается до шага последнего события включительно
+        m_totalTicks = complete ? tick : tick + 1;
+        m_complete = complete;
+    }
+
+    public static SessionReplayer read(ByteBuffer buffer) throws IOException {
+        return new SessionReplayer(buffer.duplicate());
+    }
+
+    public static SessionReplayer load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SessionReplayer(buffer);
+        }
+    }
+
+    //прогоняет весь сеанс и возвращает симуляцию в конечном состоянии
+    public GameSimulation replay() {
+        GameSimulation simulation = new GameSimulation(m_width, m_height);
+        simulation.setLayout(m_layout);
+        simulation.setTickMillis(m_tickMillis);
+        simulation.beginSession(m_seed);
+
+        int event = 0;
+        for (long tick = 0; tick < m_totalTicks; tick++) {
+            while (event < m_eventCount && m_eventTicks[event] == tick) {
+                int code = m_eventCodes[event];
+                if (code == SessionRecorder.RESIZE) {
+                    simulation.resize(m_eventWidths[event], m_eventHeights[event]);
+                } else if (code == SessionRecorder.LAYOUT) {
+                    simulation.setLayout(m_eventLayouts[event]);
+                } else {
+                    simulation.submitInput(GameInput.fromCode(code));
+                }
+                event++;
+            }
+            simulation.tick();
+        }
+        return simulation;
+    }
+
+    //обрезанная раскладка - BufferUnderflowException, как и любое обрезанное событие
+    private static TableLayout readLayout(ByteBuffer buffer) throws IOException {
+        try {
+            return TableLayoutLoader.decode(buffer);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Испорченная раскладка стола в журнале: " + e.getMessage(), e);
+        }
+    }
+
+    private static long readVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Слишком длинное число в журнале");
+    }
+
+    public long getSeed() { return m_seed; }
+    public double getTickMillis() { return m_tickMillis; }
+    public int getWidth() { return m_width; }
+    public int getHeight() { return m_height; }
+    public TableLayout getLayout() { return m_layout; }
+    public int getEventCount() { return m_eventCount; }
+    public long getTotalTicks() { return m_totalTicks; }
+    public boolean isComplete() { return m_complete; }
+
+    //java -cp ... gui.game.SessionReplayer session.pbr
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Использование: SessionReplayer <файл журнала>");
+            System.exit(2);
+        }
+        SessionReplayer replayer = load(Paths.get(args[0]));
+        long start = System.nanoTime();
+        GameSimulation simulation = replayer.replay();
+        long elapsed = System.nanoTime() - start;
+
+        TableState state = simulation.getState();
+        System.out.printf("Шагов: %d, событий: %d%s%n", replayer.getTotalTicks(), replayer.getEventCount(),
+                replayer.isComplete() ? "" : " (журнал оборван)");
+        System.out.printf("Счет: %d, жизни: %d, состояние: %s%n",
+                state.getScore(), state.getLives(), state.getGameState());
+        System.out.printf("Шарик: (%.3f, %.3f)%n", state.getBallPositionX(), state.getBallPositionY());
+        System.out.printf("Время: %.1f мс%n", elapsed / 1_000_000.0);
+    }
+}
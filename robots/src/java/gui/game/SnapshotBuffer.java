@@ -0,0 +1,32 @@
+package gui.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+//тройной буфер снимков: один пишет поток физики, один читает поток отрисовки, третий ждёт обмена;
+//обмен - одна атомарная операция getAndSet, никто никого не блокирует и ничего не выделяется
+public final class SnapshotBuffer {
+    //младшие два бита - индекс ожидающего снимка, FRESH - его ещё не забрал читатель
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final GameSnapshot[] m_slots = {new GameSnapshot(), new GameSnapshot(), new GameSnapshot()};
+    private final AtomicInteger m_pending = new AtomicInteger(1);
+    //поля ниже принадлежат каждое своему потоку
+    private int m_writeIndex = 0;
+    private int m_readIndex = 2;
+
+    //только поток физики
+    public void publish(TableState state, long tick) {
+        m_slots[m_writeIndex].copyFrom(state, tick);
+        m_writeIndex = m_pending.getAndSet(m_writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    //только поток отрисовки: самый свежий опубликованный снимок,
+    //он остаётся неизменным до следующего вызова acquire
+    public GameSnapshot acquire() {
+        if ((m_pending.get() & FRESH) != 0) {
+            m_readIndex = m_pending.getAndSet(m_readIndex) & INDEX_MASK;
+        }
+        return m_slots[m_readIndex];
+    }
+}
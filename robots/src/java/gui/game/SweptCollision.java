@@ -0,0 +1,131 @@
+package gui.game;
+
+//непрерывная проверка столкновений: центр шарика движется из (px, py) на (dx, dy) за шаг,
+//методы возвращают долю шага [0, 1] до касания или NO_HIT;
+//уже пересёкшиеся объекты не считаются - их разбирает обычная дискретная проверка
+public final class SweptCollision {
+    public static final double NO_HIT = Double.POSITIVE_INFINITY;
+    //зазор, на котором шарик останавливается перед препятствием
+    public static final double SKIN = 0.01;
+
+    private SweptCollision() {
+    }
+
+    //окружность радиуса radius (сумма радиусов шарика и препятствия плюс SKIN)
+    public static double sweepCircle(double px, double py, double dx, double dy,
+                                     double cx, double cy, double radius) {
+        double mx = px - cx;
+        double my = py - cy;
+        double b = mx * dx + my * dy;
+        if (b >= 0) {
+            return NO_HIT;
+        }
+        double c = mx * mx + my * my - radius * radius;
+        if (c < 0) {
+            //в пределах зазора - касание, глубже - уже пересечение
+            return c > -2 * radius * SKIN ? 0 : NO_HIT;
+        }
+        double a = dx * dx + dy * dy;
+        double discriminant = b * b - a * c;
+        if (discriminant < 0) {
+            return NO_HIT;
+        }
+        double t = (-b - Math.sqrt(discriminant)) / a;
+        return t <= 1 ? Math.max(t, 0) : NO_HIT;
+    }
+
+    //отрезок с закруглёнными концами (капсула) радиуса radius
+    public static double sweepSegment(double px, double py, double dx, double dy,
+                                      double x1, double y1, double x2, double y2, double radius) {
+        double ex = x2 - x1;
+        double ey = y2 - y1;
+        double lengthSquared = ex * ex + ey * ey;
+        double best = NO_HIT;
+
+        if (lengthSquared > 0) {
+            double inverseLength = 1.0 / Math.sqrt(lengthSquared);
+            double nx = -ey * inverseLength;
+            double ny = ex * inverseLength;
+            double distance = (px - x1) * nx + (py - y1) * ny;
+            double approach = dx * nx + dy * ny;
+            //работаем с той стороной отрезка, где находится шарик
+            if (distance < 0) {
+                distance = -distance;
+                approach = -approach;
+            }
+
+            if (approach < 0 && distance >= radius - 2 * SKIN) {
+                double t = distance > radius ? (distance - radius) / -approach : 0;
+                if (t <= 1) {
+                    double projection = ((px + dx * t - x1) * ex + (py + dy * t - y1) * ey) / lengthSquared;
+                    if (projection >= 0 && projection <= 1) {
+                        best = t;
+                    }
+                }
+            }
+        }
+
+        best = Math.min(best, sweepCircle(px, py, dx, dy, x1, y1, radius));
+        best = Math.min(best, sweepCircle(px, py, dx, dy, x2, y2, radius));
+        return best;
+    }
+
+    //прямоугольник, скруглённый на radius
+    public static double sweepBox(double px, double py, double dx, double dy,
+                                  double minX, double minY, double maxX, double maxY, double radius) {
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+
+        if (dx != 0) {
+            double t1 = (minX - radius - px) / dx;
+            double t2 = (maxX + radius - px) / dx;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        } else if (px < minX - radius || px > maxX + radius) {
+            return NO_HIT;
+        }
+
+        if (dy != 0) {
+            double t1 = (minY - radius - py) / dy;
+            double t2 = (maxY + radius - py) / dy;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        } else if (py < minY - radius || py > maxY + radius) {
+            return NO_HIT;
+        }
+
+        if (enter > exit || exit < 0 || enter > 1) {
+            return NO_HIT;
+        }
+
+        if (enter < 0) {
+            //старт внутри расширенной рамки: касание грани, угол или уже пересечение
+            double closestX = Math.max(minX, Math.min(px, maxX));
+            double closestY = Math.max(minY, Math.min(py, maxY));
+            boolean faceRegion = closestX == px || closestY == py;
+            if (!faceRegion) {
+                return sweepCircle(px, py, dx, dy, closestX, closestY, radius);
+            }
+            double offsetX = px - closestX;
+            double offsetY = py - closestY;
+            double distanceSquared = offsetX * offsetX + offsetY * offsetY;
+            double inner = radius - 2 * SKIN;
+            if (distanceSquared < inner * inner || offsetX * dx + offsetY * dy >= 0) {
+                return NO_HIT;
+            }
+            return 0;
+        }
+
+        //точка входа в угловой зоне - уточняем по окружности угла
+        double hitX = px + dx * enter;
+        double hitY = py + dy * enter;
+        boolean outsideX = hitX < minX || hitX > maxX;
+        boolean outsideY = hitY < minY || hitY > maxY;
+        if (outsideX && outsideY) {
+            double cornerX = hitX < minX ? minX : maxX;
+            double cornerY = hitY < minY ? minY : maxY;
+            return sweepCircle(px, py, dx, dy, cornerX, cornerY, radius);
+        }
+        return enter;
+    }
+}
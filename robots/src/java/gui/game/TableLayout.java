@@ -0,0 +1,140 @@
+package gui.game;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//описание стола: воронка (она же задаёт боковые стенки), флипперы, мишени и бамперы.
+//положения задаются долями игрового поля, размеры - в пикселях, поэтому стол подстраивается под окно
+public final class TableLayout {
+
+    public static final class FlipperSpec {
+        private final double m_length;
+        private final double m_width;
+        private final double m_restAngle;
+        private final double m_activeAngle;
+        private final double m_rotationSpeed;
+
+        //углы в радианах, скорость поворота - радиан за базовый шаг
+        public FlipperSpec(double length, double width, double restAngle, double activeAngle, double rotationSpeed) {
+            m_length = length;
+            m_width = width;
+            m_restAngle = restAngle;
+            m_activeAngle = activeAngle;
+            m_rotationSpeed = rotationSpeed;
+        }
+
+        public double getLength() { return m_length; }
+        public double getWidth() { return m_width; }
+        public double getRestAngle() { return m_restAngle; }
+        public double getActiveAngle() { return m_activeAngle; }
+        public double getRotationSpeed() { return m_rotationSpeed; }
+    }
+
+    public static final class TargetSpec {
+        private final double m_x;
+        private final double m_y;
+        private final double m_width;
+        private final double m_height;
+        private final int m_color;
+        private final int m_points;
+        private final double m_bounceStrength;
+
+        public TargetSpec(double x, double y, double width, double height, int color, int points,
+                          double bounceStrength) {
+            m_x = x;
+            m_y = y;
+            m_width = width;
+            m_height = height;
+            m_color = color;
+            m_points = points;
+            m_bounceStrength = bounceStrength;
+        }
+
+        public double getX() { return m_x; }
+        public double getY() { return m_y; }
+        public double getWidth() { return m_width; }
+        public double getHeight() { return m_height; }
+        public int getColor() { return m_color; }
+        public int getPoints() { return m_points; }
+        public double getBounceStrength() { return m_bounceStrength; }
+    }
+
+    public static final class BumperSpec {
+        private final double m_x;
+        private final double m_y;
+        private final double m_radius;
+        private final int m_color;
+        private final int m_points;
+        private final double m_bounceStrength;
+
+        public BumperSpec(double x, double y, double radius, int color, int points, double bounceStrength) {
+            m_x = x;
+            m_y = y;
+            m_radius = radius;
+            m_color = color;
+            m_points = points;
+            m_bounceStrength = bounceStrength;
+        }
+
+        public double getX() { return m_x; }
+        public double getY() { return m_y; }
+        public double getRadius() { return m_radius; }
+        public int getColor() { return m_color; }
+        public int getPoints() { return m_points; }
+        public double getBounceStrength() { return m_bounceStrength; }
+    }
+
+    private static final TableLayout DEFAULT = createDefault();
+
+    private final double m_funnelWidth;
+    private final double m_funnelHeight;
+    private final FlipperSpec m_flippers;
+    private final List<TargetSpec> m_targets;
+    private final List<BumperSpec> m_bumpers;
+
+    //funnelWidth в пикселях, funnelHeight - доля высоты поля
+    public TableLayout(double funnelWidth, double funnelHeight, FlipperSpec flippers,
+                       List<TargetSpec> targets, List<BumperSpec> bumpers) {
+        if (funnelWidth <= 0 || funnelHeight <= 0 || funnelHeight >= 1) {
+            throw new IllegalArgumentException("Неверные размеры воронки: " + funnelWidth + ", " + funnelHeight);
+        }
+        if (flippers.getLength() <= 0 || flippers.getWidth() <= 0 || flippers.getRotationSpeed() <= 0) {
+            throw new IllegalArgumentException("Неверные размеры флипперов");
+        }
+        m_funnelWidth = funnelWidth;
+        m_funnelHeight = funnelHeight;
+        m_flippers = flippers;
+        m_targets = Collections.unmodifiableList(new ArrayList<>(targets));
+        m_bumpers = Collections.unmodifiableList(new ArrayList<>(bumpers));
+    }
+
+    //стол, который раньше был зашит в GameSimulation
+    public static TableLayout defaultLayout() {
+        return DEFAULT;
+    }
+
+    private static TableLayout createDefault() {
+        List<TargetSpec> targets = new ArrayList<>();
+        targets.add(new TargetSpec(0.2, 0.1, 25, 12, Color.RED.getRGB() & 0xFFFFFF, 100, 8.0));
+        targets.add(new TargetSpec(0.7, 0.1, 25, 12, Color.RED.getRGB() & 0xFFFFFF, 100, 8.0));
+        targets.add(new TargetSpec(0.45, 0.2, 35, 15, Color.BLUE.getRGB() & 0xFFFFFF, 500, 12.0));
+
+        List<BumperSpec> bumpers = new ArrayList<>();
+        bumpers.add(new BumperSpec(0.3, 0.4, 15, Color.GREEN.getRGB() & 0xFFFFFF, 50, 8.0));
+        bumpers.add(new BumperSpec(0.7, 0.4, 15, Color.GREEN.getRGB() & 0xFFFFFF, 50, 8.0));
+        bumpers.add(new BumperSpec(0.5, 0.5, 18, Color.MAGENTA.getRGB() & 0xFFFFFF, 100, 12.0));
+
+        FlipperSpec flippers = new FlipperSpec(FlipperController.FLIPPER_LENGTH, FlipperController.FLIPPER_WIDTH,
+                FlipperController.FLIPPER_REST_ANGLE, FlipperController.FLIPPER_ACTIVE_ANGLE,
+                FlipperController.FLIPPER_ROTATION_SPEED);
+        return new TableLayout(FlipperController.FLIPPER_LENGTH * 3.2, 0.25, flippers, targets, bumpers);
+    }
+
+    public double getFunnelWidth() { return m_funnelWidth; }
+    public double getFunnelHeight() { return m_funnelHeight; }
+    public FlipperSpec getFlippers() { return m_flippers; }
+    public List<TargetSpec> getTargets() { return m_targets; }
+    public List<BumperSpec> getBumpers() { return m_bumpers; }
+}
@@ -0,0 +1,276 @@
+package gui.game;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+//стол описывается в JSON, а рядом кладётся скомпилированная двоичная копия <файл>.bin:
+//пока размер и время изменения исходника совпадают с записанными в ней, разбор JSON не нужен
+public final class TableLayoutLoader {
+    static final int MAGIC = 0x50425442;
+    static final int VERSION = 1;
+    private static final String CACHE_SUFFIX = ".bin";
+    private static final double DEFAULT_BOUNCE = 8.0;
+
+    private TableLayoutLoader() {
+    }
+
+    public static TableLayout load(Path file) throws IOException {
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        Path cache = cacheFile(file);
+        TableLayout cached = readCache(cache, size, modified);
+        if (cached != null) {
+            return cached;
+        }
+        TableLayout layout = parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        try {
+            writeCache(cache, layout, size, modified);
+        } catch (IOException e) {
+            //без кэша стол всё равно загружен, в следующий раз просто снова разберётся JSON
+        }
+        return layout;
+    }
+
+    public static Path cacheFile(Path file) {
+        return Paths.get(file.toString() + CACHE_SUFFIX);
+    }
+
+    public static TableLayout parse(String json) throws IOException {
+        Object root = JsonReader.parse(json);
+        if (!(root instanceof Map)) {
+            throw new IOException("Описание стола должно быть объектом JSON");
+        }
+        Map<?, ?> table = (Map<?, ?>) root;
+        TableLayout defaults = TableLayout.defaultLayout();
+
+        Map<?, ?> funnel = object(table, "funnel");
+        Map<?, ?> flippers = object(table, "flippers");
+        TableLayout.FlipperSpec defaultFlippers = defaults.getFlippers();
+        TableLayout.FlipperSpec flipperSpec = new TableLayout.FlipperSpec(
+                number(flippers, "length", defaultFlippers.getLength()),
+                number(flippers, "width", defaultFlippers.getWidth()),
+                Math.toRadians(number(flippers, "restAngle", Math.toDegrees(defaultFlippers.getRestAngle()))),
+                Math.toRadians(number(flippers, "activeAngle", Math.toDegrees(defaultFlippers.getActiveAngle()))),
+                number(flippers, "rotationSpeed", defaultFlippers.getRotationSpeed()));
+
+        List<TableLayout.TargetSpec> targets = new ArrayList<>();
+        for (Map<?, ?> target : objects(table, "targets")) {
+            targets.add(new TableLayout.TargetSpec(
+                    required(target, "x"), required(target, "y"),
+                    required(target, "width"), required(target, "height"),
+                    color(target), (int) required(target, "points"),
+                    number(target, "bounce", DEFAULT_BOUNCE)));
+        }
+        List<TableLayout.BumperSpec> bumpers = new ArrayList<>();
+        for (Map<?, ?> bumper : objects(table, "bumpers")) {
+            bumpers.add(new TableLayout.BumperSpec(
+                    required(bumper, "x"), required(bumper, "y"), required(bumper, "radius"),
+                    color(bumper), (int) required(bumper, "points"),
+                    number(bumper, "bounce", DEFAULT_BOUNCE)));
+        }
+
+        try {
+            return new TableLayout(number(funnel, "width", defaults.getFunnelWidth()),
+                    number(funnel, "height", defaults.getFunnelHeight()), flipperSpec, targets, bumpers);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    public static String toJson(TableLayout layout) {
+        StringBuilder json = new StringBuilder();
+        TableLayout.FlipperSpec flippers = layout.getFlippers();
+        json.append("{\n");
+        json.append(format("  \"funnel\": {\"width\": %s, \"height\": %s},%n",
+                layout.getFunnelWidth(), layout.getFunnelHeight()));
+        json.append(format("  \"flippers\": {\"length\": %s, \"width\": %s, \"restAngle\": %s, "
+                        + "\"activeAngle\": %s, \"rotationSpeed\": %s},%n",
+                flippers.getLength(), flippers.getWidth(), Math.toDegrees(flippers.getRestAngle()),
+                Math.toDegrees(flippers.getActiveAngle()), flippers.getRotationSpeed()));
+        json.append("  \"targets\": [\n");
+        List<TableLayout.TargetSpec> targets = layout.getTargets();
+        for (int i = 0; i < targets.size(); i++) {
+            TableLayout.TargetSpec target = targets.get(i);
+            json.append(format("    {\"x\": %s, \"y\": %s, \"width\": %s, \"height\": %s, \"color\": \"#%06X\", "
+                            + "\"points\": %d, \"bounce\": %s}%s%n",
+                    target.getX(), target.getY(), target.getWidth(), target.getHeight(), target.getColor(),
+                    target.getPoints(), target.getBounceStrength(), i + 1 < targets.size() ? "," : ""));
+        }
+        json.append("  ],\n  \"bumpers\": [\n");
+        List<TableLayout.BumperSpec> bumpers = layout.getBumpers();
+        for (int i = 0; i < bumpers.size(); i++) {
+            TableLayout.BumperSpec bumper = bumpers.get(i);
+            json.append(format("    {\"x\": %s, \"y\": %s, \"radius\": %s, \"color\": \"#%06X\", "
+                            + "\"points\": %d, \"bounce\": %s}%s%n",
+                    bumper.getX(), bumper.getY(), bumper.getRadius(), bumper.getColor(),
+                    bumper.getPoints(), bumper.getBounceStrength(), i + 1 < bumpers.size() ? "," : ""));
+        }
+        json.append("  ]\n}\n");
+        return json.toString();
+    }
+
+    private static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, toPlain(args));
+    }
+
+    //дробные числа без лишних нулей и хвостов от перевода углов, целые - без точки
+    private static Object[] toPlain(Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Double) {
+                double value = Math.round((Double) args[i] * 1e9) / 1e9;
+                args[i] = value == Math.rint(value) && Math.abs(value) < 1e15
+                        ? String.valueOf((long) value) : String.valueOf(value);
+            }
+        }
+        return args;
+    }
+
+    static TableLayout readCache(Path cache, long sourceSize, long sourceModified) {
+        if (!Files.isRegularFile(cache)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != sourceSize || buffer.getLong() != sourceModified) {
+                return null;
+            }
+            return decode(buffer);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            //испорченный кэш просто пересобирается
+            return null;
+        }
+    }
+
+    static void writeCache(Path cache, TableLayout layout, long sourceSize, long sourceModified) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 8 + 8 + encodedSize(layout));
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putLong(sourceModified);
+        encode(layout, buffer);
+
+        //запись через временный файл, чтобы параллельная загрузка не увидела половину кэша
+        Path temporary = Paths.get(cache.toString() + ".tmp");
+        Files.write(temporary, buffer.array());
+        Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //двоичная форма стола без заголовка кэша; в ней же стол хранится в журнале сеанса
+    static int encodedSize(TableLayout layout) {
+        return 7 * 8 + 4 + layout.getTargets().size() * (5 * 8 + 2 * 4)
+                + 4 + layout.getBumpers().size() * (4 * 8 + 2 * 4);
+    }
+
+    static void encode(TableLayout layout, ByteBuffer buffer) {
+        List<TableLayout.TargetSpec> targets = layout.getTargets();
+        List<TableLayout.BumperSpec> bumpers = layout.getBumpers();
+        buffer.putDouble(layout.getFunnelWidth()).putDouble(layout.getFunnelHeight());
+        TableLayout.FlipperSpec flippers = layout.getFlippers();
+        buffer.putDouble(flippers.getLength()).putDouble(flippers.getWidth()).putDouble(flippers.getRestAngle())
+                .putDouble(flippers.getActiveAngle()).putDouble(flippers.getRotationSpeed());
+        buffer.putInt(targets.size());
+        for (TableLayout.TargetSpec target : targets) {
+            buffer.putDouble(target.getX()).putDouble(target.getY()).putDouble(target.getWidth())
+                    .putDouble(target.getHeight()).putInt(target.getColor()).putInt(target.getPoints())
+                    .putDouble(target.getBounceStrength());
+        }
+        buffer.putInt(bumpers.size());
+        for (TableLayout.BumperSpec bumper : bumpers) {
+            buffer.putDouble(bumper.getX()).putDouble(bumper.getY()).putDouble(bumper.getRadius())
+                    .putInt(bumper.getColor()).putInt(bumper.getPoints()).putDouble(bumper.getBounceStrength());
+        }
+    }
+
+    //BufferUnderflowException - данные обрезаны, IllegalArgumentException - стол с недопустимыми размерами
+    static TableLayout decode(ByteBuffer buffer) {
+        double funnelWidth = buffer.getDouble();
+        double funnelHeight = buffer.getDouble();
+        TableLayout.FlipperSpec flippers = new TableLayout.FlipperSpec(buffer.getDouble(), buffer.getDouble(),
+                buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+        int targetCount = buffer.getInt();
+        List<TableLayout.TargetSpec> targets = new ArrayList<>(Math.min(targetCount, 1024));
+        for (int i = 0; i < targetCount; i++) {
+            targets.add(new TableLayout.TargetSpec(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                    buffer.getDouble(), buffer.getInt(), buffer.getInt(), buffer.getDouble()));
+        }
+        int bumperCount = buffer.getInt();
+        List<TableLayout.BumperSpec> bumpers = new ArrayList<>(Math.min(bumperCount, 1024));
+        for (int i = 0; i < bumperCount; i++) {
+            bumpers.add(new TableLayout.BumperSpec(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                    buffer.getInt(), buffer.getInt(), buffer.getDouble()));
+        }
+        return new TableLayout(funnelWidth, funnelHeight, flippers, targets, bumpers);
+    }
+
+    private static Map<?, ?> object(Map<?, ?> parent, String name) throws IOException {
+        Object value = parent.get(name);
+        if (value == null) {
+            return Collections.emptyMap();
+        }
+        if (!(value instanceof Map)) {
+            throw new IOException("Поле \"" + name + "\" должно быть объектом");
+        }
+        return (Map<?, ?>) value;
+    }
+
+    private static List<Map<?, ?>> objects(Map<?, ?> parent, String name) throws IOException {
+        Object value = parent.get(name);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (!(value instanceof List)) {
+            throw new IOException("Поле \"" + name + "\" должно быть массивом");
+        }
+        List<Map<?, ?>> result = new ArrayList<>();
+        for (Object item : (List<?>) value) {
+            if (!(item instanceof Map)) {
+                throw new IOException("Элементы \"" + name + "\" должны быть объектами");
+            }
+            result.add((Map<?, ?>) item);
+        }
+        return result;
+    }
+
+    private static double number(Map<?, ?> object, String name, double defaultValue) throws IOException {
+        Object value = object.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Double)) {
+            throw new IOException("Поле \"" + name + "\" должно быть числом");
+        }
+        return (Double) value;
+    }
+
+    private static double required(Map<?, ?> object, String name) throws IOException {
+        if (!object.containsKey(name)) {
+            throw new IOException("Нет обязательного поля \"" + name + "\"");
+        }
+        return number(object, name, 0);
+    }
+
+    //цвет задаётся строкой #RRGGBB
+    private static int color(Map<?, ?> object) throws IOException {
+        Object value = object.get("color");
+        if (value == null) {
+            return 0xFFFFFF;
+        }
+        String text = String.valueOf(value);
+        if (!text.matches("#[0-9a-fA-F]{6}")) {
+            throw new IOException("Цвет должен быть в виде #RRGGBB: " + text);
+        }
+        return Integer.parseInt(text.substring(1), 16);
+    }
+}
@@ -0,0 +1,86 @@
+package gui.game;
+
+import log.LogCategory;
+import log.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+//следит за файлом стола и после каждого сохранения отдаёт новый стол симуляции без перезапуска окна;
+//ошибка в файле только пишется в протокол, игра остаётся на прежнем столе
+public class TableLayoutWatcher implements Closeable {
+    //редакторы сохраняют файл в несколько приёмов, ждём, пока запись закончится
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path m_file;
+    private final GameSimulation m_simulation;
+    private final WatchService m_watchService;
+    private final Thread m_thread;
+    private volatile int m_reloadCount = 0;
+
+    public TableLayoutWatcher(Path file, GameSimulation simulation) throws IOException {
+        m_file = file.toAbsolutePath();
+        m_simulation = simulation;
+        m_watchService = m_file.getFileSystem().newWatchService();
+        m_file.getParent().register(m_watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        m_thread = new Thread(this::run, "table watcher");
+        m_thread.setDaemon(true);
+        m_thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = m_watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    changed |= context instanceof Path && m_file.getFileName().equals(context);
+                }
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+                //события, пришедшие за время ожидания, относятся к тому же сохранению
+                WatchKey more;
+                do {
+                    Thread.sleep(SETTLE_MILLIS);
+                    more = m_watchService.poll(0, TimeUnit.MILLISECONDS);
+                    if (more != null) {
+                        more.pollEvents();
+                        more.reset();
+                    }
+                } while (more != null);
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            //наблюдение остановлено
+        }
+    }
+
+    private void reload() {
+        try {
+            m_simulation.submitLayout(TableLayoutLoader.load(m_file));
+            m_reloadCount++;
+            Logger.debug(LogCategory.Game, "Стол перезагружен из " + m_file);
+        } catch (IOException e) {
+            Logger.error(LogCategory.Game, "Не удалось перезагрузить стол: " + e.getMessage());
+        }
+    }
+
+    public int getReloadCount() { return m_reloadCount; }
+
+    @Override
+    public void close() throws IOException {
+        m_watchService.close();
+        m_thread.interrupt();
+    }
+}
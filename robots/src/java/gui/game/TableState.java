@@ -0,0 +1,147 @@
+package gui.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//состояние стола без привязки к Swing: его меняет только симуляция
+public class TableState {
+    public static final int BORDER_MARGIN = 20;
+    public static final int INITIAL_LIVES = 3;
+
+    //парамерты шариков, шарик 0 - основной
+    private final BallStore m_balls = new BallStore();
+
+    private GameState m_gameState = GameState.READY;
+
+    //флиперов
+    private double m_leftFlipperAngle = Math.PI / 6;
+    private double m_rightFlipperAngle = -Math.PI / 6;
+    //точки вращения
+    private double m_leftFlipperPivotX;
+    private double m_leftFlipperPivotY;
+    private double m_rightFlipperPivotX;
+    private double m_rightFlipperPivotY;
+    //размеры флипперов текущего стола, нужны отрисовке
+    private double m_flipperLength = FlipperController.FLIPPER_LENGTH;
+    private double m_flipperWidth = FlipperController.FLIPPER_WIDTH;
+
+    //управление приходит из потока ввода, поэтому только эти флаги volatile
+    private volatile boolean m_leftFlipperActive = false;
+    private volatile boolean m_rightFlipperActive = false;
+
+    //границы поля
+    private int m_fieldWidth = 500;
+    private int m_fieldHeight = 400;
+
+    private int m_score = 0;
+    private int m_lives = INITIAL_LIVES;
+    private boolean m_ballLost = false;
+
+    private double m_topLeftX, m_topLeftY;
+    private double m_topRightX, m_topRightY;
+    private double m_funnelLeftX, m_funnelLeftY;
+    private double m_funnelRightX, m_funnelRightY;
+
+    private final List<Target> m_targets = new ArrayList<>();
+    private final List<Bumper> m_bumpers = new ArrayList<>();
+    //растёт при каждом перестроении стола, чтобы снимки знали, когда копировать объекты
+    private int m_layoutVersion = 0;
+
+    public BallStore getBalls() { return m_balls; }
+
+    public double getBallPositionX() { return m_balls.x[0]; }
+    public void setBallPositionX(double x) { m_balls.x[0] = x; }
+
+    public double getBallPositionY() { return m_balls.y[0]; }
+    public void setBallPositionY(double y) { m_balls.y[0] = y; }
+
+    public double getBallVelocityX() { return m_balls.vx[0]; }
+    public void setBallVelocityX(double vx) { m_balls.vx[0] = vx; }
+
+    public double getBallVelocityY() { return m_balls.vy[0]; }
+    public void setBallVelocityY(double vy) { m_balls.vy[0] = vy; }
+
+    public GameState getGameState() { return m_gameState; }
+    public void setGameState(GameState gameState) { m_gameState = gameState; }
+
+    public double getLeftFlipperAngle() { return m_leftFlipperAngle; }
+    public void setLeftFlipperAngle(double angle) { m_leftFlipperAngle = angle; }
+
+    public double getRightFlipperAngle() { return m_rightFlipperAngle; }
+    public void setRightFlipperAngle(double angle) { m_rightFlipperAngle = angle; }
+
+    public double getLeftFlipperPivotX() { return m_leftFlipperPivotX; }
+    public double getLeftFlipperPivotY() { return m_leftFlipperPivotY; }
+    public double getRightFlipperPivotX() { return m_rightFlipperPivotX; }
+    public double getRightFlipperPivotY() { return m_rightFlipperPivotY; }
+
+    public void setLeftFlipperPivot(double x, double y) {
+        m_leftFlipperPivotX = x;
+        m_leftFlipperPivotY = y;
+    }
+
+    public void setRightFlipperPivot(double x, double y) {
+        m_rightFlipperPivotX = x;
+        m_rightFlipperPivotY = y;
+    }
+
+    public double getFlipperLength() { return m_flipperLength; }
+    public double getFlipperWidth() { return m_flipperWidth; }
+
+    public void setFlipperSize(double length, double width) {
+        m_flipperLength = length;
+        m_flipperWidth = width;
+    }
+
+    public boolean isLeftFlipperActive() { return m_leftFlipperActive; }
+    public void setLeftFlipperActive(boolean active) { m_leftFlipperActive = active; }
+
+    public boolean isRightFlipperActive() { return m_rightFlipperActive; }
+    public void setRightFlipperActive(boolean active) { m_rightFlipperActive = active; }
+
+    public int getFieldWidth() { return m_fieldWidth; }
+    public int getFieldHeight() { return m_fieldHeight; }
+
+    public void setFieldSize(int width, int height) {
+        m_fieldWidth = width;
+        m_fieldHeight = height;
+    }
+
+    public int getScore() { return m_score; }
+    public void setScore(int score) { m_score = score; }
+
+    public int getLives() { return m_lives; }
+    public void setLives(int lives) { m_lives = lives; }
+
+    public boolean isBallLost() { return m_ballLost; }
+    public void setBallLost(boolean lost) { m_ballLost = lost; }
+
+    public double getTopLeftX() { return m_topLeftX; }
+    public double getTopLeftY() { return m_topLeftY; }
+    public double getTopRightX() { return m_topRightX; }
+    public double getTopRightY() { return m_topRightY; }
+    public double getFunnelLeftX() { return m_funnelLeftX; }
+    public double getFunnelLeftY() { return m_funnelLeftY; }
+    public double getFunnelRightX() { return m_funnelRightX; }
+    public double getFunnelRightY() { return m_funnelRightY; }
+
+    public void setTop(double leftX, double leftY, double rightX, double rightY) {
+        m_topLeftX = leftX;
+        m_topLeftY = leftY;
+        m_topRightX = rightX;
+        m_topRightY = rightY;
+    }
+
+    public void setFunnel(double leftX, double leftY, double rightX, double rightY) {
+        m_funnelLeftX = leftX;
+        m_funnelLeftY = leftY;
+        m_funnelRightX = rightX;
+        m_funnelRightY = rightY;
+    }
+
+    public List<Target> getTargets() { return m_targets; }
+    public List<Bumper> getBumpers() { return m_bumpers; }
+
+    public int getLayoutVersion() { return m_layoutVersion; }
+    public void incrementLayoutVersion() { m_layoutVersion++; }
+}
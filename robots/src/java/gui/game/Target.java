@@ -4,13 +4,17 @@ import java.awt.*;
 
 
 public class Target {
+    private static final Font POINTS_FONT = new Font("Arial", Font.BOLD, 10);
+
     private final double m_x;
     private final double m_y;
     private final double m_width;
     private final double m_height;
 
-    private Color m_color;
+    private final Color m_baseColor;
     private final Color m_hitColor;
+    //меняет только поток физики, отрисовка берёт подсветку из снимка
+    private boolean m_lit;
 
     private final int m_pointValue;
 
@@ -25,7 +29,7 @@ public class Target {
         this.m_pointValue = pointValue;
 
         this.m_hitColor = Color.YELLOW;
-        this.m_color = baseColor;
+        this.m_baseColor = baseColor;
 
         this.m_bounceStrength = 8.0;
     }
@@ -37,6 +41,13 @@ public class Target {
         this.m_bounceStrength = bounceStrength;
     }
 
+    public double getX() { return m_x; }
+    public double getY() { return m_y; }
+    public double getWidth() { return m_width; }
+    public double getHeight() { return m_height; }
+    public int getPointValue() { return m_pointValue; }
+    public boolean isLit() { return m_lit; }
+
     public double getCenterX() {
         return m_x + m_width / 2;
     }
@@ -66,12 +77,12 @@ public class Target {
 
 
     private void startHitAnimation() {
-        m_color = m_hitColor;
+        m_lit = true;
     }
 
 
-    public void draw(Graphics2D g2d) {
-        g2d.setColor(m_color);
+    public void draw(Graphics2D g2d, boolean lit) {
+        g2d.setColor(lit ? m_hitColor : m_baseColor);
 
         g2d.fillRect((int) m_x, (int) m_y, (int) m_width, (int) m_height);
 
@@ -84,7 +95,7 @@ public class Target {
 
         if (m_width > 30 && m_height > 15) {
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 10));
+            g2d.setFont(POINTS_FONT);
             String pointsText = "+" + m_pointValue;
             int textWidth = g2d.getFontMetrics().stringWidth(pointsText);
             g2d.drawString(pointsText, (int) (m_x + m_width / 2 - (double) textWidth / 2), (int) (m_y + m_height / 2 + 4));
@@ -92,7 +103,8 @@ public class Target {
     }
 
 
-    public double[] getBounceDirection(double ballX, double ballY) {
+    //импульс отскока записывается в result, чтобы не создавать массив на каждое столкновение
+    public Vector2 getBounceDirection(double ballX, double ballY, Vector2 result) {
         double centerX = getCenterX();
         double centerY = getCenterY();
 
@@ -105,7 +117,7 @@ public class Target {
             dy /= length;
         }
 
-        return new double[]{dx * m_bounceStrength, dy * m_bounceStrength};
+        return result.set(dx * m_bounceStrength, dy * m_bounceStrength);
     }
 
     private double calculateDistance(double ballX, double ballY, double centerX, double centerY) {
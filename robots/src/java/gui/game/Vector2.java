@@ -0,0 +1,13 @@
+package gui.game;
+
+//изменяемый двумерный вектор для результатов расчётов без аллокаций в цикле физики
+public final class Vector2 {
+    public double x;
+    public double y;
+
+    public Vector2 set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+}
@@ -0,0 +1,131 @@
+package gui.game;
+
+import java.util.Arrays;
+
+//скомпилированные стенки стола: направление, единичная нормаль внутрь стола и обратный квадрат длины
+//считаются один раз при перестроении стола, поэтому проверка шарика обходится несколькими умножениями
+public final class WallSegments {
+    public static final int DEFAULT_CAPACITY = 4;
+
+    //массивы открыты пакету, чтобы GamePhysics читал их напрямую
+    double[] x1;
+    double[] y1;
+    double[] x2;
+    double[] y2;
+    double[] dirX;
+    double[] dirY;
+    double[] normalX;
+    double[] normalY;
+    double[] inverseLengthSquared;
+    int count;
+
+    public WallSegments() {
+        x1 = new double[DEFAULT_CAPACITY];
+        y1 = new double[DEFAULT_CAPACITY];
+        x2 = new double[DEFAULT_CAPACITY];
+        y2 = new double[DEFAULT_CAPACITY];
+        dirX = new double[DEFAULT_CAPACITY];
+        dirY = new double[DEFAULT_CAPACITY];
+        normalX = new double[DEFAULT_CAPACITY];
+        normalY = new double[DEFAULT_CAPACITY];
+        inverseLengthSquared = new double[DEFAULT_CAPACITY];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    //нормаль направляется в сторону точки (insideX, insideY), то есть внутрь стола; возвращает номер стенки
+    public int add(double startX, double startY, double endX, double endY, double insideX, double insideY) {
+        double ex = endX - startX;
+        double ey = endY - startY;
+        double lengthSquared = ex * ex + ey * ey;
+        if (lengthSquared == 0) {
+            throw new IllegalArgumentException("Стенка нулевой длины: (" + startX + ", " + startY + ")");
+        }
+        if (count == x1.length) {
+            grow();
+        }
+        double inverseLength = 1.0 / Math.sqrt(lengthSquared);
+        double nx = -ey * inverseLength;
+        double ny = ex * inverseLength;
+        if ((insideX - startX) * nx + (insideY - startY) * ny < 0) {
+            nx = -nx;
+            ny = -ny;
+        }
+
+        int index = count++;
+        x1[index] = startX;
+        y1[index] = startY;
+        x2[index] = endX;
+        y2[index] = endY;
+        dirX[index] = ex;
+        dirY[index] = ey;
+        normalX[index] = nx;
+        normalY[index] = ny;
+        inverseLengthSquared[index] = 1.0 / lengthSquared;
+        return index;
+    }
+
+    private void grow() {
+        int size = x1.length * 2;
+        x1 = Arrays.copyOf(x1, size);
+        y1 = Arrays.copyOf(y1, size);
+        x2 = Arrays.copyOf(x2, size);
+        y2 = Arrays.copyOf(y2, size);
+        dirX = Arrays.copyOf(dirX, size);
+        dirY = Arrays.copyOf(dirY, size);
+        normalX = Arrays.copyOf(normalX, size);
+        normalY = Arrays.copyOf(normalY, size);
+        inverseLengthSquared = Arrays.copyOf(inverseLengthSquared, size);
+    }
+
+    //доля длины стенки [0, 1] для ближайшей к точке точки отрезка
+    public double project(int wall, double px, double py) {
+        double t = ((px - x1[wall]) * dirX[wall] + (py - y1[wall]) * dirY[wall]) * inverseLengthSquared[wall];
+        return t < 0 ? 0 : (t > 1 ? 1 : t);
+    }
+
+    //квадрат расстояния от точки до стенки, без корня
+    public double distanceSquared(int wall, double px, double py) {
+        double t = project(wall, px, py);
+        double cx = px - x1[wall] - t * dirX[wall];
+        double cy = py - y1[wall] - t * dirY[wall];
+        return cx * cx + cy * cy;
+    }
+
+    //непрерывная проверка: грань по готовой нормали, концы - как окружности (см. SweptCollision.sweepSegment)
+    public double sweep(int wall, double px, double py, double dx, double dy, double radius) {
+        double nx = normalX[wall];
+        double ny = normalY[wall];
+        double distance = (px - x1[wall]) * nx + (py - y1[wall]) * ny;
+        double approach = dx * nx + dy * ny;
+        if (distance < 0) {
+            distance = -distance;
+            approach = -approach;
+        }
+
+        double best = SweptCollision.NO_HIT;
+        if (approach < 0 && distance >= radius - 2 * SweptCollision.SKIN) {
+            double t = distance > radius ? (distance - radius) / -approach : 0;
+            if (t <= 1) {
+                double projection = ((px + dx * t - x1[wall]) * dirX[wall] + (py + dy * t - y1[wall]) * dirY[wall])
+                        * inverseLengthSquared[wall];
+                if (projection >= 0 && projection <= 1) {
+                    best = t;
+                }
+            }
+        }
+        best = Math.min(best, SweptCollision.sweepCircle(px, py, dx, dy, x1[wall], y1[wall], radius));
+        best = Math.min(best, SweptCollision.sweepCircle(px, py, dx, dy, x2[wall], y2[wall], radius));
+        return best;
+    }
+
+    public int getCount() { return count; }
+    public double getStartX(int wall) { return x1[wall]; }
+    public double getStartY(int wall) { return y1[wall]; }
+    public double getEndX(int wall) { return x2[wall]; }
+    public double getEndY(int wall) { return y2[wall]; }
+    public double getNormalX(int wall) { return normalX[wall]; }
+    public double getNormalY(int wall) { return normalY[wall]; }
+}
@@ -0,0 +1,63 @@
+package gui.game;
+
+import java.awt.Graphics2D;
+
+//переход от координат стола (мира) к пикселям панели: равномерный масштаб и поля по краям, чтобы стол
+//сохранял пропорции. Объект неизменяемый: при смене размера окна создаётся новый, физика об этом не знает
+public final class WorldView {
+    private final double m_worldWidth;
+    private final double m_worldHeight;
+    private final int m_screenWidth;
+    private final int m_screenHeight;
+    private final double m_scale;
+    private final double m_offsetX;
+    private final double m_offsetY;
+
+    public WorldView(double worldWidth, double worldHeight, int screenWidth, int screenHeight) {
+        if (worldWidth <= 0 || worldHeight <= 0) {
+            throw new IllegalArgumentException("Размер мира должен быть положительным: " + worldWidth + "x" + worldHeight);
+        }
+        m_worldWidth = worldWidth;
+        m_worldHeight = worldHeight;
+        m_screenWidth = screenWidth;
+        m_screenHeight = screenHeight;
+        //панель ещё не показана - масштаб 1, рисовать всё равно некуда
+        m_scale = screenWidth > 0 && screenHeight > 0
+                ? Math.min(screenWidth / worldWidth, screenHeight / worldHeight) : 1;
+        m_offsetX = screenWidth > 0 ? (screenWidth - worldWidth * m_scale) / 2 : 0;
+        m_offsetY = screenHeight > 0 ? (screenHeight - worldHeight * m_scale) / 2 : 0;
+    }
+
+    //мир совпадает с экраном
+    public static WorldView identity(int width, int height) {
+        return new WorldView(Math.max(width, 1), Math.max(height, 1), width, height);
+    }
+
+    //дальнейшее рисование идёт в координатах мира
+    public void applyTo(Graphics2D g2d) {
+        g2d.translate(m_offsetX, m_offsetY);
+        g2d.scale(m_scale, m_scale);
+    }
+
+    public double toScreenX(double x) { return m_offsetX + x * m_scale; }
+    public double toScreenY(double y) { return m_offsetY + y * m_scale; }
+    public double toWorldX(double x) { return (x - m_offsetX) / m_scale; }
+    public double toWorldY(double y) { return (y - m_offsetY) / m_scale; }
+
+    //прямоугольник мира добавляется в область экрана с округлением наружу
+    public void addToScreen(DirtyRegion out, double minX, double minY, double maxX, double maxY) {
+        int left = (int) Math.floor(toScreenX(minX));
+        int top = (int) Math.floor(toScreenY(minY));
+        int right = (int) Math.ceil(toScreenX(maxX));
+        int bottom = (int) Math.ceil(toScreenY(maxY));
+        out.add(left, top, right - left, bottom - top);
+    }
+
+    public double getWorldWidth() { return m_worldWidth; }
+    public double getWorldHeight() { return m_worldHeight; }
+    public int getScreenWidth() { return m_screenWidth; }
+    public int getScreenHeight() { return m_screenHeight; }
+    public double getScale() { return m_scale; }
+    public double getOffsetX() { return m_offsetX; }
+    public double getOffsetY() { return m_offsetY; }
+}
@@ -87,6 +87,12 @@ public class ApplicationMenuBar extends JMenuBar { //выделила созда
         });
         menu.add(openLogWindowItem);
 
+        JMenuItem openArcadeTableItem = new JMenuItem("Открыть стол аркады", KeyEvent.VK_A);
+        openArcadeTableItem.addActionListener(event -> {
+            mainFrame.openArcadeTable();
+        });
+        menu.add(openArcadeTableItem);
+
         menu.addSeparator();
 
         //пункт для закрытия игрового окна
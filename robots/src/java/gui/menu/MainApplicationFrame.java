@@ -10,6 +10,7 @@ import java.nio.file.Paths;
 import javax.swing.*;
 
 import gui.*;
+import log.LogCategory;
 import log.Logger;
 
 
@@ -19,6 +20,10 @@ public class MainApplicationFrame extends JFrame
     private LogWindow logWindow;
     private GameWindow gameWindow;
     private static final String PROFILE_FILE = "application_profile.dat";
+    //столы аркады вдвое меньше основного и раскладываются по рабочему столу сеткой
+    private static final int ARCADE_TABLE_WIDTH = 400;
+    private static final int ARCADE_TABLE_HEIGHT = 330;
+    private int arcadeTableCount = 0;
 
     public MainApplicationFrame() {
         //Make the big window be indented 50 pixels from each edge
@@ -65,9 +70,9 @@ public class MainApplicationFrame extends JFrame
     private void deleteProfileFile() {
         File profileFile = new File(PROFILE_FILE);
         if (profileFile.exists() && profileFile.delete()) {
-            Logger.debug("Файл профиля удален");
+            Logger.debug(LogCategory.Profile, "Файл профиля удален");
         } else if (profileFile.exists()) {
-                Logger.error("Не удалось удалить файл профиля");
+                Logger.error(LogCategory.Profile, "Не удалось удалить файл профиля");
         }
     }
 
@@ -85,7 +90,7 @@ public class MainApplicationFrame extends JFrame
                 desktopPane.setComponentZOrder(gameWindow, 0);
                 desktopPane.setComponentZOrder(logWindow, 1);
             } catch (Exception e) {
-                Logger.error("Ошибка при установке порядка окон по умолчанию: " + e.getMessage());
+                Logger.error(LogCategory.Window, "Ошибка при установке порядка окон по умолчанию: " + e.getMessage());
             }
         }
     }
@@ -107,7 +112,7 @@ public class MainApplicationFrame extends JFrame
                     try {
                         logWindow.setIcon(true);
                     } catch (Exception e) {
-                        Logger.error("Не удалось свернуть окно: " + e.getMessage());
+                        Logger.error(LogCategory.Window, "Не удалось свернуть окно: " + e.getMessage());
                     }
                 }
             }
@@ -128,7 +133,7 @@ public class MainApplicationFrame extends JFrame
                 desktopPane.setComponentZOrder(gameWindow, 0);
                 desktopPane.setComponentZOrder(logWindow, 1);
             } catch (Exception e) {
-                Logger.error("Ошибка при установке порядка окон: " + e.getMessage());
+                Logger.error(LogCategory.Window, "Ошибка при установке порядка окон: " + e.getMessage());
             }
         }
     }
@@ -146,9 +151,9 @@ public class MainApplicationFrame extends JFrame
 
         try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(Paths.get(PROFILE_FILE)))) {
             oos.writeObject(profile);
-            Logger.debug("Профиль приложения сохранен");
+            Logger.debug(LogCategory.Profile, "Профиль приложения сохранен");
         } catch (IOException e) {
-            Logger.error("Ошибка при сохранении профиля: " + e.getMessage());
+            Logger.error(LogCategory.Profile, "Ошибка при сохранении профиля: " + e.getMessage());
         }
     }
 
@@ -170,10 +175,10 @@ public class MainApplicationFrame extends JFrame
         try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(Paths.get(PROFILE_FILE)))) {
             ApplicationProfile profile = (ApplicationProfile) ois.readObject();
             profile.setProfileExists(true);
-            Logger.debug("Профиль приложения загружен");
+            Logger.debug(LogCategory.Profile, "Профиль приложения загружен");
             return profile;
         } catch (IOException | ClassNotFoundException e) {
-            Logger.error("Ошибка при загрузке профиля: " + e.getMessage());
+            Logger.error(LogCategory.Profile, "Ошибка при загрузке профиля: " + e.getMessage());
             return null;
         }
     }
@@ -197,7 +202,7 @@ public class MainApplicationFrame extends JFrame
         boolean confirmed = ConfirmationDialog.showExitConfirmation();
         if (confirmed) {
             saveProfile();
-            Logger.debug("Приложение завершает работу");
+            Logger.debug(LogCategory.Window, "Приложение завершает работу");
 
             dispose();
             System.exit(0);
@@ -211,7 +216,7 @@ public class MainApplicationFrame extends JFrame
         logWindow.setSize(300, 800);
         setMinimumSize(logWindow.getSize());
         logWindow.pack();
-        Logger.debug("Протокол работает");
+        Logger.debug(LogCategory.Window, "Протокол работает");
         return logWindow;
     }
 
@@ -247,7 +252,7 @@ public class MainApplicationFrame extends JFrame
                 window.setSelected(true);
                 window.toFront();
             } catch (Exception ex) {
-                Logger.debug("Ошибка при активации окна: " + ex.getMessage());
+                Logger.debug(LogCategory.Window, "Ошибка при активации окна: " + ex.getMessage());
             }
         }
     }
@@ -263,6 +268,19 @@ public class MainApplicationFrame extends JFrame
         }
     }
 
+    //дополнительный стол аркады; сколько бы их ни было, все ведёт общий планировщик игровых циклов
+    public void openArcadeTable() {
+        int index = arcadeTableCount++;
+        GameWindow table = new GameWindow(arcadeTableCount);
+        table.setSize(ARCADE_TABLE_WIDTH, ARCADE_TABLE_HEIGHT);
+        int columns = Math.max(1, desktopPane.getWidth() / ARCADE_TABLE_WIDTH);
+        int rows = Math.max(1, desktopPane.getHeight() / ARCADE_TABLE_HEIGHT);
+        table.setLocation((index % columns) * ARCADE_TABLE_WIDTH,
+                (index / columns % rows) * ARCADE_TABLE_HEIGHT);
+        addWindow(table);
+        activateWindow(table);
+    }
+
     public void openLogWindow() {
         if (logWindow == null || logWindow.isClosed()) {
             logWindow = createLogWindow();
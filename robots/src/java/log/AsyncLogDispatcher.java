@@ -0,0 +1,96 @@
+package log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+//фоновый поток протокола: забирает сообщения из LogRingBuffer пачками,
+//складывает их в LogWindowSource и оповещает слушателей один раз на пачку
+final class AsyncLogDispatcher implements Runnable {
+    private static final int BATCH_SIZE = 256;
+    //страховка на случай пропущенного пробуждения
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final LogRingBuffer m_buffer;
+    private final LogWindowSource m_target;
+    private final Thread m_thread;
+    private final AtomicLong m_dropped = new AtomicLong();
+    private long m_reportedDropped = 0;
+    private volatile boolean m_waiting = false;
+    //сколько сообщений уже передано слушателям
+    private volatile long m_delivered = 0;
+
+    AsyncLogDispatcher(int capacity, LogWindowSource target) {
+        m_buffer = new LogRingBuffer(capacity);
+        m_target = target;
+        m_thread = new Thread(this, "log dispatcher");
+        m_thread.setDaemon(true);
+        target.setDispatcher(this);
+        m_thread.start();
+    }
+
+    //вызывается из любых потоков и не блокирует; при переполнении сообщение отбрасывается
+    void submit(LogLevel level, String message) {
+        submit(level, LogCategory.General, message);
+    }
+
+    void submit(LogLevel level, LogCategory category, String message) {
+        if (!m_buffer.offer(level, category, message)) {
+            m_dropped.incrementAndGet();
+        }
+        if (m_waiting) {
+            m_waiting = false;
+            LockSupport.unpark(m_thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            int drained = m_buffer.drain(m_target, BATCH_SIZE);
+            if (drained > 0) {
+                reportDropped();
+                //файлы протокола пишутся уже после пачки и без блокировок протокола
+                m_target.deliverToSinks();
+                m_target.notifyListeners();
+                m_delivered = m_buffer.getReadCount();
+                continue;
+            }
+            m_waiting = true;
+            if (m_buffer.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            m_waiting = false;
+        }
+    }
+
+    private void reportDropped() {
+        long dropped = m_dropped.get();
+        if (dropped != m_reportedDropped) {
+            m_target.appendWithoutNotification(LogLevel.Warning, LogCategory.General,
+                    "Протокол переполнен, пропущено сообщений: " + (dropped - m_reportedDropped),
+                    m_thread.getName(), LogClock.nowNanos());
+            m_reportedDropped = dropped;
+        }
+    }
+
+    //ждёт, пока всё отправленное до вызова дойдёт до слушателей; false, если не дождались
+    boolean flush(long timeoutMillis) {
+        if (Thread.currentThread() == m_thread) {
+            return false;
+        }
+        long target = m_buffer.getWrittenCount();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (m_delivered < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.unpark(m_thread);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        return true;
+    }
+
+    long getDroppedCount() { return m_dropped.get(); }
+    boolean isDispatcherThread() { return Thread.currentThread() == m_thread; }
+}
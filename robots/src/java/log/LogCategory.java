@@ -0,0 +1,12 @@
+package log;
+
+//источник сообщения, по нему протокол можно фильтровать
+public enum LogCategory
+{
+    General,
+    Game,
+    Physics,
+    Renderer,
+    Window,
+    Profile
+}
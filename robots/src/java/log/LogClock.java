@@ -0,0 +1,17 @@
+package log;
+
+//время протокола в наносекундах от эпохи: точность и монотонность nanoTime, привязанные к часам системы при запуске
+final class LogClock
+{
+    private static final long EPOCH_OFFSET_NANOS =
+            System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+
+    private LogClock()
+    {
+    }
+
+    static long nowNanos()
+    {
+        return EPOCH_OFFSET_NANOS + System.nanoTime();
+    }
+}
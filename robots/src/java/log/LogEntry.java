@@ -3,12 +3,28 @@ package log;
 public class LogEntry
 {
     private final LogLevel m_logLevel;
+    private final LogCategory m_category;
     private final String m_strMessage;
+    private final String m_threadName;
+    //номер записи в LogWindowSource, -1 для записей вне протокола
+    private final long m_sequence;
+    //момент вызова Logger в наносекундах от эпохи, а не момент попадания в протокол
+    private final long m_timestampNanos;
     
     public LogEntry(LogLevel logLevel, String strMessage)
+    {
+        this(logLevel, LogCategory.General, strMessage, Thread.currentThread().getName(), -1, LogClock.nowNanos());
+    }
+
+    public LogEntry(LogLevel logLevel, LogCategory category, String strMessage,
+                    String threadName, long sequence, long timestampNanos)
     {
         m_strMessage = strMessage;
         m_logLevel = logLevel;
+        m_category = category;
+        m_threadName = threadName;
+        m_sequence = sequence;
+        m_timestampNanos = timestampNanos;
     }
     
     public String getMessage()
@@ -20,5 +36,29 @@ public class LogEntry
     {
         return m_logLevel;
     }
-}
 
+    public LogCategory getCategory()
+    {
+        return m_category;
+    }
+
+    public String getThreadName()
+    {
+        return m_threadName;
+    }
+
+    public long getSequence()
+    {
+        return m_sequence;
+    }
+
+    public long getTimestampNanos()
+    {
+        return m_timestampNanos;
+    }
+
+    public long getTimestampMillis()
+    {
+        return m_timestampNanos / 1_000_000L;
+    }
+}
@@ -0,0 +1,85 @@
+package log;
+
+import java.util.EnumSet;
+
+//условия выборки из LogWindowSource.query; без условий подходит любая запись
+public final class LogQuery
+{
+    private LogLevel m_minimumLevel = LogLevel.Trace;
+    private final EnumSet<LogCategory> m_categories = EnumSet.allOf(LogCategory.class);
+    private long m_fromNanos = Long.MIN_VALUE;
+    private long m_toNanos = Long.MAX_VALUE;
+
+    public static LogQuery all()
+    {
+        return new LogQuery();
+    }
+
+    public LogQuery minimumLevel(LogLevel logLevel)
+    {
+        m_minimumLevel = logLevel;
+        return this;
+    }
+
+    public LogQuery categories(LogCategory category, LogCategory... others)
+    {
+        m_categories.clear();
+        m_categories.add(category);
+        for (LogCategory other : others)
+        {
+            m_categories.add(other);
+        }
+        return this;
+    }
+
+    //записи со временем из [fromNanos, toNanos), время в наносекундах от эпохи, как в LogEntry
+    public LogQuery between(long fromNanos, long toNanos)
+    {
+        m_fromNanos = fromNanos;
+        m_toNanos = toNanos;
+        return this;
+    }
+
+    public LogQuery since(long fromNanos)
+    {
+        return between(fromNanos, Long.MAX_VALUE);
+    }
+
+    boolean matches(LogEntry entry)
+    {
+        return entry.getLevel().level() >= m_minimumLevel.level()
+                && m_categories.contains(entry.getCategory())
+                && entry.getTimestampNanos() >= m_fromNanos
+                && entry.getTimestampNanos() < m_toNanos;
+    }
+
+    boolean filtersLevel()
+    {
+        return m_minimumLevel.level() > LogLevel.Trace.level();
+    }
+
+    boolean filtersCategory()
+    {
+        return m_categories.size() < LogCategory.values().length;
+    }
+
+    LogLevel getMinimumLevel()
+    {
+        return m_minimumLevel;
+    }
+
+    EnumSet<LogCategory> getCategories()
+    {
+        return m_categories;
+    }
+
+    long getFromNanos()
+    {
+        return m_fromNanos;
+    }
+
+    long getToNanos()
+    {
+        return m_toNanos;
+    }
+}
@@ -0,0 +1,104 @@
+package log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//ограниченная очередь без блокировок: писать могут любые потоки, читает один поток-диспетчер;
+//у каждой ячейки свой номер, по нему писатель видит, свободна ли ячейка, а читатель - заполнена ли
+final class LogRingBuffer {
+    private final int m_mask;
+    private final LogLevel[] m_levels;
+    private final LogCategory[] m_categories;
+    private final String[] m_messages;
+    private final String[] m_threadNames;
+    private final long[] m_timestamps;
+    private final AtomicLongArray m_sequences;
+    //следующая позиция для записи, её занимают через CAS
+    private final AtomicLong m_tail = new AtomicLong();
+    //следующая позиция для чтения, меняет только читатель
+    private volatile long m_head = 0;
+
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        m_mask = size - 1;
+        m_levels = new LogLevel[size];
+        m_categories = new LogCategory[size];
+        m_messages = new String[size];
+        m_threadNames = new String[size];
+        m_timestamps = new long[size];
+        m_sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            m_sequences.set(i, i);
+        }
+    }
+
+    //false, если очередь заполнена; никогда не ждёт
+    boolean offer(LogLevel level, String message) {
+        return offer(level, LogCategory.General, message);
+    }
+
+    //время и поток запоминаются здесь, в вызывающем потоке
+    boolean offer(LogLevel level, LogCategory category, String message) {
+        long timestampNanos = LogClock.nowNanos();
+        long position = m_tail.get();
+        int index;
+        while (true) {
+            index = (int) position & m_mask;
+            long difference = m_sequences.get(index) - position;
+            if (difference == 0) {
+                if (m_tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = m_tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = m_tail.get();
+            }
+        }
+        m_levels[index] = level;
+        m_categories[index] = category;
+        m_messages[index] = message;
+        m_threadNames[index] = Thread.currentThread().getName();
+        m_timestamps[index] = timestampNanos;
+        //публикация: читатель увидит запись только после этой отметки
+        m_sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    //только читатель: передаёт до maxCount записей в consumer, возвращает их число
+    int drain(LogWindowSource consumer, int maxCount) {
+        long head = m_head;
+        int drained = 0;
+        while (drained < maxCount) {
+            int index = (int) head & m_mask;
+            if (m_sequences.get(index) != head + 1) {
+                break;
+            }
+            LogLevel level = m_levels[index];
+            LogCategory category = m_categories[index];
+            String message = m_messages[index];
+            String threadName = m_threadNames[index];
+            long timestampNanos = m_timestamps[index];
+            m_levels[index] = null;
+            m_categories[index] = null;
+            m_messages[index] = null;
+            m_threadNames[index] = null;
+            m_sequences.lazySet(index, head + m_mask + 1);
+            head++;
+            drained++;
+            consumer.appendWithoutNotification(level, category, message, threadName, timestampNanos);
+        }
+        m_head = head;
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return m_head == m_tail.get();
+    }
+
+    //сколько позиций занято писателями за всё время
+    long getWrittenCount() { return m_tail.get(); }
+    long getReadCount() { return m_head; }
+    int getCapacity() { return m_mask + 1; }
+}
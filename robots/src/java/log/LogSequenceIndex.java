@@ -0,0 +1,59 @@
+package log;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//номера записей одного уровня или одной категории по возрастанию, последние capacity штук;
+//ёмкость та же, что у протокола, поэтому индекс не теряет ни одной хранящейся записи
+final class LogSequenceIndex {
+    private final int m_capacity;
+    private final AtomicLongArray m_sequences;
+    //сколько номеров добавлено за всё время
+    private volatile long m_count = 0;
+
+    LogSequenceIndex(int capacity) {
+        m_capacity = capacity;
+        m_sequences = new AtomicLongArray(capacity);
+    }
+
+    //только писатель протокола
+    void add(long sequence) {
+        long count = m_count;
+        m_sequences.lazySet((int) (count % m_capacity), sequence);
+        m_count = count + 1;
+    }
+
+    //дописывает в out номера из [from, to), начиная с позиции size; возвращает новый размер.
+    //читатель не блокирует писателя: если тот успел перезаписать прочитанные ячейки, чтение повторяется
+    int collect(long from, long to, long[] out, int size) {
+        while (true) {
+            long count = m_count;
+            long first = Math.max(0, count - m_capacity);
+            long low = first;
+            long high = count;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (m_sequences.get((int) (middle % m_capacity)) < from) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            int newSize = size;
+            for (long position = low; position < count; position++) {
+                long sequence = m_sequences.get((int) (position % m_capacity));
+                if (sequence >= to) {
+                    break;
+                }
+                out[newSize++] = sequence;
+            }
+            if (m_count - m_capacity <= first) {
+                return newSize;
+            }
+        }
+    }
+
+    //сколько номеров хранится, для выбора самого узкого индекса
+    int size() {
+        return (int) Math.min(m_count, m_capacity);
+    }
+}
@@ -0,0 +1,7 @@
+package log;
+
+//получатель записей протокола помимо окна; вызывается в потоке-писателе LogWindowSource после пачки записей
+public interface LogSink
+{
+    void write(LogEntry entry);
+}
@@ -1,19 +1,54 @@
 package log;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+//кольцевой буфер протокола: запись с номером s лежит в ячейке s % ёмкость,
+//новая запись вытесняет самую старую; читатели не блокируются и читают только нужное окно.
+//писатель один и ничего не ждёт: у протокола с диспетчером это поток диспетчера, а append из других
+//потоков уходит в его очередь; без диспетчера писать должен один поток, владелец протокола
 public class LogWindowSource {
     private final int m_iQueueLength;
-    private final BlockingQueue<LogEntry> m_messages;
+    private final AtomicReferenceArray<LogEntry> m_entries;
+    //сколько записей добавлено за всё время, он же номер следующей записи
+    private volatile long m_nextSequence = 0;
+    private volatile AsyncLogDispatcher m_dispatcher;
+
     private final BlockingQueue<LogChangeListener> m_listeners;
     private volatile LogChangeListener[] m_activeListeners;
+    //получатели каждой записи (файл протокола); писатель отдаёт им записи по порядку после пачки,
+    //так что медленный диск не задерживает саму запись
+    private volatile LogSink[] m_sinks = new LogSink[0];
+    private final Object m_sinksLock = new Object();
+    //записи пачки, ещё не отданные получателям; только писатель
+    private final List<LogEntry> m_sinkBatch = new ArrayList<>();
+
+    //индексы для query: номера записей по уровням и по категориям
+    private final LogSequenceIndex[] m_levelIndexes;
+    private final LogSequenceIndex[] m_categoryIndexes;
+    //время записей не убывает с номером, по нему query ищет диапазон двоичным поиском; только писатель
+    private long m_lastTimestampNanos = Long.MIN_VALUE;
 
     public LogWindowSource(int iQueueLength) {
+        if (iQueueLength <= 0) {
+            throw new IllegalArgumentException("Размер протокола должен быть положительным: " + iQueueLength);
+        }
         m_iQueueLength = iQueueLength;
-        m_messages = new ArrayBlockingQueue<>(iQueueLength);
+        m_entries = new AtomicReferenceArray<>(iQueueLength);
         m_listeners = new ArrayBlockingQueue<>(iQueueLength);
+        m_levelIndexes = new LogSequenceIndex[LogLevel.values().length];
+        for (int i = 0; i < m_levelIndexes.length; i++) {
+            m_levelIndexes[i] = new LogSequenceIndex(iQueueLength);
+        }
+        m_categoryIndexes = new LogSequenceIndex[LogCategory.values().length];
+        for (int i = 0; i < m_categoryIndexes.length; i++) {
+            m_categoryIndexes[i] = new LogSequenceIndex(iQueueLength);
+        }
     }
 
     public void registerListener(LogChangeListener listener) {
@@ -28,16 +63,84 @@ public class LogWindowSource {
         updateActiveListeners();
     }
 
+    public void addSink(LogSink sink) {
+        synchronized (m_sinksLock) {
+            LogSink[] sinks = Arrays.copyOf(m_sinks, m_sinks.length + 1);
+            sinks[sinks.length - 1] = sink;
+            m_sinks = sinks;
+        }
+    }
+
+    public void removeSink(LogSink sink) {
+        synchronized (m_sinksLock) {
+            List<LogSink> sinks = new ArrayList<>(Arrays.asList(m_sinks));
+            sinks.remove(sink);
+            m_sinks = sinks.toArray(new LogSink[0]);
+        }
+    }
+
     public void append(LogLevel logLevel, String strMessage) {
-        LogEntry entry = new LogEntry(logLevel, strMessage);
-        m_messages.offer(entry);
-        if (m_messages.size() > m_iQueueLength) {
-            m_messages.poll();
+        append(logLevel, LogCategory.General, strMessage);
+    }
+
+    //диспетчер сам прикрепляется к протоколу, в который пишет
+    void setDispatcher(AsyncLogDispatcher dispatcher) {
+        m_dispatcher = dispatcher;
+    }
+
+    public void append(LogLevel logLevel, LogCategory category, String strMessage) {
+        AsyncLogDispatcher dispatcher = m_dispatcher;
+        if (dispatcher != null && !dispatcher.isDispatcherThread()) {
+            //чужой поток (например, EDT) не пишет сам, а ставит запись в очередь без блокировок
+            dispatcher.submit(logLevel, category, strMessage);
+            return;
         }
+        appendWithoutNotification(logLevel, category, strMessage,
+                Thread.currentThread().getName(), LogClock.nowNanos());
+        deliverToSinks();
         notifyListeners();
     }
 
-    private void notifyListeners() {
+    void appendWithoutNotification(LogLevel logLevel, String strMessage) {
+        appendWithoutNotification(logLevel, LogCategory.General, strMessage,
+                Thread.currentThread().getName(), LogClock.nowNanos());
+    }
+
+    //только писатель, для пачек из AsyncLogDispatcher: слушатели оповещаются один раз после всей пачки,
+    //получатели получают записи в deliverToSinks
+    void appendWithoutNotification(LogLevel logLevel, LogCategory category, String strMessage,
+                                   String threadName, long timestampNanos) {
+        long sequence = m_nextSequence;
+        //потоки, писавшие почти одновременно, могут прийти не по порядку времени - такие записи
+        //получают время предыдущей, расхождение не больше гонки за место в очереди
+        timestampNanos = Math.max(timestampNanos, m_lastTimestampNanos);
+        m_lastTimestampNanos = timestampNanos;
+        LogEntry entry = new LogEntry(logLevel, category, strMessage, threadName, sequence, timestampNanos);
+        m_entries.lazySet((int) (sequence % m_iQueueLength), entry);
+        m_levelIndexes[logLevel.ordinal()].add(sequence);
+        m_categoryIndexes[category.ordinal()].add(sequence);
+        //запись становится видна читателям только после сдвига номера
+        m_nextSequence = sequence + 1;
+        if (m_sinks.length > 0) {
+            m_sinkBatch.add(entry);
+        }
+    }
+
+    //только писатель: отдаёт получателям записи, добавленные с прошлого вызова
+    void deliverToSinks() {
+        if (m_sinkBatch.isEmpty()) {
+            return;
+        }
+        LogSink[] sinks = m_sinks;
+        for (LogEntry entry : m_sinkBatch) {
+            for (LogSink sink : sinks) {
+                sink.write(entry);
+            }
+        }
+        m_sinkBatch.clear();
+    }
+
+    void notifyListeners() {
         LogChangeListener[] activeListeners = m_activeListeners;
         if (activeListeners == null) {
             //если активные слушатели не были инициализированы, обновляем их
@@ -58,17 +161,125 @@ public class LogWindowSource {
     }
 
     public int size() {
-        return m_messages.size();
+        return (int) Math.min(m_nextSequence, m_iQueueLength);
+    }
+
+    public int capacity() {
+        return m_iQueueLength;
+    }
+
+    //номер самой старой записи, которая ещё хранится
+    public long getOldestSequence() {
+        return Math.max(0, m_nextSequence - m_iQueueLength);
+    }
+
+    //номер, который получит следующая запись
+    public long getNextSequence() {
+        return m_nextSequence;
+    }
+
+    //записи с номерами [fromSequence, fromSequence + count); уже вытесненные пропускаются
+    public List<LogEntry> rangeBySequence(long fromSequence, int count) {
+        long next = m_nextSequence;
+        long from = Math.max(fromSequence, Math.max(0, next - m_iQueueLength));
+        long to = Math.min(next, fromSequence + Math.max(0, count));
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+        List<LogEntry> window = new ArrayList<>((int) (to - from));
+        for (long sequence = from; sequence < to; sequence++) {
+            LogEntry entry = m_entries.get((int) (sequence % m_iQueueLength));
+            //пока читали, писатель мог уйти на круг вперёд и занять ячейку
+            if (entry != null && entry.getSequence() == sequence) {
+                window.add(entry);
+            }
+        }
+        return window;
+    }
+
+    //выборка по уровню, категориям и времени: диапазон номеров находится двоичным поиском по времени,
+    //а кандидаты берутся из самого узкого индекса, так что просматриваются только подходящие записи
+    public List<LogEntry> query(LogQuery query) {
+        long oldest = getOldestSequence();
+        long next = m_nextSequence;
+        long from = firstSequenceAtOrAfter(query.getFromNanos(), oldest, next);
+        long to = firstSequenceAtOrAfter(query.getToNanos(), from, next);
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+        if (!query.filtersLevel() && !query.filtersCategory()) {
+            List<LogEntry> window = rangeBySequence(from, (int) (to - from));
+            List<LogEntry> result = new ArrayList<>(window.size());
+            for (LogEntry entry : window) {
+                if (query.matches(entry)) {
+                    result.add(entry);
+                }
+            }
+            return result;
+        }
+
+        List<LogSequenceIndex> indexes = chooseIndexes(query);
+        long[] sequences = new long[(int) (to - from)];
+        int count = 0;
+        for (LogSequenceIndex index : indexes) {
+            count = index.collect(from, to, sequences, count);
+        }
+        if (indexes.size() > 1) {
+            Arrays.sort(sequences, 0, count);
+        }
+        List<LogEntry> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LogEntry entry = m_entries.get((int) (sequences[i] % m_iQueueLength));
+            //запись могла быть вытеснена, пока шёл поиск
+            if (entry != null && entry.getSequence() == sequences[i] && query.matches(entry)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private List<LogSequenceIndex> chooseIndexes(LogQuery query) {
+        List<LogSequenceIndex> byLevel = new ArrayList<>();
+        int levelCandidates = 0;
+        for (LogLevel logLevel : LogLevel.values()) {
+            if (logLevel.level() >= query.getMinimumLevel().level()) {
+                LogSequenceIndex index = m_levelIndexes[logLevel.ordinal()];
+                byLevel.add(index);
+                levelCandidates += index.size();
+            }
+        }
+        List<LogSequenceIndex> byCategory = new ArrayList<>();
+        int categoryCandidates = 0;
+        for (LogCategory category : query.getCategories()) {
+            LogSequenceIndex index = m_categoryIndexes[category.ordinal()];
+            byCategory.add(index);
+            categoryCandidates += index.size();
+        }
+        return categoryCandidates < levelCandidates ? byCategory : byLevel;
+    }
+
+    //первый номер из [low, high) со временем не раньше timestampNanos, high если такого нет
+    private long firstSequenceAtOrAfter(long timestampNanos, long low, long high) {
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            LogEntry entry = m_entries.get((int) (middle % m_iQueueLength));
+            //ячейку уже занял писатель на следующем круге - запись вытеснена и старше любой хранящейся
+            boolean evicted = entry == null || entry.getSequence() != middle;
+            if (evicted || entry.getTimestampNanos() < timestampNanos) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
 
     public Iterable<LogEntry> range(int startFrom, int count) {
-        //возвращаем подсписок сообщений в указанном диапазоне
-        ArrayList<LogEntry> range = new ArrayList<>(m_messages);
-        int end = Math.min(startFrom + count, range.size());
-        return range.subList(startFrom, end);
+        //startFrom отсчитывается от самой старой хранящейся записи
+        return rangeBySequence(getOldestSequence() + Math.max(0, startFrom), count);
     }
 
     public Iterable<LogEntry> all() {
-        return new ArrayList<>(m_messages);
+        return rangeBySequence(getOldestSequence(), m_iQueueLength);
     }
-}
\ No newline at end of file
+}
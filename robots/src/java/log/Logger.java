@@ -1,28 +1,224 @@
 package log;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+
+//сообщения не пишутся в протокол сразу: они попадают в очередь без блокировок,
+//а в LogWindowSource их переносит фоновый поток, так что вызывающий поток (физика, EDT) не ждёт слушателей
 public final class Logger
 {
+    private static final int DISPATCH_QUEUE_CAPACITY = 8192;
+
     private static final LogWindowSource defaultLogSource;
+    private static final AsyncLogDispatcher dispatcher;
+    //сообщения ниже этого уровня отбрасываются до постановки в очередь
+    private static volatile LogLevel minimumLevel;
     static {
         defaultLogSource = new LogWindowSource(100);
+        dispatcher = new AsyncLogDispatcher(DISPATCH_QUEUE_CAPACITY, defaultLogSource);
+        minimumLevel = parseLevel(System.getProperty("log.level"), LogLevel.Debug);
+        attachFileSink(System.getProperty("log.file"));
     }
     
     private Logger()
     {
     }
 
+    public static void trace(String strMessage)
+    {
+        log(LogLevel.Trace, LogCategory.General, strMessage);
+    }
+
+    public static void trace(LogCategory category, String strMessage)
+    {
+        log(LogLevel.Trace, category, strMessage);
+    }
+
+    public static void trace(LogCategory category, Supplier<String> message)
+    {
+        log(LogLevel.Trace, category, message);
+    }
+
     public static void debug(String strMessage)
     {
-        defaultLogSource.append(LogLevel.Debug, strMessage);
+        log(LogLevel.Debug, LogCategory.General, strMessage);
     }
-    
+
+    public static void debug(LogCategory category, String strMessage)
+    {
+        log(LogLevel.Debug, category, strMessage);
+    }
+
+    public static void debug(LogCategory category, Supplier<String> message)
+    {
+        log(LogLevel.Debug, category, message);
+    }
+
+    public static void info(String strMessage)
+    {
+        log(LogLevel.Info, LogCategory.General, strMessage);
+    }
+
+    public static void info(LogCategory category, String strMessage)
+    {
+        log(LogLevel.Info, category, strMessage);
+    }
+
+    public static void info(LogCategory category, Supplier<String> message)
+    {
+        log(LogLevel.Info, category, message);
+    }
+
+    public static void warning(String strMessage)
+    {
+        log(LogLevel.Warning, LogCategory.General, strMessage);
+    }
+
+    public static void warning(LogCategory category, String strMessage)
+    {
+        log(LogLevel.Warning, category, strMessage);
+    }
+
+    public static void warning(LogCategory category, Supplier<String> message)
+    {
+        log(LogLevel.Warning, category, message);
+    }
+
     public static void error(String strMessage)
     {
-        defaultLogSource.append(LogLevel.Error, strMessage);
+        log(LogLevel.Error, LogCategory.General, strMessage);
+    }
+
+    public static void error(LogCategory category, String strMessage)
+    {
+        log(LogLevel.Error, category, strMessage);
+    }
+
+    public static void error(LogCategory category, Supplier<String> message)
+    {
+        log(LogLevel.Error, category, message);
+    }
+
+    public static void fatal(String strMessage)
+    {
+        log(LogLevel.Fatal, LogCategory.General, strMessage);
+    }
+
+    public static void fatal(LogCategory category, String strMessage)
+    {
+        log(LogLevel.Fatal, category, strMessage);
+    }
+
+    public static void fatal(LogCategory category, Supplier<String> message)
+    {
+        log(LogLevel.Fatal, category, message);
+    }
+
+    public static void log(LogLevel logLevel, String strMessage)
+    {
+        log(logLevel, LogCategory.General, strMessage);
+    }
+
+    public static void log(LogLevel logLevel, LogCategory category, String strMessage)
+    {
+        if (isEnabled(logLevel))
+        {
+            dispatcher.submit(logLevel, category, strMessage);
+        }
+    }
+
+    //сообщение собирается, только если уровень включён
+    public static void log(LogLevel logLevel, LogCategory category, Supplier<String> message)
+    {
+        if (isEnabled(logLevel))
+        {
+            dispatcher.submit(logLevel, category, message.get());
+        }
+    }
+
+    //проверка перед сборкой сообщения на горячих путях
+    public static boolean isEnabled(LogLevel logLevel)
+    {
+        return logLevel.level() >= minimumLevel.level();
+    }
+
+    public static boolean isDebugEnabled()
+    {
+        return isEnabled(LogLevel.Debug);
+    }
+
+    public static LogLevel getLevel()
+    {
+        return minimumLevel;
+    }
+
+    public static void setLevel(LogLevel logLevel)
+    {
+        minimumLevel = logLevel;
+    }
+
+    //ждёт, пока уже отправленные сообщения дойдут до протокола
+    public static boolean flush(long timeoutMillis)
+    {
+        return dispatcher.flush(timeoutMillis);
+    }
+
+    //сколько сообщений потеряно из-за переполнения очереди
+    public static long getDroppedCount()
+    {
+        return dispatcher.getDroppedCount();
     }
 
     public static LogWindowSource getDefaultLogSource()
     {
         return defaultLogSource;
     }
+
+    //-Dlog.file=путь сохраняет всю историю в файлах с ротацией по размеру;
+    //запись идёт в потоке диспетчера, вызывающие потоки её не ждут
+    private static void attachFileSink(String path)
+    {
+        if (path == null || path.isEmpty())
+        {
+            return;
+        }
+        try
+        {
+            RollingFileLogSink sink = new RollingFileLogSink(Paths.get(path),
+                    Long.getLong("log.file.maxBytes", RollingFileLogSink.DEFAULT_MAX_FILE_BYTES),
+                    Integer.getInteger("log.file.count", RollingFileLogSink.DEFAULT_MAX_FILES));
+            defaultLogSource.addSink(sink);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                dispatcher.flush(1_000);
+                try
+                {
+                    sink.close();
+                }
+                catch (IOException e)
+                {
+                    System.err.println("Не удалось закрыть файл протокола: " + e.getMessage());
+                }
+            }, "log file closer"));
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            System.err.println("Не удалось открыть файл протокола " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static LogLevel parseLevel(String name, LogLevel defaultLevel)
+    {
+        if (name != null)
+        {
+            for (LogLevel logLevel : LogLevel.values())
+            {
+                if (logLevel.name().equalsIgnoreCase(name.trim()))
+                {
+                    return logLevel;
+                }
+            }
+        }
+        return defaultLevel;
+    }
 }
@@ -0,0 +1,183 @@
+package log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//протокол в файлах: записи копятся в буфере и сбрасываются в FileChannel при заполнении
+//или фоновым потоком раз в FLUSH_INTERVAL_MILLIS; при превышении размера файл уходит в name.1, name.1 в name.2 и т.д.
+public class RollingFileLogSink implements LogSink, Closeable {
+    public static final long DEFAULT_MAX_FILE_BYTES = 10L * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+    private static final long FLUSH_INTERVAL_MILLIS = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS").withZone(ZoneId.systemDefault());
+
+    private final Path m_file;
+    private final long m_maxFileBytes;
+    private final int m_maxFiles;
+    private final ByteBuffer m_buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ScheduledExecutorService m_flusher;
+    private FileChannel m_channel;
+    private long m_fileSize;
+    private boolean m_closed = false;
+
+    public RollingFileLogSink(Path file) throws IOException {
+        this(file, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    //maxFiles - сколько старых файлов хранить помимо текущего
+    public RollingFileLogSink(Path file, long maxFileBytes, int maxFiles) throws IOException {
+        if (maxFileBytes <= 0 || maxFiles < 0) {
+            throw new IllegalArgumentException("Неверные параметры ротации: " + maxFileBytes + ", " + maxFiles);
+        }
+        m_file = file.toAbsolutePath();
+        m_maxFileBytes = maxFileBytes;
+        m_maxFiles = maxFiles;
+        Path directory = m_file.getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        openChannel();
+
+        m_flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log file flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        m_flusher.scheduleWithFixedDelay(this::flushQuietly,
+                FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void write(LogEntry entry) {
+        if (m_closed) {
+            return;
+        }
+        byte[] line = format(entry).getBytes(StandardCharsets.UTF_8);
+        try {
+            long pending = m_fileSize + m_buffer.position();
+            if (pending > 0 && pending + line.length > m_maxFileBytes) {
+                flush();
+                rotate();
+            }
+            if (line.length > m_buffer.remaining()) {
+                flush();
+            }
+            if (line.length > m_buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(line));
+            } else {
+                m_buffer.put(line);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private static String format(LogEntry entry) {
+        long nanos = entry.getTimestampNanos();
+        return TIMESTAMP_FORMAT.format(Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                        Math.floorMod(nanos, 1_000_000_000L)))
+                + ' ' + entry.getLevel().name().toUpperCase()
+                + " [" + entry.getCategory() + "] " + entry.getThreadName()
+                + " - " + entry.getMessage() + System.lineSeparator();
+    }
+
+    public synchronized void flush() throws IOException {
+        if (m_closed || m_buffer.position() == 0) {
+            return;
+        }
+        m_buffer.flip();
+        writeFully(m_buffer);
+        m_buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            m_fileSize += m_channel.write(bytes);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void rotate() throws IOException {
+        m_channel.close();
+        if (m_maxFiles == 0) {
+            Files.delete(m_file);
+        } else {
+            Files.deleteIfExists(rotatedFile(m_maxFiles));
+            for (int i = m_maxFiles - 1; i >= 1; i--) {
+                Path older = rotatedFile(i);
+                if (Files.exists(older)) {
+                    Files.move(older, rotatedFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(m_file, rotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        openChannel();
+    }
+
+    private void openChannel() throws IOException {
+        m_channel = FileChannel.open(m_file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        m_fileSize = m_channel.size();
+    }
+
+    Path rotatedFile(int index) {
+        return Paths.get(m_file.toString() + "." + index);
+    }
+
+    //писать об ошибке протокола в сам протокол бессмысленно
+    private synchronized void fail(IOException e) {
+        if (!m_closed) {
+            System.err.println("Запись протокола в " + m_file + " остановлена: " + e.getMessage());
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        m_closed = true;
+        m_flusher.shutdown();
+        try {
+            m_channel.close();
+        } catch (IOException ignored) {
+            //файл уже недоступен
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        try {
+            flush();
+            m_channel.force(false);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    public Path getFile() { return m_file; }
+}
@@ -0,0 +1,63 @@
+package gui;
+
+import gui.game.BatchSimulator;
+import gui.game.BatchStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSimulatorTest {
+    private static final int GAMES = 12;
+    private static final int MAX_TICKS = 5_000;
+
+    @Test
+    public void testResultsDoNotDependOnParallelism() {
+        BatchStatistics sequential = new BatchSimulator(800, 600, "reactive", MAX_TICKS, 42).run(GAMES, 1);
+        BatchStatistics parallel = new BatchSimulator(800, 600, "reactive", MAX_TICKS, 42).run(GAMES, 4);
+
+        assertEquals(GAMES, sequential.getGames());
+        assertEquals(sequential.getTotalScore(), parallel.getTotalScore());
+        assertEquals(sequential.getTotalTicks(), parallel.getTotalTicks());
+        assertEquals(sequential.getBallLifetimes().getCount(), parallel.getBallLifetimes().getCount());
+        assertEquals(sequential.getBumperHits(), parallel.getBumperHits());
+    }
+
+    @Test
+    public void testStatisticsAreAggregated() {
+        BatchStatistics statistics = new BatchSimulator(800, 600, "random", MAX_TICKS, 7).run(GAMES, 2);
+
+        assertTrue(statistics.getTotalScore() > 0);
+        assertTrue(statistics.getWallHits() + statistics.getBumperHits() + statistics.getTargetHits() > 0);
+        assertTrue(statistics.getCollisionChecks() > statistics.getTotalTicks());
+        assertTrue(statistics.getBallLifetimes().getCount() > 0);
+        assertTrue(statistics.getGameTicks().getMax() <= MAX_TICKS);
+        //закончившаяся игра теряет все жизни
+        assertTrue(statistics.getBallLifetimes().getCount() >= 3 * statistics.getFinishedGames());
+    }
+
+    @Test
+    public void testReactivePolicyKeepsBallLongerThanIdle() {
+        BatchStatistics idle = new BatchSimulator(800, 600, "idle", MAX_TICKS, 3).run(GAMES, 2);
+        BatchStatistics reactive = new BatchSimulator(800, 600, "reactive", MAX_TICKS, 3).run(GAMES, 2);
+
+        assertTrue(reactive.getBallLifetimes().getMean() > idle.getBallLifetimes().getMean(),
+                reactive.getBallLifetimes().getMean() + " <= " + idle.getBallLifetimes().getMean());
+    }
+
+    @Test
+    public void testPolicyRandomIsIndependentFromLaunch() {
+        for (long seed = 0; seed < 100; seed++) {
+            long policySeed = BatchSimulator.policySeed(seed);
+            assertNotEquals(seed, policySeed);
+            //первые числа двух генераторов не совпадают, так что нажатия не повторяют скорости запуска
+            assertNotEquals(new Random(seed).nextLong(), new Random(policySeed).nextLong());
+        }
+    }
+
+    @Test
+    public void testUnknownPolicyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchSimulator(800, 600, "magic", 10, 1));
+    }
+}
@@ -0,0 +1,83 @@
+package gui;
+
+import gui.game.Bumper;
+import gui.game.CollisionEvents;
+import gui.game.CollisionListener;
+import gui.game.CollisionStatistics;
+import gui.game.GameSimulation;
+import gui.game.GameState;
+import gui.game.TableState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static gui.game.GamePhysics.BALL_RADIUS;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CollisionEventsTest {
+    private final List<String> received = new ArrayList<>();
+    private final CollisionListener recorder = (kind, object, ball, x, y, impulse, tick) ->
+            received.add(kind + ":" + object + ":" + ball + "@" + tick);
+
+    @BeforeEach
+    public void setUp() {
+        received.clear();
+    }
+
+    @Test
+    public void testEventsAreDeliveredOnDispatchInOrder() {
+        CollisionEvents events = new CollisionEvents();
+        events.addListener(recorder);
+        events.setTick(5);
+        events.publish(CollisionEvents.BUMPER, 2, 0, 10, 20, 3.5);
+        events.publish(CollisionEvents.WALL, CollisionEvents.LEFT, 1, 0, 0, 1);
+
+        assertTrue(received.isEmpty());
+        assertEquals(2, events.getPendingCount());
+        assertEquals(2, events.dispatch());
+        assertEquals("[3:2:0@5, 0:0:1@5]", received.toString());
+        assertEquals(0, events.dispatch());
+
+        events.removeListener(recorder);
+        events.publish(CollisionEvents.TARGET, 0, 0, 0, 0, 0);
+        events.dispatch();
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    public void testOverflowDispatchesEarlyWithoutLoss() {
+        CollisionEvents events = new CollisionEvents(4);
+        events.addListener(recorder);
+        for (int i = 0; i < 10; i++) {
+            events.publish(CollisionEvents.FLIPPER, CollisionEvents.RIGHT, i, 0, 0, 0);
+        }
+        assertEquals(8, received.size());
+        events.dispatch();
+        assertEquals(10, received.size());
+        assertEquals("1:1:9@0", received.get(9));
+    }
+
+    @Test
+    public void testBumperHitIsScoredAndCountedAtEndOfTick() {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        TableState state = simulation.getState();
+        state.setGameState(GameState.PLAYING);
+        simulation.getPhysics().getCollisionEvents().addListener(recorder);
+        Bumper bumper = state.getBumpers().get(1);
+
+        state.setBallPositionX(bumper.getX());
+        state.setBallPositionY(bumper.getY() - bumper.getRadius() - BALL_RADIUS - 2);
+        state.setBallVelocityX(0);
+        state.setBallVelocityY(5);
+        simulation.tick();
+
+        CollisionStatistics statistics = simulation.getCollisionStatistics();
+        assertEquals(1, statistics.getBumperHits());
+        assertEquals(bumper.getPointValue(), state.getScore());
+        assertTrue(statistics.getAverageImpulse(CollisionEvents.BUMPER) > 0);
+        assertEquals("[3:1:0@0]", received.toString());
+        assertEquals(0, simulation.getPhysics().getCollisionEvents().getPendingCount());
+    }
+}
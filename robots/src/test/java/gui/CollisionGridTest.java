@@ -0,0 +1,67 @@
+package gui;
+
+import gui.game.CollisionGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//широкая фаза должна находить всё, что находит полный перебор
+public class CollisionGridTest {
+    @Test
+    public void testQueryMatchesLinearScan() {
+        Random random = new Random(7);
+        int count = 500;
+        double[] minX = new double[count];
+        double[] minY = new double[count];
+        double[] maxX = new double[count];
+        double[] maxY = new double[count];
+        for (int i = 0; i < count; i++) {
+            minX[i] = random.nextDouble() * 2000;
+            minY[i] = random.nextDouble() * 1500;
+            maxX[i] = minX[i] + 5 + random.nextDouble() * 100;
+            maxY[i] = minY[i] + 5 + random.nextDouble() * 100;
+        }
+
+        CollisionGrid grid = new CollisionGrid();
+        grid.build(minX, minY, maxX, maxY, count);
+        int[] result = new int[count];
+
+        for (int q = 0; q < 1000; q++) {
+            double qx = random.nextDouble() * 2200 - 100;
+            double qy = random.nextDouble() * 1700 - 100;
+            double qMaxX = qx + 12;
+            double qMaxY = qy + 12;
+
+            int found = grid.query(qx, qy, qMaxX, qMaxY, result);
+
+            for (int i = 1; i < found; i++) {
+                assertTrue(result[i - 1] < result[i], "кандидаты должны идти по возрастанию без повторов");
+            }
+            for (int i = 0; i < count; i++) {
+                boolean overlaps = minX[i] <= qMaxX && maxX[i] >= qx && minY[i] <= qMaxY && maxY[i] >= qy;
+                if (overlaps) {
+                    assertTrue(contains(result, found, i), "пропущен объект " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyGridReturnsNothing() {
+        CollisionGrid grid = new CollisionGrid();
+        grid.build(new double[0], new double[0], new double[0], new double[0], 0);
+
+        assertEquals(0, grid.query(0, 0, 100, 100, new int[0]));
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
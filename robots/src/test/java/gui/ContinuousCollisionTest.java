@@ -0,0 +1,157 @@
+package gui;
+
+import gui.game.BallStore;
+import gui.game.Bumper;
+import gui.game.GamePhysics;
+import gui.game.GameSimulation;
+import gui.game.GameState;
+import gui.game.SweptCollision;
+import gui.game.TableState;
+import gui.game.WallSegments;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static gui.game.GamePhysics.BALL_RADIUS;
+import static org.junit.jupiter.api.Assertions.*;
+
+//быстрый шарик не должен проскакивать препятствия
+public class ContinuousCollisionTest {
+    private GameSimulation simulation;
+    private TableState state;
+    private GamePhysics physics;
+
+    @BeforeEach
+    public void setUp() {
+        simulation = new GameSimulation(800, 600);
+        state = simulation.getState();
+        physics = simulation.getPhysics();
+        state.setGameState(GameState.PLAYING);
+    }
+
+    @Test
+    public void testSweepCircleFindsContactInsideStep() {
+        double t = SweptCollision.sweepCircle(0, 0, 100, 0, 50, 0, 10);
+
+        assertEquals(0.4, t, 1e-9);
+        assertEquals(SweptCollision.NO_HIT, SweptCollision.sweepCircle(0, 0, -100, 0, 50, 0, 10), 0.0);
+        assertEquals(SweptCollision.NO_HIT, SweptCollision.sweepCircle(0, 0, 10, 0, 50, 0, 10), 0.0);
+    }
+
+    @Test
+    public void testSweepSegmentHitsFaceAndEnds() {
+        assertEquals(0.4, SweptCollision.sweepSegment(0, 0, 0, 100, -50, 50, 50, 50, 10), 1e-9);
+        assertEquals(0.4, SweptCollision.sweepSegment(-50, 0, 0, 100, -50, 50, 50, 50, 10), 1e-9);
+        assertEquals(SweptCollision.NO_HIT, SweptCollision.sweepSegment(100, 0, 0, 100, -50, 50, 50, 50, 10), 0.0);
+    }
+
+    @Test
+    public void testSweepBoxHitsFaceAndCorner() {
+        assertEquals(0.4, SweptCollision.sweepBox(0, 0, 0, 100, -20, 50, 20, 60, 10), 1e-9);
+        //в угол рамки шарик попадает позже, чем в расширенный прямоугольник
+        double corner = SweptCollision.sweepBox(-30, 20, 40, 40, 0, 50, 20, 60, 10);
+        assertEquals(SweptCollision.sweepCircle(-30, 20, 40, 40, 0, 50, 10), corner, 1e-9);
+        assertTrue(corner > 0.5 && corner < 1);
+    }
+
+    @Test
+    public void testCompiledWallMatchesSegmentSweep() {
+        WallSegments walls = new WallSegments();
+        int wall = walls.add(-50, 50, 50, 50, 0, 0);
+
+        //нормаль смотрит к точке внутри стола
+        assertEquals(0, walls.getNormalX(wall), 1e-12);
+        assertEquals(-1, walls.getNormalY(wall), 1e-12);
+        assertEquals(400, walls.distanceSquared(wall, 10, 30), 1e-9);
+        assertEquals(200, walls.distanceSquared(wall, 60, 40), 1e-9);
+
+        double[][] moves = {{0, 0, 0, 100}, {-50, 0, 0, 100}, {100, 0, 0, 100}, {-30, 0, 60, 80}, {0, 100, 0, -100}};
+        for (double[] move : moves) {
+            assertEquals(SweptCollision.sweepSegment(move[0], move[1], move[2], move[3], -50, 50, 50, 50, 10),
+                    walls.sweep(wall, move[0], move[1], move[2], move[3], 10), 1e-12);
+        }
+    }
+
+    @Test
+    public void testTableWallsFaceInside() {
+        WallSegments walls = physics.getWalls();
+        assertEquals(2, walls.getCount());
+        assertTrue(walls.getNormalX(0) > 0, "левая стенка должна смотреть вправо");
+        assertTrue(walls.getNormalX(1) < 0, "правая стенка должна смотреть влево");
+        assertEquals(state.getTopLeftX(), walls.getEndX(0), 0.0);
+
+        simulation.resize(1000, 700);
+        assertEquals(state.getTopRightX(), physics.getWalls().getEndX(1), 0.0);
+    }
+
+    @Test
+    public void testFastBallDoesNotTunnelThroughBumper() {
+        Bumper bumper = state.getBumpers().get(0);
+        int score = state.getScore();
+
+        state.setBallPositionX(bumper.getX());
+        state.setBallPositionY(bumper.getY() - bumper.getRadius() - BALL_RADIUS - 20);
+        state.setBallVelocityX(0);
+        state.setBallVelocityY(80);
+
+        physics.updatePhysics();
+        physics.getCollisionEvents().dispatch();
+
+        assertTrue(state.getBallPositionY() < bumper.getY(), "шарик прошёл сквозь бампер");
+        assertTrue(state.getBallVelocityY() < 0);
+        assertTrue(state.getScore() > score);
+    }
+
+    @Test
+    public void testFastBallDoesNotTunnelThroughWall() {
+        double wallX = (state.getFunnelLeftX() + state.getTopLeftX()) / 2;
+        double wallY = (state.getFunnelLeftY() + state.getTopLeftY()) / 2;
+
+        state.setBallPositionX(wallX + 30);
+        state.setBallPositionY(wallY);
+        state.setBallVelocityX(-120);
+        state.setBallVelocityY(0);
+
+        physics.updatePhysics();
+
+        assertTrue(sideOfLeftWall(state.getBallPositionX(), state.getBallPositionY()) > 0,
+                "шарик оказался за стенкой");
+    }
+
+    @Test
+    public void testLargeStepsKeepBallsOnTable() {
+        simulation.setTickMillis(GameSimulation.TICK_MILLIS * 3);
+        simulation.startGame();
+        for (int i = 0; i < 20; i++) {
+            simulation.addBall();
+        }
+
+        BallStore balls = state.getBalls();
+        for (int tick = 0; tick < 5_000; tick++) {
+            simulation.tick();
+            for (int i = 0; i < balls.getCount(); i++) {
+                if (!balls.isActive(i)) {
+                    continue;
+                }
+                assertTrue(sideOfLeftWall(balls.getX(i), balls.getY(i)) > -BALL_RADIUS, "шарик вылетел влево");
+                assertTrue(balls.getX(i) < state.getTopRightX() + BALL_RADIUS, "шарик вылетел вправо");
+                assertTrue(balls.getY(i) > state.getTopLeftY() - BALL_RADIUS, "шарик вылетел вверх");
+            }
+            if (state.isBallLost()) {
+                if (state.getLives() <= 0) {
+                    simulation.resetGame();
+                }
+                simulation.startGame();
+            }
+        }
+    }
+
+    //положительно внутри стола относительно левой стенки воронки
+    private double sideOfLeftWall(double x, double y) {
+        double x1 = state.getFunnelLeftX();
+        double y1 = state.getFunnelLeftY();
+        double x2 = state.getTopLeftX();
+        double y2 = state.getTopLeftY();
+        double length = Math.hypot(x2 - x1, y2 - y1);
+        return ((x2 - x1) * (y - y1) - (y2 - y1) * (x - x1)) / length;
+    }
+}
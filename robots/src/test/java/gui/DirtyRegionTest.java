@@ -0,0 +1,144 @@
+package gui;
+
+import gui.game.DirtyRegion;
+import gui.game.DirtyRegionTracker;
+import gui.game.GamePhysics;
+import gui.game.GameSimulation;
+import gui.game.TableState;
+import gui.game.WorldView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirtyRegionTest {
+    private static final int WIDTH = 1600;
+    private static final int HEIGHT = 1200;
+
+    private GameSimulation simulation;
+    private TableState state;
+    private DirtyRegionTracker tracker;
+    private DirtyRegion region;
+
+    @BeforeEach
+    public void setUp() {
+        simulation = new GameSimulation(WIDTH, HEIGHT);
+        state = simulation.getState();
+        tracker = new DirtyRegionTracker();
+        region = new DirtyRegion();
+    }
+
+    private void update() {
+        region.clear();
+        tracker.update(state, simulation.getFlipperController(), GamePhysics.BALL_RADIUS, WIDTH, HEIGHT, region);
+    }
+
+    private boolean covers(double x, double y) {
+        for (int i = 0; i < region.getCount(); i++) {
+            if (region.getRectangle(i).contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testNearbyRectanglesMerge() {
+        region.add(10, 10, 20, 20);
+        region.add(25, 25, 20, 20);
+        assertEquals(1, region.getCount());
+        assertEquals(new Rectangle(10, 10, 35, 35), region.getRectangle(0));
+
+        region.add(500, 500, 10, 10);
+        assertEquals(2, region.getCount());
+    }
+
+    @Test
+    public void testRectangleCountIsLimited() {
+        for (int i = 0; i < 20; i++) {
+            region.add(i * 200, (i % 3) * 300, 10, 10);
+        }
+        assertTrue(region.getCount() <= DirtyRegion.MAX_RECTANGLES);
+        //всё добавленное покрыто
+        for (int i = 0; i < 20; i++) {
+            assertTrue(covers(i * 200 + 5, (i % 3) * 300 + 5));
+        }
+    }
+
+    @Test
+    public void testFirstFrameAndResizeAreFull() {
+        update();
+        assertTrue(region.isFull());
+
+        update();
+        assertFalse(region.isFull());
+
+        simulation.resize(800, 600);
+        update();
+        assertTrue(region.isFull());
+    }
+
+    @Test
+    public void testMovingBallRepaintsOnlySmallPart() {
+        update();
+        tracker.resetStatistics();
+        simulation.startGame();
+
+        for (int i = 0; i < 60; i++) {
+            double oldX = state.getBallPositionX();
+            double oldY = state.getBallPositionY();
+            simulation.tick();
+            update();
+
+            assertFalse(region.isFull());
+            //стирается старое положение и рисуется новое
+            assertTrue(covers(oldX, oldY));
+            assertTrue(covers(state.getBallPositionX(), state.getBallPositionY()));
+        }
+
+        assertTrue(tracker.getFillRatio() < 0.1, "fill ratio " + tracker.getFillRatio());
+    }
+
+    @Test
+    public void testScaledViewMapsBoxesToScreen() {
+        //мир 1600x1200 на панели 800x900: масштаб 0.5, поля сверху и снизу
+        WorldView view = new WorldView(WIDTH, HEIGHT, 800, 900);
+        tracker.update(state, simulation.getFlipperController(), GamePhysics.BALL_RADIUS, view, region);
+        assertTrue(region.isFull());
+        simulation.startGame();
+        simulation.tick();
+
+        region.clear();
+        tracker.update(state, simulation.getFlipperController(), GamePhysics.BALL_RADIUS, view, region);
+        assertFalse(region.isFull());
+        assertTrue(covers(view.toScreenX(state.getBallPositionX()), view.toScreenY(state.getBallPositionY())));
+        assertEquals(150, view.getOffsetY(), 1e-9);
+
+        //новый масштаб - полная перерисовка
+        region.clear();
+        tracker.update(state, simulation.getFlipperController(), GamePhysics.BALL_RADIUS,
+                new WorldView(WIDTH, HEIGHT, 1600, 1200), region);
+        assertTrue(region.isFull());
+    }
+
+    @Test
+    public void testFlipperMovementIsDirty() {
+        update();
+        state.setLeftFlipperActive(true);
+        simulation.tick();
+        update();
+
+        assertTrue(covers(state.getLeftFlipperPivotX(), state.getLeftFlipperPivotY()));
+    }
+
+    @Test
+    public void testLitTargetIsDirty() {
+        update();
+        state.getTargets().get(0).hit();
+        update();
+
+        assertTrue(covers(state.getTargets().get(0).getCenterX(), state.getTargets().get(0).getCenterY()));
+    }
+}
@@ -0,0 +1,169 @@
+package gui;
+
+import gui.game.GameInput;
+import gui.game.GameLoop;
+import gui.game.GameSimulation;
+import gui.game.GameState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//цикл проверяется на искусственном времени через runFrame
+public class GameLoopTest {
+    private static final long MS = 1_000_000L;
+
+    private GameSimulation simulation;
+    private GameLoop loop;
+    private int frames;
+    private double lastAlpha;
+
+    @BeforeEach
+    public void setUp() {
+        simulation = new GameSimulation(800, 600);
+        frames = 0;
+        lastAlpha = -1;
+        loop = new GameLoop(simulation, alpha -> {
+            frames++;
+            lastAlpha = alpha;
+        });
+    }
+
+    @Test
+    public void testFixedStepAccumulatesTime() {
+        long start = 1_000 * MS;
+        loop.runFrame(start);
+        loop.runFrame(start + 40 * MS);
+
+        //40 мс = два шага по 16 мс и 8 мс в накопителе
+        assertEquals(2, simulation.getTickCount());
+        assertEquals(0.5, lastAlpha, 1e-9);
+
+        loop.runFrame(start + 64 * MS);
+        assertEquals(4, simulation.getTickCount());
+        assertEquals(0.0, lastAlpha, 1e-9);
+    }
+
+    @Test
+    public void testTickCountDoesNotDependOnFramePacing() {
+        long start = 0;
+        loop.runFrame(start);
+        for (int i = 1; i <= 1000; i++) {
+            //неравномерные пробуждения, но всегда меньше лимита догоняния
+            loop.runFrame(start + i * 10 * MS + (i % 3) * MS);
+        }
+        loop.runFrame(start + 10_000 * MS);
+
+        assertEquals(10_000 / 16, simulation.getTickCount());
+        assertEquals(0, loop.getMissedTicks());
+    }
+
+    @Test
+    public void testStallIsLimitedAndCounted() {
+        loop.runFrame(0);
+        loop.runFrame(1000 * MS);
+
+        assertEquals(GameLoop.DEFAULT_MAX_TICKS_PER_FRAME, simulation.getTickCount());
+        assertEquals(1000 / 16 - GameLoop.DEFAULT_MAX_TICKS_PER_FRAME, loop.getMissedTicks());
+        //после паузы цикл не пытается догнать потерянное время
+        loop.runFrame(1016 * MS);
+        assertEquals(GameLoop.DEFAULT_MAX_TICKS_PER_FRAME + 1, simulation.getTickCount());
+    }
+
+    @Test
+    public void testFramesAreSkippedWhileBehind() {
+        loop.setMaxTicksPerFrame(1);
+        loop.runFrame(0);
+        int framesBefore = frames;
+
+        for (int i = 1; i <= GameLoop.MAX_SKIPPED_FRAMES; i++) {
+            loop.runFrame(i * 100 * MS);
+        }
+        assertEquals(framesBefore, frames);
+        assertEquals(GameLoop.MAX_SKIPPED_FRAMES, loop.getSkippedFrames());
+
+        //больше MAX_SKIPPED_FRAMES подряд кадр не пропускается
+        loop.runFrame((GameLoop.MAX_SKIPPED_FRAMES + 1) * 100 * MS);
+        assertEquals(framesBefore + 1, frames);
+    }
+
+    @Test
+    public void testFrameRateLimitsRedraws() {
+        loop.setFrameRate(10);
+        loop.runFrame(0);
+        for (int i = 1; i <= 100; i++) {
+            loop.runFrame(i * 10 * MS);
+        }
+        //секунда при 10 кадрах в секунду плюс первый кадр
+        assertEquals(11, frames);
+    }
+
+    @Test
+    public void testTickRateIsConfigurable() {
+        loop.setTickMillis(5);
+        loop.runFrame(0);
+        loop.runFrame(20 * MS);
+
+        assertEquals(4, simulation.getTickCount());
+        assertEquals(5.0, simulation.getTickMillis(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> loop.setFrameRate(0));
+    }
+
+    @Test
+    public void testJitterMeasuresLateWakeups() {
+        loop.runFrame(0);
+        //следующее пробуждение запланировано на 16 мс, просыпаемся на 3 мс позже
+        loop.runFrame(19 * MS);
+
+        assertEquals(3.0, loop.getMaxJitterMillis(), 1e-9);
+        assertEquals(3.0, loop.getAverageJitterMillis(), 1e-9);
+    }
+
+    @Test
+    public void testThreadRunsSimulation() throws InterruptedException {
+        //на пустом столе цикл спит, поэтому шарик должен быть в игре
+        simulation.startGame();
+        loop.start();
+        Thread.sleep(200);
+        loop.stop();
+
+        assertFalse(loop.isRunning());
+        assertTrue(simulation.getTickCount() > 0);
+        assertEquals(loop.getTickCount(), simulation.getTickCount());
+    }
+
+    @Test
+    public void testIdleLoopSleepsUntilInput() throws InterruptedException {
+        loop.start();
+        try {
+            waitFor(loop::isIdle);
+            long ticks = simulation.getTickCount();
+            int framesWhileIdle = frames;
+            Thread.sleep(100);
+            assertEquals(ticks, simulation.getTickCount());
+            assertEquals(framesWhileIdle, frames);
+
+            simulation.submitInput(GameInput.START);
+            waitFor(() -> simulation.getTickCount() > ticks + 5);
+            assertEquals(GameState.PLAYING, simulation.getState().getGameState());
+            assertFalse(loop.isIdle());
+
+            //на паузе цикл снова засыпает
+            simulation.submitInput(GameInput.TOGGLE_PAUSE);
+            waitFor(loop::isIdle);
+            assertEquals(GameState.PAUSED, simulation.getState().getGameState());
+            assertTrue(loop.getIdleCount() >= 2);
+        } finally {
+            loop.stop();
+        }
+        assertFalse(loop.isRunning());
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "условие не выполнилось за 5 с");
+            Thread.sleep(5);
+        }
+    }
+}
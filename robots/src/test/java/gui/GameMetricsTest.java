@@ -0,0 +1,98 @@
+package gui;
+
+import gui.game.GameInput;
+import gui.game.GameLoop;
+import gui.game.GameMetrics;
+import gui.game.GameSimulation;
+import gui.game.Histogram;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameMetricsTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void testHistogramPercentilesWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 1e-9);
+        //погрешность корзины - не больше 1/32
+        assertEquals(50_000, histogram.getValueAtPercentile(50), 50_000 / 32.0);
+        assertEquals(99_000, histogram.getValueAtPercentile(99), 99_000 / 32.0);
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testHistogramSmallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(40);
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getValueAtPercentile(25));
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(40, histogram.getValueAtPercentile(99));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testHistogramHandlesLargeValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(1L << 40);
+
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(1L << 40, histogram.getValueAtPercentile(50), (1L << 40) / 32.0);
+    }
+
+    @Test
+    public void testLoopAndSimulationRecordMetrics() {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        GameLoop loop = new GameLoop(simulation, alpha -> { });
+        simulation.submitInput(GameInput.START);
+        loop.runFrame(0);
+        loop.runFrame(64 * MS);
+        loop.runFrame(1_000 * MS);
+
+        GameMetrics metrics = simulation.getMetrics();
+        assertEquals(loop.getTickCount(), metrics.getTickCount());
+        assertEquals(loop.getMissedTicks(), metrics.getMissedTicks());
+        assertTrue(metrics.getMissedTicks() > 0);
+        //пока шарик в игре, каждый шаг проверяет стенки и флипперы
+        assertEquals(loop.getTickCount(), metrics.getCollisionChecksHistogram().getCount());
+        assertTrue(metrics.getCollisionChecksMean() >= 4);
+
+        metrics.reset();
+        assertEquals(0, metrics.getTickCount());
+        assertEquals(0, metrics.getMissedTicks());
+    }
+
+    @Test
+    public void testMetricsAreExposedThroughJmx() throws Exception {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        GameMetrics metrics = simulation.getMetrics();
+        metrics.recordTick(2 * MS);
+        metrics.registerMBean();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(GameMetrics.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "TickCount"));
+        assertEquals(2.0, (Double) server.getAttribute(name, "TickMaxMillis"), 2.0 / 32);
+
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertEquals(0L, server.getAttribute(name, "TickCount"));
+    }
+}
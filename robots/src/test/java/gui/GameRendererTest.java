@@ -0,0 +1,131 @@
+package gui;
+
+import gui.game.ActiveRenderCanvas;
+import gui.game.GameRenderer;
+import gui.game.GameVisualizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRendererTest {
+    private GameVisualizer gameVisualizer;
+    private GameRenderer renderer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        gameVisualizer = new GameVisualizer();
+        gameVisualizer.setBounds(0, 0, 800, 600);
+        //снимок с новой раскладкой публикует ближайший шаг
+        gameVisualizer.getSimulation().tick();
+
+        Field rendererField = GameVisualizer.class.getDeclaredField("m_renderer");
+        rendererField.setAccessible(true);
+        renderer = (GameRenderer) rendererField.get(gameVisualizer);
+    }
+
+    private BufferedImage render(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            renderer.render(g2d);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    @Test
+    public void testStaticLayerIsBuiltOnce() {
+        render(800, 600);
+        int builds = renderer.getStaticLayerBuilds();
+        for (int i = 0; i < 10; i++) {
+            render(800, 600);
+        }
+
+        assertEquals(builds, renderer.getStaticLayerBuilds());
+    }
+
+    @Test
+    public void testResizeRebuildsStaticLayer() {
+        render(800, 600);
+        int builds = renderer.getStaticLayerBuilds();
+
+        gameVisualizer.setBounds(0, 0, 1000, 700);
+        gameVisualizer.getSimulation().tick();
+        render(1000, 700);
+
+        assertEquals(builds + 1, renderer.getStaticLayerBuilds());
+    }
+
+    @Test
+    public void testCachedFrameMatchesFreshLayer() {
+        BufferedImage first = render(800, 600);
+        BufferedImage cached = render(800, 600);
+        renderer.invalidateStaticLayer();
+        BufferedImage rebuilt = render(800, 600);
+
+        //поле (неподвижная часть) одинаково в кадре из кэша и после пересборки
+        int x = (int) gameVisualizer.getTopLeftX() + 5;
+        int y = (int) gameVisualizer.getTopLeftY() + 5;
+        assertEquals(first.getRGB(x, y), cached.getRGB(x, y));
+        assertEquals(first.getRGB(x, y), rebuilt.getRGB(x, y));
+    }
+
+    @Test
+    public void testTableIsScaledToPanel() {
+        BufferedImage small = render(800, 600);
+        gameVisualizer.setBounds(0, 0, 1600, 1200);
+        BufferedImage large = render(1600, 1200);
+
+        //одна и та же точка стола в обоих кадрах, только на экране вдвое дальше от угла
+        double x = gameVisualizer.getTopLeftX() + 20;
+        double y = gameVisualizer.getTopLeftY() + 20;
+        assertEquals(2, gameVisualizer.getView().getScale(), 0.0);
+        assertEquals(small.getRGB((int) x, (int) y), large.getRGB((int) (x * 2), (int) (y * 2)));
+        int bumperX = (int) gameVisualizer.getBumpers().get(0).getX();
+        int bumperY = (int) gameVisualizer.getBumpers().get(0).getY();
+        assertEquals(small.getRGB(bumperX, bumperY), large.getRGB(bumperX * 2, bumperY * 2));
+        assertNotEquals(small.getRGB(bumperX, bumperY), large.getRGB(bumperX, bumperY));
+    }
+
+    @Test
+    public void testFrameTimeIsMeasured() throws InterruptedException {
+        render(800, 600);
+        Thread.sleep(20);
+        render(800, 600);
+
+        assertTrue(renderer.getFrameMillis() >= 20);
+    }
+
+    @Test
+    public void testActiveCanvasSkipsFramesUntilShown() {
+        ActiveRenderCanvas canvas = new ActiveRenderCanvas(renderer);
+        canvas.setSize(800, 600);
+
+        assertFalse(canvas.renderFrame());
+        assertFalse(gameVisualizer.isActiveRendering());
+    }
+
+    @Test
+    public void testRenderTimeIsRecordedAndOverlayToggles() {
+        long frames = gameVisualizer.getSimulation().getMetrics().getFrameCount();
+        render(800, 600);
+        renderer.beginFrame();
+        render(800, 600);
+        render(800, 600);
+        renderer.endFrame();
+
+        //кадр по частям считается одним кадром
+        assertEquals(frames + 2, gameVisualizer.getSimulation().getMetrics().getFrameCount());
+
+        assertFalse(renderer.isMetricsOverlayVisible());
+        assertTrue(renderer.toggleMetricsOverlay());
+        render(800, 600);
+        assertFalse(renderer.toggleMetricsOverlay());
+    }
+}
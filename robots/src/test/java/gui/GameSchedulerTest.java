@@ -0,0 +1,163 @@
+package gui;
+
+import gui.game.GameInput;
+import gui.game.GameLoop;
+import gui.game.GameScheduler;
+import gui.game.GameSimulation;
+import gui.game.RepaintQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSchedulerTest {
+    private static final int TABLES = 24;
+
+    @Test
+    public void testOneThreadDrivesManyTables() throws InterruptedException {
+        GameScheduler scheduler = new GameScheduler(1);
+        List<GameSimulation> simulations = new ArrayList<>();
+        List<GameLoop> loops = new ArrayList<>();
+        for (int i = 0; i < TABLES; i++) {
+            GameSimulation simulation = new GameSimulation(800, 600);
+            simulation.startGame();
+            GameLoop loop = new GameLoop(simulation, alpha -> { });
+            loop.start(scheduler);
+            simulations.add(simulation);
+            loops.add(loop);
+        }
+        try {
+            assertEquals(TABLES, scheduler.getTableCount());
+            waitFor(() -> simulations.stream().allMatch(simulation -> simulation.getTickCount() > 10));
+        } finally {
+            loops.forEach(GameLoop::stop);
+        }
+
+        assertEquals(0, scheduler.getTableCount());
+        long ticks = simulations.get(0).getTickCount();
+        Thread.sleep(50);
+        //остановленный стол планировщик больше не трогает
+        assertEquals(ticks, simulations.get(0).getTickCount());
+        assertFalse(loops.get(0).isRunning());
+    }
+
+    @Test
+    public void testIdleTablesDoNotWakeScheduler() throws InterruptedException {
+        GameScheduler scheduler = new GameScheduler(2);
+        List<GameSimulation> simulations = new ArrayList<>();
+        List<GameLoop> loops = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            GameSimulation simulation = new GameSimulation(800, 600);
+            GameLoop loop = new GameLoop(simulation, alpha -> { });
+            loop.start(scheduler);
+            simulations.add(simulation);
+            loops.add(loop);
+        }
+        try {
+            waitFor(() -> loops.stream().allMatch(GameLoop::isIdle));
+            long passes = scheduler.getPassCount();
+            Thread.sleep(100);
+            assertEquals(passes, scheduler.getPassCount());
+
+            //ввод будит только свой стол
+            simulations.get(2).submitInput(GameInput.START);
+            waitFor(() -> simulations.get(2).getTickCount() > 5);
+            assertTrue(loops.get(0).isIdle());
+            assertEquals(0, simulations.get(0).getTickCount());
+        } finally {
+            loops.forEach(GameLoop::stop);
+        }
+    }
+
+    @Test
+    public void testThreadsExitAfterLastTableStops() throws InterruptedException {
+        GameScheduler scheduler = new GameScheduler(2);
+        GameSimulation first = new GameSimulation(800, 600);
+        first.startGame();
+        GameLoop firstLoop = new GameLoop(first, alpha -> { });
+        GameLoop secondLoop = new GameLoop(new GameSimulation(800, 600), alpha -> { });
+        firstLoop.start(scheduler);
+        secondLoop.start(scheduler);
+        assertEquals(2, scheduler.getLiveThreadCount());
+
+        //закрытие окон освобождает потоки, даже если стол ещё играет
+        firstLoop.stop();
+        secondLoop.stop();
+        waitFor(() -> scheduler.getLiveThreadCount() == 0);
+
+        //новый стол снова получает поток
+        long ticks = first.getTickCount();
+        firstLoop.start(scheduler);
+        try {
+            assertEquals(1, scheduler.getLiveThreadCount());
+            waitFor(() -> first.getTickCount() > ticks + 5);
+        } finally {
+            firstLoop.stop();
+        }
+        waitFor(() -> scheduler.getLiveThreadCount() == 0);
+    }
+
+    @Test
+    public void testFailingTableDoesNotStopItsNeighbours() throws InterruptedException {
+        GameScheduler scheduler = new GameScheduler(1);
+        GameSimulation broken = new GameSimulation(800, 600);
+        broken.startGame();
+        GameLoop brokenLoop = new GameLoop(broken, alpha -> {
+            throw new IllegalStateException("ошибка отрисовки");
+        });
+        GameSimulation healthy = new GameSimulation(800, 600);
+        healthy.startGame();
+        GameLoop healthyLoop = new GameLoop(healthy, alpha -> { });
+        brokenLoop.start(scheduler);
+        healthyLoop.start(scheduler);
+        try {
+            //упавший стол снимается с потока, сосед на том же потоке продолжает игру
+            waitFor(() -> !brokenLoop.isRunning());
+            assertEquals(1, scheduler.getTableCount());
+            long ticks = healthy.getTickCount();
+            waitFor(() -> healthy.getTickCount() > ticks + 5);
+            assertEquals(1, scheduler.getLiveThreadCount());
+        } finally {
+            healthyLoop.stop();
+            brokenLoop.stop();
+        }
+    }
+
+    @Test
+    public void testRepaintsAreCoalescedIntoOnePass() {
+        List<Runnable> events = new ArrayList<>();
+        RepaintQueue queue = new RepaintQueue(events::add);
+        AtomicInteger painted = new AtomicInteger();
+
+        for (int i = 0; i < TABLES; i++) {
+            queue.post(painted::incrementAndGet);
+        }
+        assertEquals(1, events.size());
+        assertEquals(0, painted.get());
+
+        events.get(0).run();
+        assertEquals(TABLES, painted.get());
+        assertEquals(1, queue.getPassCount());
+
+        //после прохода следующая перерисовка снова ставит событие
+        queue.post(painted::incrementAndGet);
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    public void testRejectsEmptyPool() {
+        assertThrows(IllegalArgumentException.class, () -> new GameScheduler(0));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "условие не выполнилось за 5 с");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package gui;
+
+import gui.game.BallStore;
+import gui.game.GameInput;
+import gui.game.GameSimulation;
+import gui.game.GameState;
+import gui.game.TableState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//симуляция без Swing
+public class GameSimulationTest {
+    private GameSimulation simulation;
+    private TableState state;
+
+    @BeforeEach
+    public void setUp() {
+        simulation = new GameSimulation(800, 600);
+        state = simulation.getState();
+    }
+
+    @Test
+    public void testStepRunsWholeTicksOnly() {
+        assertEquals(0, simulation.step(GameSimulation.TICK_MILLIS / 2));
+        assertEquals(1, simulation.step(GameSimulation.TICK_MILLIS / 2));
+        assertEquals(3, simulation.step(GameSimulation.TICK_MILLIS * 3));
+        assertEquals(4, simulation.getTickCount());
+    }
+
+    @Test
+    public void testBallDoesNotMoveBeforeStart() {
+        double ballX = state.getBallPositionX();
+        double ballY = state.getBallPositionY();
+
+        simulation.step(1000);
+
+        assertEquals(GameState.READY, state.getGameState());
+        assertEquals(ballX, state.getBallPositionX(), 0.0);
+        assertEquals(ballY, state.getBallPositionY(), 0.0);
+    }
+
+    @Test
+    public void testHeadlessGameRunsThousandsOfTicks() {
+        simulation.startGame();
+        assertEquals(GameState.PLAYING, state.getGameState());
+
+        for (int i = 0; i < 10_000; i++) {
+            simulation.tick();
+            if (state.isBallLost() && state.getLives() > 0) {
+                simulation.startGame();
+            }
+        }
+
+        assertEquals(10_000, simulation.getTickCount());
+        assertTrue(state.getLives() >= 0);
+        assertTrue(state.getScore() >= 0);
+    }
+
+    @Test
+    public void testPauseFreezesBallsAndFlippers() {
+        simulation.startGame();
+        simulation.tick();
+        simulation.submitInput(GameInput.TOGGLE_PAUSE);
+        simulation.submitInput(GameInput.LEFT_FLIPPER_DOWN);
+        simulation.tick();
+        assertEquals(GameState.PAUSED, state.getGameState());
+
+        double ballX = state.getBallPositionX();
+        double ballY = state.getBallPositionY();
+        double angle = state.getLeftFlipperAngle();
+        for (int i = 0; i < 50; i++) {
+            simulation.tick();
+        }
+        assertEquals(ballX, state.getBallPositionX(), 0.0);
+        assertEquals(ballY, state.getBallPositionY(), 0.0);
+        assertEquals(angle, state.getLeftFlipperAngle(), 0.0);
+        //зажатый флиппер на паузе не мешает циклу уснуть
+        assertTrue(simulation.isIdle());
+
+        //скрытие окна не снимает паузу, второе нажатие P снимает
+        simulation.submitInput(GameInput.PAUSE);
+        simulation.tick();
+        assertEquals(GameState.PAUSED, state.getGameState());
+        simulation.submitInput(GameInput.TOGGLE_PAUSE);
+        simulation.tick();
+        assertEquals(GameState.PLAYING, state.getGameState());
+        assertNotEquals(ballY, state.getBallPositionY());
+    }
+
+    @Test
+    public void testIdleOnlyWhenNothingMoves() {
+        //флипперы стоят, игра не начата
+        assertTrue(simulation.isIdle());
+        simulation.submitInput(GameInput.LEFT_FLIPPER_DOWN);
+        assertFalse(simulation.isIdle());
+        simulation.tick();
+        assertFalse(simulation.isIdle());
+        for (int i = 0; i < 20; i++) {
+            simulation.tick();
+        }
+        assertTrue(simulation.isIdle());
+
+        simulation.startGame();
+        assertFalse(simulation.isIdle());
+        //в READY пауза не включается
+        simulation.resetGame();
+        simulation.pause();
+        assertEquals(GameState.READY, state.getGameState());
+    }
+
+    @Test
+    public void testResizeRebuildsTable() {
+        simulation.resize(1000, 800);
+
+        assertEquals(1000 - TableState.BORDER_MARGIN * 2, state.getFieldWidth());
+        assertEquals(800 - TableState.BORDER_MARGIN * 2, state.getFieldHeight());
+        assertEquals(3, state.getBumpers().size());
+        assertEquals(3, state.getTargets().size());
+        assertTrue(state.getLeftFlipperPivotX() < state.getRightFlipperPivotX());
+    }
+
+    @Test
+    public void testMultiballAddsBallsAndLosesLifeOnlyWithLastBall() {
+        simulation.startGame();
+        for (int i = 0; i < 200; i++) {
+            assertTrue(simulation.addBall() >= 0);
+        }
+
+        BallStore balls = state.getBalls();
+        assertEquals(201, balls.getActiveCount());
+
+        double drainY = state.getFunnelLeftY() + simulation.getFlipperController().getFlipperLength() * 0.75;
+        for (int i = 0; i < balls.getCount(); i++) {
+            balls.setY(i, drainY);
+            balls.setVelocityX(i, 0);
+            balls.setVelocityY(i, 1);
+        }
+        simulation.tick();
+
+        assertEquals(1, balls.getActiveCount());
+        assertTrue(state.isBallLost());
+        assertEquals(TableState.INITIAL_LIVES - 1, state.getLives());
+    }
+
+    @Test
+    public void testContinueAfterLossResetsToSingleBall() {
+        simulation.startGame();
+        simulation.addBall();
+        simulation.addBall();
+        state.setBallLost(true);
+
+        simulation.startGame();
+
+        assertEquals(1, state.getBalls().getActiveCount());
+        assertFalse(state.isBallLost());
+    }
+}
@@ -2,6 +2,8 @@ package gui;
 
 import gui.game.GamePhysics;
 import gui.game.GameVisualizer;
+import gui.game.Target;
+import gui.game.WorldView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -49,6 +51,29 @@ public class GameVisualizerTest {
         assertTrue(gameVisualizer.isBallLost());
     }
 
+    @Test
+    public void testResizeOnlyChangesView() {
+        gameVisualizer.setBallPositionX(300);
+        gameVisualizer.setBallPositionY(200);
+        int layoutVersion = gameVisualizer.getSimulation().getState().getLayoutVersion();
+        Target target = gameVisualizer.getTargets().get(0);
+
+        gameVisualizer.setBounds(0, 0, 1600, 1000);
+
+        //стол не перестраивается и шарик остаётся на месте
+        assertEquals(layoutVersion, gameVisualizer.getSimulation().getState().getLayoutVersion());
+        assertSame(target, gameVisualizer.getTargets().get(0));
+        assertEquals(300, gameVisualizer.getBallPositionX(), 0.0);
+        assertEquals(200, gameVisualizer.getBallPositionY(), 0.0);
+
+        //масштаб по меньшей стороне, по ширине - поля
+        WorldView view = gameVisualizer.getView();
+        assertEquals(1000.0 / 600, view.getScale(), 1e-9);
+        assertEquals((1600 - 800 * view.getScale()) / 2, view.getOffsetX(), 1e-9);
+        assertEquals(0, view.getOffsetY(), 1e-9);
+        assertEquals(300, view.toWorldX(view.toScreenX(300)), 1e-9);
+    }
+
     @Test
     public void testBallBouncesOffTopBorder() {
         gameVisualizer.setBallPositionY(gameVisualizer.getBorderMargin() + 3);
@@ -79,26 +104,37 @@ public class GameVisualizerTest {
         gameVisualizer.setBallVelocityX(initialVelocityX);
         gameVisualizer.setBallVelocityY(initialVelocityY);
 
+        //внутренняя нормаль стенки: поворот её направления в сторону середины стола
+        double length = Math.hypot(wallXSecond - wallXFirst, wallYSecond - wallYFirst);
+        double normalX = -(wallYSecond - wallYFirst) / length;
+        double normalY = (wallXSecond - wallXFirst) / length;
+        double centerX = (gameVisualizer.getTopLeftX() + gameVisualizer.getTopRightX()) / 2;
+        if ((centerX - wallXFirst) * normalX + (ballY - wallYFirst) * normalY < 0) {
+            normalX = -normalX;
+            normalY = -normalY;
+        }
+
         try {
-            Method checkLineCollisionMethod = GamePhysics.class.getDeclaredMethod(
-                    "checkLineCollision", double.class, double.class, double.class, double.class, boolean.class);
-            checkLineCollisionMethod.setAccessible(true);
+            Method checkWallCollisionMethod = GamePhysics.class.getDeclaredMethod(
+                    "checkWallCollision", int.class, int.class);
+            checkWallCollisionMethod.setAccessible(true);
 
-            boolean collision = (boolean) checkLineCollisionMethod.invoke(physics,
-                    wallXFirst, wallYFirst, wallXSecond, wallYSecond, isLeftWall);
+            boolean collision = (boolean) checkWallCollisionMethod.invoke(physics, 0, isLeftWall ? 0 : 1);
 
             assertTrue(collision);
 
             double finalVelocityX = gameVisualizer.getBallVelocityX();
             double finalVelocityY = gameVisualizer.getBallVelocityY();
 
-            double expectedVelocityX = isLeftWall ?
-                    Math.abs(initialVelocityY) :
-                    -Math.abs(initialVelocityY);
-            double expectedVelocityY = -Math.abs(initialVelocityX) - 1;
+            //отражение по нормали с потерей энергии, если шарик летел в стенку; иначе скорость не меняется
+            double normalVelocity = initialVelocityX * normalX + initialVelocityY * normalY;
+            double change = normalVelocity < 0 ? -(1 + GamePhysics.BOUNCE_DAMPING) * normalVelocity : 0;
+            double expectedVelocityX = initialVelocityX + change * normalX;
+            double expectedVelocityY = initialVelocityY + change * normalY;
 
             assertEquals(expectedVelocityX, finalVelocityX, 0.001);
             assertEquals(expectedVelocityY, finalVelocityY, 0.001);
+            assertTrue(finalVelocityX * normalX + finalVelocityY * normalY >= -1e-9);
 
         } catch (Exception e) {
             fail(e.getMessage());
@@ -136,6 +172,8 @@ public class GameVisualizerTest {
         int initialScore = gameVisualizer.getScore();
 
         invokeCheckFlipperCollisions();
+        //очки начисляет подписчик при раздаче событий шага
+        physics.getCollisionEvents().dispatch();
 
         int newScore = gameVisualizer.getScore();
 
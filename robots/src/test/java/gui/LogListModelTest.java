@@ -0,0 +1,84 @@
+package gui;
+
+import log.LogLevel;
+import log.LogWindowSource;
+import org.junit.jupiter.api.Test;
+
+import java.awt.EventQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogListModelTest {
+
+    @Test
+    public void testUpdateAddsOnlyNewEntries() {
+        LogWindowSource source = new LogWindowSource(10);
+        LogListModel model = new LogListModel(source);
+        AtomicInteger added = new AtomicInteger();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                added.addAndGet(e.getIndex1() - e.getIndex0() + 1);
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                fail("список не должен перестраиваться целиком");
+            }
+        });
+
+        source.append(LogLevel.Debug, "m0");
+        source.append(LogLevel.Debug, "m1");
+        assertEquals(2, model.update());
+        assertEquals(0, model.update());
+
+        source.append(LogLevel.Debug, "m2");
+        assertEquals(1, model.update());
+        assertEquals(3, model.getSize());
+        assertEquals(3, added.get());
+        assertEquals("m2", model.getElementAt(2).getMessage());
+    }
+
+    @Test
+    public void testEvictedEntriesLeaveTheModel() {
+        LogWindowSource source = new LogWindowSource(5);
+        LogListModel model = new LogListModel(source);
+        for (int i = 0; i < 3; i++) {
+            source.append(LogLevel.Debug, "m" + i);
+        }
+        model.update();
+
+        for (int i = 3; i < 20; i++) {
+            source.append(LogLevel.Debug, "m" + i);
+        }
+        model.update();
+
+        assertEquals(5, model.getSize());
+        assertEquals("m15", model.getElementAt(0).getMessage());
+        assertEquals("m19", model.getElementAt(4).getMessage());
+    }
+
+    @Test
+    public void testBurstIsAppliedOnceInWindow() throws Exception {
+        LogWindowSource source = new LogWindowSource(1_000);
+        LogWindow[] window = new LogWindow[1];
+        EventQueue.invokeAndWait(() -> window[0] = new LogWindow(source));
+
+        for (int i = 0; i < 1_000; i++) {
+            source.append(LogLevel.Debug, "m" + i);
+        }
+        Thread.sleep(200);
+        EventQueue.invokeAndWait(() -> { });
+
+        LogListModel model = window[0].getLogModel();
+        assertEquals(1_000, model.getSize());
+        assertEquals("m999", model.getElementAt(999).getMessage());
+    }
+}
@@ -0,0 +1,137 @@
+package gui;
+
+import gui.game.Bumper;
+import gui.game.CollisionStatistics;
+import gui.game.GameSimulation;
+import gui.game.GameState;
+import gui.game.TableState;
+import gui.game.Target;
+import gui.game.Vector2;
+import gui.game.WallSegments;
+import log.LogLevel;
+import log.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+//цикл физики вместе со столкновениями не должен создавать мусор в установившемся режиме
+public class PhysicsAllocationTest {
+    private static final int WARMUP_TICKS = 50_000;
+    private static final int MEASURED_TICKS = 100_000;
+    //сколько шагов даётся на один бросок шарика в препятствие
+    private static final int SHOT_TICKS = 25;
+    private static final double SHOT_SPEED = 6;
+    //запас на служебные аллокации самого замера
+    private static final long ALLOWED_BYTES = 1024;
+
+    @Test
+    public void testCollisionPipelineDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "JVM не умеет считать аллокации потока");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "JVM не умеет считать аллокации потока");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        //протокол столкновений выключен, как в обычной игре без отладки
+        LogLevel previousLevel = Logger.getLevel();
+        Logger.setLevel(LogLevel.Warning);
+        try {
+            GameSimulation simulation = new GameSimulation(800, 600);
+            simulation.getState().setGameState(GameState.PLAYING);
+            Shots shots = new Shots(simulation);
+
+            shots.run(WARMUP_TICKS);
+
+            CollisionStatistics statistics = simulation.getCollisionStatistics();
+            statistics.reset();
+            long threadId = Thread.currentThread().getId();
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            shots.run(MEASURED_TICKS);
+            long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+            //замер имеет смысл, только если все виды столкновений действительно происходили
+            assertTrue(statistics.getBumperHits() > 0, "не было ударов о бампер");
+            assertTrue(statistics.getTargetHits() > 0, "не было ударов о мишень");
+            assertTrue(statistics.getWallHits() > 0, "не было ударов о стенку");
+            assertTrue(statistics.getFlipperHits() > 0, "не было ударов о флиппер");
+            assertTrue(allocated < ALLOWED_BYTES,
+                    "цикл физики выделил " + allocated + " байт за " + MEASURED_TICKS + " шагов");
+        } finally {
+            Logger.setLevel(previousLevel);
+        }
+    }
+
+    //шарик по очереди бросается в бампер, мишень, стенку воронки и поднятый флиппер, шаги идут через tick()
+    private static final class Shots {
+        private final GameSimulation m_simulation;
+        private final TableState m_state;
+        private final double m_ballRadius;
+
+        Shots(GameSimulation simulation) {
+            m_simulation = simulation;
+            m_state = simulation.getState();
+            m_ballRadius = simulation.getPhysics().getBallRadius();
+        }
+
+        void run(int ticks) {
+            for (int i = 0; i < ticks; i++) {
+                if (i % SHOT_TICKS == 0) {
+                    aim((i / SHOT_TICKS) % 4);
+                }
+                m_simulation.tick();
+            }
+        }
+
+        private void aim(int shot) {
+            m_state.setBallLost(false);
+            m_state.setLeftFlipperActive(shot == 3);
+            m_state.setRightFlipperActive(false);
+            switch (shot) {
+                case 0: {
+                    Bumper bumper = m_state.getBumpers().get(0);
+                    launchUp(bumper.getX(), bumper.getY() + bumper.getRadius());
+                    break;
+                }
+                case 1: {
+                    Target target = m_state.getTargets().get(0);
+                    launchUp(target.getCenterX(), target.getY() + target.getHeight());
+                    break;
+                }
+                case 2: {
+                    WallSegments walls = m_simulation.getPhysics().getWalls();
+                    double x = (walls.getStartX(0) + walls.getEndX(0)) / 2;
+                    double y = (walls.getStartY(0) + walls.getEndY(0)) / 2;
+                    double normalX = walls.getNormalX(0);
+                    double normalY = walls.getNormalY(0);
+                    double distance = m_ballRadius + 3 * SHOT_SPEED;
+                    launch(x + normalX * distance, y + normalY * distance,
+                            -normalX * SHOT_SPEED, -normalY * SHOT_SPEED);
+                    break;
+                }
+                default: {
+                    //шарик падает на середину флиппера
+                    Vector2 end = m_simulation.getFlipperController().getLeftFlipperEndPoint();
+                    double x = (m_state.getLeftFlipperPivotX() + end.x) / 2;
+                    double y = Math.min(m_state.getLeftFlipperPivotY(), end.y);
+                    launch(x, y - m_ballRadius - 3 * SHOT_SPEED, 0, SHOT_SPEED);
+                    break;
+                }
+            }
+        }
+
+        //снизу вверх в препятствие, нижний край которого на высоте bottomY
+        private void launchUp(double x, double bottomY) {
+            launch(x, bottomY + m_ballRadius + 3 * SHOT_SPEED, 0, -SHOT_SPEED);
+        }
+
+        private void launch(double x, double y, double vx, double vy) {
+            m_state.setBallPositionX(x);
+            m_state.setBallPositionY(y);
+            m_state.setBallVelocityX(vx);
+            m_state.setBallVelocityY(vy);
+        }
+    }
+}
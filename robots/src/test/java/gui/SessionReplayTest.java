@@ -0,0 +1,208 @@
+package gui;
+
+import gui.game.GameInput;
+import gui.game.GameSimulation;
+import gui.game.SessionRecorder;
+import gui.game.SessionReplayer;
+import gui.game.TableLayoutLoader;
+import gui.game.TableState;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionReplayTest {
+    private static final int TICKS = 5_000;
+
+    private static final String CUSTOM_TABLE = "{\n"
+            + "  \"funnel\": {\"width\": 150},\n"
+            + "  \"flippers\": {\"length\": 60},\n"
+            + "  \"targets\": [{\"x\": 0.5, \"y\": 0.1, \"width\": 40, \"height\": 15, \"points\": 7}],\n"
+            + "  \"bumpers\": [{\"x\": 0.3, \"y\": 0.4, \"radius\": 40, \"points\": 3},\n"
+            + "              {\"x\": 0.7, \"y\": 0.4, \"radius\": 40, \"points\": 3}]\n"
+            + "}\n";
+    private static final String RELOADED_TABLE = "{\n"
+            + "  \"funnel\": {\"width\": 180},\n"
+            + "  \"targets\": [],\n"
+            + "  \"bumpers\": [{\"x\": 0.5, \"y\": 0.5, \"radius\": 60, \"points\": 11}]\n"
+            + "}\n";
+
+    //сценарий игрока: старт, флипперы по расписанию, перезапуск после потери шарика
+    private static void play(GameSimulation simulation) {
+        simulation.submitInput(GameInput.START);
+        for (int tick = 0; tick < TICKS; tick++) {
+            if (tick % 40 == 5) {
+                simulation.submitInput(GameInput.LEFT_FLIPPER_DOWN);
+            } else if (tick % 40 == 15) {
+                simulation.submitInput(GameInput.LEFT_FLIPPER_UP);
+            } else if (tick % 55 == 20) {
+                simulation.submitInput(GameInput.RIGHT_FLIPPER_DOWN);
+            } else if (tick % 55 == 30) {
+                simulation.submitInput(GameInput.RIGHT_FLIPPER_UP);
+            }
+            if (tick == 1_500) {
+                simulation.submitInput(GameInput.ADD_BALL);
+            }
+            if (simulation.getState().isBallLost()) {
+                simulation.submitInput(GameInput.START);
+            }
+            simulation.tick();
+        }
+    }
+
+    private static void assertSameState(TableState expected, TableState actual) {
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getLives(), actual.getLives());
+        assertEquals(expected.getGameState(), actual.getGameState());
+        assertEquals(expected.isBallLost(), actual.isBallLost());
+        assertEquals(expected.getBalls().getActiveCount(), actual.getBalls().getActiveCount());
+        assertEquals(expected.getBallPositionX(), actual.getBallPositionX(), 0.0);
+        assertEquals(expected.getBallPositionY(), actual.getBallPositionY(), 0.0);
+        assertEquals(expected.getBallVelocityX(), actual.getBallVelocityX(), 0.0);
+        assertEquals(expected.getBallVelocityY(), actual.getBallVelocityY(), 0.0);
+        assertEquals(expected.getLeftFlipperAngle(), actual.getLeftFlipperAngle(), 0.0);
+    }
+
+    @Test
+    public void testReplayReproducesRecordedSession() throws IOException {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        simulation.startRecording(new SessionRecorder(Channels.newChannel(bytes)));
+        play(simulation);
+        simulation.stopRecording();
+
+        SessionReplayer replayer = SessionReplayer.read(ByteBuffer.wrap(bytes.toByteArray()));
+        assertTrue(replayer.isComplete());
+        assertEquals(TICKS, replayer.getTotalTicks());
+        assertEquals(simulation.getSeed(), replayer.getSeed());
+
+        GameSimulation replayed = replayer.replay();
+        assertTrue(simulation.getState().getScore() > 0);
+        assertSameState(simulation.getState(), replayed.getState());
+    }
+
+    @Test
+    public void testReplayRestoresCustomAndReloadedTables() throws IOException {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        simulation.setLayout(TableLayoutLoader.parse(CUSTOM_TABLE));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        simulation.startRecording(new SessionRecorder(Channels.newChannel(bytes)));
+        simulation.submitInput(GameInput.START);
+        for (int tick = 0; tick < TICKS; tick++) {
+            //стол перезагрузили из файла посреди игры
+            if (tick == TICKS / 2) {
+                simulation.submitLayout(TableLayoutLoader.parse(RELOADED_TABLE));
+            }
+            if (simulation.getState().isBallLost()) {
+                simulation.submitInput(GameInput.START);
+            }
+            simulation.tick();
+        }
+        simulation.stopRecording();
+
+        SessionReplayer replayer = SessionReplayer.read(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(2, replayer.getLayout().getBumpers().size());
+        GameSimulation replayed = replayer.replay();
+        assertEquals(1, replayed.getState().getBumpers().size());
+        assertEquals(11, replayed.getState().getBumpers().get(0).getPointValue());
+        assertTrue(simulation.getState().getScore() > 0);
+        assertSameState(simulation.getState(), replayed.getState());
+    }
+
+    @Test
+    public void testSameSeedGivesSameLaunch() {
+        GameSimulation first = new GameSimulation(800, 600);
+        GameSimulation second = new GameSimulation(800, 600);
+        first.setSeed(7);
+        second.setSeed(7);
+
+        first.submitInput(GameInput.START);
+        second.submitInput(GameInput.START);
+        first.tick();
+        second.tick();
+
+        assertEquals(first.getState().getBallVelocityX(), second.getState().getBallVelocityX(), 0.0);
+        assertEquals(first.getState().getBallVelocityY(), second.getState().getBallVelocityY(), 0.0);
+    }
+
+    @Test
+    public void testLogIsCompact() throws IOException {
+        GameSimulation empty = new GameSimulation(800, 600);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        empty.startRecording(new SessionRecorder(Channels.newChannel(header)));
+        empty.stopRecording();
+
+        GameSimulation simulation = new GameSimulation(800, 600);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        simulation.startRecording(new SessionRecorder(Channels.newChannel(bytes)));
+        for (int i = 0; i < 100; i++) {
+            simulation.submitInput(i % 2 == 0 ? GameInput.LEFT_FLIPPER_DOWN : GameInput.LEFT_FLIPPER_UP);
+            simulation.tick();
+        }
+        simulation.stopRecording();
+
+        //заголовок 29 байт и раскладка стола, событие с небольшим шагом - 2 байта
+        assertTrue(header.size() > 29);
+        assertEquals(header.size() - 2 + 100 * 2 + 2, bytes.size());
+    }
+
+    @Test
+    public void testFileRoundTripAndResize() throws IOException {
+        Path file = Files.createTempFile("pinball", ".pbr");
+        try {
+            GameSimulation simulation = new GameSimulation(800, 600);
+            simulation.startRecording(file);
+            simulation.submitInput(GameInput.START);
+            for (int i = 0; i < 300; i++) {
+                if (i == 100) {
+                    simulation.resize(1000, 700);
+                }
+                simulation.tick();
+            }
+            simulation.stopRecording();
+
+            SessionReplayer replayer = SessionReplayer.load(file);
+            assertEquals(800, replayer.getWidth());
+            assertEquals(600, replayer.getHeight());
+            assertEquals(2, replayer.getEventCount());
+
+            GameSimulation replayed = replayer.replay();
+            assertEquals(simulation.getState().getFieldWidth(), replayed.getState().getFieldWidth());
+            assertSameState(simulation.getState(), replayed.getState());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testTruncatedLogReplaysUpToLastEvent() throws IOException {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SessionRecorder recorder = new SessionRecorder(Channels.newChannel(bytes));
+        simulation.startRecording(recorder);
+        simulation.submitInput(GameInput.START);
+        simulation.tick();
+        simulation.submitInput(GameInput.LEFT_FLIPPER_DOWN);
+        simulation.tick();
+        //программа закрылась без stopRecording
+        recorder.close();
+
+        SessionReplayer replayer = SessionReplayer.read(ByteBuffer.wrap(bytes.toByteArray()));
+        assertFalse(replayer.isComplete());
+        assertEquals(2, replayer.getEventCount());
+        assertEquals(2, replayer.getTotalTicks());
+        assertSameState(simulation.getState(), replayer.replay().getState());
+    }
+
+    @Test
+    public void testRejectsForeignData() {
+        assertThrows(IOException.class,
+                () -> SessionReplayer.read(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8})));
+    }
+}
@@ -0,0 +1,178 @@
+package gui;
+
+import gui.game.BallStore;
+import gui.game.GameSimulation;
+import gui.game.GameSnapshot;
+import gui.game.SnapshotBuffer;
+import gui.game.TableLayout;
+import gui.game.TableState;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotBufferTest {
+
+    @Test
+    public void testAcquireReturnsLatestPublished() {
+        TableState state = new TableState();
+        SnapshotBuffer buffer = new SnapshotBuffer();
+
+        state.setScore(10);
+        buffer.publish(state, 1);
+        state.setScore(20);
+        buffer.publish(state, 2);
+
+        GameSnapshot snapshot = buffer.acquire();
+        assertEquals(2, snapshot.getTick());
+        assertEquals(20, snapshot.getScore());
+        //без новых публикаций читатель получает тот же снимок
+        assertSame(snapshot, buffer.acquire());
+    }
+
+    @Test
+    public void testAcquiredSnapshotIsNotOverwritten() {
+        TableState state = new TableState();
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        buffer.publish(state, 1);
+        GameSnapshot snapshot = buffer.acquire();
+
+        for (int i = 2; i < 10; i++) {
+            state.setScore(i);
+            buffer.publish(state, i);
+        }
+
+        assertEquals(1, snapshot.getTick());
+        assertEquals(0, snapshot.getScore());
+        assertEquals(9, buffer.acquire().getScore());
+    }
+
+    @Test
+    public void testVelocityComesFromFirstActiveBall() {
+        TableState state = new TableState();
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        BallStore balls = state.getBalls();
+        balls.resetToSingle(100, 100);
+        balls.setVelocityX(0, 3);
+        balls.setVelocityY(0, 4);
+        int second = balls.add(200, 200, -5, 6);
+
+        //шарик 0 ушёл в сток, в его слоте остались старые значения
+        balls.deactivate(0);
+        buffer.publish(state, 1);
+        GameSnapshot snapshot = buffer.acquire();
+        assertEquals(balls.getVelocityX(second), snapshot.getBallVelocityX(), 0.0);
+        assertEquals(balls.getVelocityY(second), snapshot.getBallVelocityY(), 0.0);
+
+        balls.deactivate(second);
+        buffer.publish(state, 2);
+        snapshot = buffer.acquire();
+        assertEquals(0, snapshot.getBallVelocityX(), 0.0);
+        assertEquals(0, snapshot.getBallVelocityY(), 0.0);
+    }
+
+    @Test
+    public void testTickPublishesSimulationState() {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        simulation.startGame();
+        simulation.tick();
+
+        TableState state = simulation.getState();
+        GameSnapshot snapshot = simulation.getSnapshots().acquire();
+        assertEquals(simulation.getTickCount(), snapshot.getTick());
+        assertEquals(state.getBallPositionX(), snapshot.getBallX(0), 0.0);
+        assertEquals(state.getBallPositionY(), snapshot.getBallY(0), 0.0);
+        assertEquals(state.getTargets().size(), snapshot.getTargets().length);
+        assertEquals(state.getBumpers().size(), snapshot.getBumpers().length);
+        assertEquals(state.getLayoutVersion(), snapshot.getLayoutVersion());
+    }
+
+    @Test
+    public void testSnapshotKeepsLitFlagsOfItsTick() {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        simulation.tick();
+        GameSnapshot before = simulation.getSnapshots().acquire();
+
+        simulation.getState().getTargets().get(0).hit();
+        simulation.getState().getBumpers().get(1).hit();
+        simulation.tick();
+        GameSnapshot after = simulation.getSnapshots().acquire();
+
+        //снимок, который ещё рисуется, не видит подсветку следующего шага
+        assertFalse(before.isTargetLit(0));
+        assertFalse(before.isBumperLit(1));
+        assertTrue(after.isTargetLit(0));
+        assertTrue(after.isBumperLit(1));
+        assertFalse(after.isBumperLit(0));
+    }
+
+    @Test
+    public void testSnapshotKeepsFlipperSizeOfItsLayout() {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        simulation.tick();
+        GameSnapshot before = simulation.getSnapshots().acquire();
+
+        TableLayout current = TableLayout.defaultLayout();
+        TableLayout.FlipperSpec flippers = current.getFlippers();
+        simulation.submitLayout(new TableLayout(current.getFunnelWidth(), current.getFunnelHeight(),
+                new TableLayout.FlipperSpec(flippers.getLength() + 20, flippers.getWidth() + 4,
+                        flippers.getRestAngle(), flippers.getActiveAngle(), flippers.getRotationSpeed()),
+                current.getTargets(), current.getBumpers()));
+        simulation.tick();
+        GameSnapshot after = simulation.getSnapshots().acquire();
+
+        //кадр старого стола дорисовывается со старыми флипперами
+        assertEquals(flippers.getLength(), before.getFlipperLength(), 0.0);
+        assertEquals(flippers.getWidth(), before.getFlipperWidth(), 0.0);
+        assertEquals(flippers.getLength() + 20, after.getFlipperLength(), 0.0);
+        assertEquals(flippers.getWidth() + 4, after.getFlipperWidth(), 0.0);
+    }
+
+    @Test
+    public void testReaderNeverSeesTornSnapshot() throws InterruptedException {
+        TableState state = new TableState();
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread writer = new Thread(() -> {
+            long tick = 0;
+            while (running.get()) {
+                tick++;
+                //все поля одного шага согласованы между собой
+                int value = (int) tick;
+                state.setScore(value);
+                state.setLives(value);
+                state.setBallPositionX(value);
+                state.setBallPositionY(-value);
+                state.setLeftFlipperAngle(value);
+                buffer.publish(state, tick);
+            }
+        });
+        writer.start();
+
+        AtomicReference<String> failure = new AtomicReference<>();
+        long previousTick = 0;
+        long deadline = System.nanoTime() + 300_000_000L;
+        while (System.nanoTime() < deadline && failure.get() == null) {
+            GameSnapshot snapshot = buffer.acquire();
+            long tick = snapshot.getTick();
+            if (tick < previousTick) {
+                failure.set("tick went back: " + tick + " < " + previousTick);
+            }
+            previousTick = tick;
+            int value = (int) tick;
+            if (tick > 0 && (snapshot.getScore() != value || snapshot.getLives() != value
+                    || snapshot.getBallX(0) != value || snapshot.getBallY(0) != -value
+                    || snapshot.getLeftFlipperAngle() != value)) {
+                failure.set("torn snapshot at tick " + tick);
+            }
+        }
+
+        running.set(false);
+        writer.join();
+        assertNull(failure.get(), String.valueOf(failure.get()));
+        assertTrue(previousTick > 0);
+    }
+}
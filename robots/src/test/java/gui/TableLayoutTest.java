@@ -0,0 +1,157 @@
+package gui;
+
+import gui.game.Bumper;
+import gui.game.GameSimulation;
+import gui.game.TableLayout;
+import gui.game.TableLayoutLoader;
+import gui.game.TableLayoutWatcher;
+import gui.game.TableState;
+import gui.game.Target;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableLayoutTest {
+
+    private static final String SMALL_TABLE = "{\n"
+            + "  \"funnel\": {\"width\": 150},\n"
+            + "  \"flippers\": {\"length\": 50},\n"
+            + "  \"targets\": [{\"x\": 0.5, \"y\": 0.1, \"width\": 20, \"height\": 10, \"color\": \"#00ff00\", \"points\": 7}],\n"
+            + "  \"bumpers\": []\n"
+            + "}\n";
+
+    private static void deleteAll(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.forEach(files::add);
+        }
+        for (Path file : files) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testDefaultLayoutRoundTripsThroughJson() throws IOException {
+        TableLayout layout = TableLayoutLoader.parse(TableLayoutLoader.toJson(TableLayout.defaultLayout()));
+
+        GameSimulation fromFile = new GameSimulation(800, 600);
+        fromFile.setLayout(layout);
+        GameSimulation builtIn = new GameSimulation(800, 600);
+
+        TableState expected = builtIn.getState();
+        TableState actual = fromFile.getState();
+        assertEquals(expected.getFunnelLeftX(), actual.getFunnelLeftX(), 1e-9);
+        assertEquals(expected.getTargets().size(), actual.getTargets().size());
+        for (int i = 0; i < expected.getTargets().size(); i++) {
+            Target target = expected.getTargets().get(i);
+            assertEquals(target.getX(), actual.getTargets().get(i).getX(), 1e-9);
+            assertEquals(target.getY(), actual.getTargets().get(i).getY(), 1e-9);
+        }
+        for (int i = 0; i < expected.getBumpers().size(); i++) {
+            Bumper bumper = expected.getBumpers().get(i);
+            assertEquals(bumper.getRadius(), actual.getBumpers().get(i).getRadius(), 1e-9);
+        }
+        assertEquals(builtIn.getFlipperController().getFlipperLength(),
+                fromFile.getFlipperController().getFlipperLength(), 0.0);
+    }
+
+    @Test
+    public void testMissingFieldsUseDefaultsAndErrorsAreReported() throws IOException {
+        TableLayout layout = TableLayoutLoader.parse(SMALL_TABLE);
+        assertEquals(150, layout.getFunnelWidth(), 0.0);
+        assertEquals(0.25, layout.getFunnelHeight(), 0.0);
+        assertEquals(50, layout.getFlippers().getLength(), 0.0);
+        assertEquals(TableLayout.defaultLayout().getFlippers().getWidth(), layout.getFlippers().getWidth(), 0.0);
+        assertEquals(0x00FF00, layout.getTargets().get(0).getColor());
+
+        IOException missing = assertThrows(IOException.class,
+                () -> TableLayoutLoader.parse("{\"bumpers\": [{\"x\": 0.5, \"radius\": 5, \"points\": 1}]}"));
+        assertTrue(missing.getMessage().contains("\"y\""), missing.getMessage());
+        assertThrows(IOException.class, () -> TableLayoutLoader.parse("{\"targets\": [1, 2]}"));
+        assertThrows(IOException.class, () -> TableLayoutLoader.parse("{\"funnel\": {\"width\": -1}}"));
+        assertThrows(IOException.class, () -> TableLayoutLoader.parse("{\"funnel\": "));
+    }
+
+    @Test
+    public void testCompiledCacheIsUsedAndRebuilt() throws IOException {
+        Path directory = Files.createTempDirectory("pinball-table");
+        try {
+            Path file = directory.resolve("table.json");
+            Files.write(file, SMALL_TABLE.getBytes(StandardCharsets.UTF_8));
+            Path cache = TableLayoutLoader.cacheFile(file);
+
+            assertEquals(1, TableLayoutLoader.load(file).getTargets().size());
+            assertTrue(Files.exists(cache));
+            assertEquals(7, TableLayoutLoader.load(file).getTargets().get(0).getPoints());
+
+            //испорченный кэш не мешает загрузке и пересобирается
+            Files.write(cache, new byte[]{1, 2, 3});
+            assertEquals(150, TableLayoutLoader.load(file).getFunnelWidth(), 0.0);
+            assertTrue(Files.size(cache) > 3);
+
+            //изменённый исходник важнее кэша
+            Files.write(file, TableLayoutLoader.toJson(TableLayout.defaultLayout()).getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2_000));
+            assertEquals(3, TableLayoutLoader.load(file).getTargets().size());
+        } finally {
+            deleteAll(directory);
+        }
+    }
+
+    @Test
+    public void testLayoutChangeKeepsBallAndBumpsVersion() throws IOException {
+        GameSimulation simulation = new GameSimulation(800, 600);
+        simulation.startGame();
+        for (int i = 0; i < 10; i++) {
+            simulation.tick();
+        }
+        TableState state = simulation.getState();
+        double ballX = state.getBallPositionX();
+        int version = state.getLayoutVersion();
+
+        simulation.submitLayout(TableLayoutLoader.parse(SMALL_TABLE));
+        assertEquals(3, state.getTargets().size());
+        simulation.tick();
+
+        assertEquals(1, state.getTargets().size());
+        assertEquals(0, state.getBumpers().size());
+        assertTrue(state.getLayoutVersion() > version);
+        //шарик не возвращается на старт при смене стола
+        assertTrue(Math.abs(state.getBallPositionX() - ballX) < 50);
+        assertEquals(50, simulation.getFlipperController().getFlipperLength(), 0.0);
+        assertEquals(1, simulation.getSnapshots().acquire().getTargets().length);
+    }
+
+    @Test
+    public void testWatcherReloadsEditedFile() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("pinball-table");
+        GameSimulation simulation = new GameSimulation(800, 600);
+        Path file = directory.resolve("table.json");
+        Files.write(file, TableLayoutLoader.toJson(TableLayout.defaultLayout()).getBytes(StandardCharsets.UTF_8));
+        TableLayoutWatcher watcher = new TableLayoutWatcher(file, simulation);
+        try {
+            Files.write(file, SMALL_TABLE.getBytes(StandardCharsets.UTF_8));
+
+            long deadline = System.currentTimeMillis() + 15_000;
+            while (watcher.getReloadCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(watcher.getReloadCount() > 0);
+            simulation.tick();
+            assertEquals(1, simulation.getState().getTargets().size());
+        } finally {
+            watcher.close();
+            deleteAll(directory);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package log;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncLoggerTest {
+
+    private static List<String> messages(LogWindowSource source) {
+        List<String> result = new ArrayList<>();
+        for (LogEntry entry : source.all()) {
+            result.add(entry.getMessage());
+        }
+        return result;
+    }
+
+    @Test
+    public void testRingBufferRejectsWhenFull() {
+        LogRingBuffer buffer = new LogRingBuffer(4);
+        for (int i = 0; i < buffer.getCapacity(); i++) {
+            assertTrue(buffer.offer(LogLevel.Debug, "m" + i));
+        }
+        assertFalse(buffer.offer(LogLevel.Debug, "лишнее"));
+
+        LogWindowSource source = new LogWindowSource(10);
+        assertEquals(4, buffer.drain(source, 100));
+        assertTrue(buffer.isEmpty());
+        assertTrue(buffer.offer(LogLevel.Debug, "снова"));
+    }
+
+    @Test
+    public void testMessagesFromManyThreadsArriveInOrderPerThread() throws InterruptedException {
+        int threads = 4;
+        int perThread = 2_000;
+        LogWindowSource source = new LogWindowSource(threads * perThread);
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(threads * perThread, source);
+
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            String prefix = t + ":";
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    dispatcher.submit(LogLevel.Debug, prefix + i);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertTrue(dispatcher.flush(5_000));
+
+        List<String> received = messages(source);
+        assertEquals(threads * perThread, received.size());
+        int[] next = new int[threads];
+        for (String message : received) {
+            int separator = message.indexOf(':');
+            int thread = Integer.parseInt(message.substring(0, separator));
+            assertEquals(next[thread]++, Integer.parseInt(message.substring(separator + 1)));
+        }
+    }
+
+    @Test
+    public void testSlowListenerDoesNotBlockWriters() throws InterruptedException {
+        LogWindowSource source = new LogWindowSource(1_000);
+        AtomicInteger notifications = new AtomicInteger();
+        source.registerListener(() -> {
+            notifications.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(1_024, source);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            dispatcher.submit(LogLevel.Debug, "сообщение");
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 100, "writers waited " + elapsedMillis + " ms");
+        assertTrue(dispatcher.flush(5_000));
+        assertEquals(1_000, source.size());
+        //слушатель оповещается пачками, а не на каждое сообщение
+        assertTrue(notifications.get() < 100, "notifications: " + notifications.get());
+    }
+
+    @Test
+    public void testOverflowIsCountedAndReported() throws InterruptedException {
+        LogWindowSource source = new LogWindowSource(100);
+        Object gate = new Object();
+        source.registerListener(() -> {
+            synchronized (gate) {
+                //держим диспетчер, пока очередь переполняется
+            }
+        });
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(8, source);
+
+        synchronized (gate) {
+            dispatcher.submit(LogLevel.Debug, "первое");
+            Thread.sleep(50);
+            for (int i = 0; i < 100; i++) {
+                dispatcher.submit(LogLevel.Debug, "сообщение " + i);
+            }
+        }
+        assertTrue(dispatcher.getDroppedCount() > 0);
+        assertTrue(dispatcher.flush(5_000));
+        //о потере сообщает следующая пачка
+        dispatcher.submit(LogLevel.Debug, "после");
+        assertTrue(dispatcher.flush(5_000));
+
+        boolean reported = false;
+        for (String message : messages(source)) {
+            reported |= message.startsWith("Протокол переполнен");
+        }
+        assertTrue(reported);
+    }
+
+    @Test
+    public void testLevelFilterSkipsDisabledMessages() {
+        LogLevel previous = Logger.getLevel();
+        try {
+            Logger.setLevel(LogLevel.Error);
+            assertFalse(Logger.isDebugEnabled());
+            assertTrue(Logger.isEnabled(LogLevel.Fatal));
+
+            int before = Logger.getDefaultLogSource().size();
+            Logger.debug("не должно попасть в протокол");
+            assertTrue(Logger.flush(5_000));
+            assertEquals(before, Logger.getDefaultLogSource().size());
+        } finally {
+            Logger.setLevel(previous);
+        }
+    }
+
+    @Test
+    public void testForeignAppendDoesNotWaitForSlowSink() throws InterruptedException {
+        LogWindowSource source = new LogWindowSource(100);
+        Object gate = new Object();
+        List<String> sinkThreads = new ArrayList<>();
+        source.addSink(entry -> {
+            synchronized (gate) {
+                //медленный диск
+                sinkThreads.add(Thread.currentThread().getName());
+            }
+        });
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(64, source);
+
+        synchronized (gate) {
+            dispatcher.submit(LogLevel.Debug, "первое");
+            Thread.sleep(50);
+            //диспетчер стоит в получателе, а прямой append из другого потока всё равно не ждёт
+            long start = System.nanoTime();
+            source.append(LogLevel.Debug, "из окна");
+            assertTrue(System.nanoTime() - start < 50_000_000L);
+        }
+        assertTrue(dispatcher.flush(5_000));
+
+        assertEquals("из окна", messages(source).get(1));
+        assertEquals(Thread.currentThread().getName(), source.rangeBySequence(1, 1).get(0).getThreadName());
+        synchronized (gate) {
+            assertEquals(2, sinkThreads.size());
+            assertEquals("log dispatcher", sinkThreads.get(1));
+        }
+    }
+
+    @Test
+    public void testLoggerDeliversAsynchronously() {
+        Logger.debug("асинхронное сообщение");
+        assertTrue(Logger.flush(5_000));
+
+        List<String> received = messages(Logger.getDefaultLogSource());
+        assertEquals("асинхронное сообщение", received.get(received.size() - 1));
+    }
+
+    @Test
+    public void testEntryCarriesCategoryThreadAndTime() {
+        long before = System.currentTimeMillis();
+        Logger.warning(LogCategory.Physics, "структурное сообщение");
+        assertTrue(Logger.flush(5_000));
+
+        List<LogEntry> found = Logger.getDefaultLogSource().query(LogQuery.all()
+                .minimumLevel(LogLevel.Warning).categories(LogCategory.Physics));
+        LogEntry entry = found.get(found.size() - 1);
+        assertEquals("структурное сообщение", entry.getMessage());
+        assertEquals(LogLevel.Warning, entry.getLevel());
+        assertEquals(Thread.currentThread().getName(), entry.getThreadName());
+        assertTrue(entry.getTimestampMillis() >= before - 1);
+    }
+
+    @Test
+    public void testSupplierIsNotCalledForDisabledLevel() {
+        LogLevel previous = Logger.getLevel();
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            Logger.setLevel(LogLevel.Info);
+            Logger.debug(LogCategory.Physics, () -> "сообщение " + calls.incrementAndGet());
+            assertEquals(0, calls.get());
+            Logger.info(LogCategory.Physics, () -> "сообщение " + calls.incrementAndGet());
+            assertEquals(1, calls.get());
+        } finally {
+            Logger.setLevel(previous);
+        }
+    }
+}
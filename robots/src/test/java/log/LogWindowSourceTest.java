@@ -0,0 +1,165 @@
+package log;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogWindowSourceTest {
+
+    private static List<String> messages(Iterable<LogEntry> entries) {
+        List<String> result = new ArrayList<>();
+        for (LogEntry entry : entries) {
+            result.add(entry.getMessage());
+        }
+        return result;
+    }
+
+    @Test
+    public void testOldestEntriesAreEvicted() {
+        LogWindowSource source = new LogWindowSource(3);
+        for (int i = 0; i < 5; i++) {
+            source.append(LogLevel.Debug, "m" + i);
+        }
+
+        assertEquals(3, source.size());
+        assertEquals(2, source.getOldestSequence());
+        assertEquals(5, source.getNextSequence());
+        List<String> expected = new ArrayList<>();
+        expected.add("m2");
+        expected.add("m3");
+        expected.add("m4");
+        assertEquals(expected, messages(source.all()));
+    }
+
+    @Test
+    public void testRangeReadsWindowFromOldest() {
+        LogWindowSource source = new LogWindowSource(10);
+        for (int i = 0; i < 15; i++) {
+            source.append(LogLevel.Debug, "m" + i);
+        }
+
+        List<String> window = messages(source.range(2, 3));
+        assertEquals(3, window.size());
+        assertEquals("m7", window.get(0));
+        assertEquals("m9", window.get(2));
+        //окно за концом протокола обрезается
+        assertEquals(2, messages(source.range(8, 5)).size());
+        assertTrue(messages(source.range(20, 5)).isEmpty());
+    }
+
+    @Test
+    public void testRangeBySequenceSkipsEvicted() {
+        LogWindowSource source = new LogWindowSource(4);
+        for (int i = 0; i < 10; i++) {
+            source.append(LogLevel.Debug, "m" + i);
+        }
+
+        List<LogEntry> entries = source.rangeBySequence(0, 100);
+        assertEquals(4, entries.size());
+        assertEquals(6, entries.get(0).getSequence());
+        assertEquals(9, entries.get(3).getSequence());
+        assertTrue(source.rangeBySequence(10, 5).isEmpty());
+    }
+
+    @Test
+    public void testReadersSeeConsistentWindowsWhileWriting() throws InterruptedException {
+        LogWindowSource source = new LogWindowSource(64);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                while (running.get() && failure.get() == null) {
+                    long previous = -1;
+                    for (LogEntry entry : source.all()) {
+                        long sequence = entry.getSequence();
+                        if (!entry.getMessage().equals("m" + sequence) || sequence <= previous) {
+                            failure.set("bad entry " + sequence + " after " + previous);
+                        }
+                        previous = sequence;
+                    }
+                }
+            });
+            readers[r].start();
+        }
+
+        for (int i = 0; i < 200_000; i++) {
+            source.appendWithoutNotification(LogLevel.Debug, "m" + i);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get(), String.valueOf(failure.get()));
+        assertEquals(200_000, source.getNextSequence());
+    }
+
+    @Test
+    public void testRejectsEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new LogWindowSource(0));
+    }
+
+    //та же выборка полным перебором
+    private static List<String> scan(LogWindowSource source, LogLevel minimumLevel, LogCategory category,
+                                     long fromNanos, long toNanos) {
+        List<String> result = new ArrayList<>();
+        for (LogEntry entry : source.all()) {
+            if (entry.getLevel().level() >= minimumLevel.level() && entry.getCategory() == category
+                    && entry.getTimestampNanos() >= fromNanos && entry.getTimestampNanos() < toNanos) {
+                result.add(entry.getMessage());
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testQueryMatchesFullScan() {
+        LogWindowSource source = new LogWindowSource(50);
+        LogLevel[] levels = LogLevel.values();
+        LogCategory[] categories = LogCategory.values();
+        for (int i = 0; i < 200; i++) {
+            source.appendWithoutNotification(levels[i % levels.length], categories[(i / 2) % categories.length],
+                    "m" + i, "test", i * 1_000L);
+        }
+
+        assertEquals(scan(source, LogLevel.Warning, LogCategory.Physics, Long.MIN_VALUE, Long.MAX_VALUE),
+                messages(source.query(LogQuery.all().minimumLevel(LogLevel.Warning)
+                        .categories(LogCategory.Physics))));
+        assertEquals(scan(source, LogLevel.Trace, LogCategory.Renderer, 170_000L, 190_000L),
+                messages(source.query(LogQuery.all().categories(LogCategory.Renderer)
+                        .between(170_000L, 190_000L))));
+        assertFalse(source.query(LogQuery.all().minimumLevel(LogLevel.Error)).isEmpty());
+    }
+
+    @Test
+    public void testQueryByTimeRangeSkipsEvicted() {
+        LogWindowSource source = new LogWindowSource(10);
+        for (int i = 0; i < 30; i++) {
+            source.appendWithoutNotification(LogLevel.Info, LogCategory.General, "m" + i, "test", i * 1_000L);
+        }
+
+        List<String> window = messages(source.query(LogQuery.all().between(5_000L, 25_000L)));
+        assertEquals("m20", window.get(0));
+        assertEquals("m24", window.get(window.size() - 1));
+        assertEquals(5, window.size());
+        assertTrue(source.query(LogQuery.all().since(30_000L)).isEmpty());
+    }
+
+    @Test
+    public void testTimestampsNeverGoBack() {
+        LogWindowSource source = new LogWindowSource(10);
+        source.appendWithoutNotification(LogLevel.Info, LogCategory.General, "позже", "a", 2_000L);
+        source.appendWithoutNotification(LogLevel.Info, LogCategory.General, "раньше", "b", 1_000L);
+
+        List<LogEntry> entries = source.rangeBySequence(0, 2);
+        assertEquals(2_000L, entries.get(1).getTimestampNanos());
+        assertEquals("b", entries.get(1).getThreadName());
+    }
+}
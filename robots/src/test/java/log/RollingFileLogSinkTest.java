@@ -0,0 +1,126 @@
+package log;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingFileLogSinkTest {
+
+    private static List<String> lines(Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    private static void deleteAll(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.forEach(files::add);
+        }
+        for (Path file : files) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testEntriesWrittenWithTimestampAndLevel() throws IOException {
+        Path directory = Files.createTempDirectory("pinball-log");
+        try {
+            Path file = directory.resolve("pinball.log");
+            LogWindowSource source = new LogWindowSource(10);
+            RollingFileLogSink sink = new RollingFileLogSink(file);
+            source.addSink(sink);
+            source.append(LogLevel.Debug, "первое");
+            source.append(LogLevel.Error, "второе");
+            sink.close();
+
+            List<String> lines = lines(file);
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).matches("\\d{4}-\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d\\.\\d{6} DEBUG \\[General] .+ - первое"),
+                    lines.get(0));
+            assertTrue(lines.get(1).endsWith("ERROR [General] " + Thread.currentThread().getName() + " - второе"), lines.get(1));
+        } finally {
+            deleteAll(directory);
+        }
+    }
+
+    @Test
+    public void testHistoryIsNotLimitedByWindowCapacity() throws IOException {
+        Path directory = Files.createTempDirectory("pinball-log");
+        try {
+            Path file = directory.resolve("pinball.log");
+            LogWindowSource source = new LogWindowSource(5);
+            RollingFileLogSink sink = new RollingFileLogSink(file);
+            source.addSink(sink);
+            for (int i = 0; i < 1_000; i++) {
+                source.append(LogLevel.Info, "сообщение " + i);
+            }
+            sink.close();
+
+            assertEquals(5, source.size());
+            List<String> lines = lines(file);
+            assertEquals(1_000, lines.size());
+            assertTrue(lines.get(0).endsWith("сообщение 0"));
+        } finally {
+            deleteAll(directory);
+        }
+    }
+
+    @Test
+    public void testFilesRotateBySize() throws IOException {
+        Path directory = Files.createTempDirectory("pinball-log");
+        try {
+            Path file = directory.resolve("pinball.log");
+            RollingFileLogSink sink = new RollingFileLogSink(file, 200, 2);
+            for (int i = 0; i < 100; i++) {
+                sink.write(new LogEntry(LogLevel.Debug, "сообщение " + i));
+            }
+            sink.close();
+
+            assertTrue(Files.size(file) <= 200);
+            assertTrue(Files.exists(sink.rotatedFile(1)));
+            assertTrue(Files.exists(sink.rotatedFile(2)));
+            //хранится не больше двух старых файлов
+            assertFalse(Files.exists(sink.rotatedFile(3)));
+            List<String> current = lines(file);
+            assertTrue(current.get(current.size() - 1).endsWith("сообщение 99"));
+            List<String> previous = lines(sink.rotatedFile(1));
+            String lastPrevious = previous.get(previous.size() - 1);
+            String firstCurrent = current.get(0);
+            int lastNumber = Integer.parseInt(lastPrevious.substring(lastPrevious.lastIndexOf(' ') + 1));
+            assertEquals(lastNumber + 1, Integer.parseInt(firstCurrent.substring(firstCurrent.lastIndexOf(' ') + 1)));
+        } finally {
+            deleteAll(directory);
+        }
+    }
+
+    @Test
+    public void testBackgroundFlushWritesWithoutClose() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("pinball-log");
+        RollingFileLogSink sink = null;
+        try {
+            Path file = directory.resolve("pinball.log");
+            sink = new RollingFileLogSink(file);
+            sink.write(new LogEntry(LogLevel.Info, "без закрытия"));
+            assertEquals(0, Files.size(file));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (Files.size(file) == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(lines(file).get(0).endsWith(" - без закрытия"));
+        } finally {
+            if (sink != null) {
+                sink.close();
+            }
+            deleteAll(directory);
+        }
+    }
+}